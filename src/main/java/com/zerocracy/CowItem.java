@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Copy-on-write item.
+ *
+ * <p>The file of the original item is copied to a temp file when
+ * {@link #path()} is called for the first time, since whoever asks for
+ * the path of an acquired item may write to it, in any way and from any
+ * thread. Until then the original file stays the only one: an item that
+ * is acquired and never touched costs no copy at all. Somebody who only
+ * reads should use {@link Project#read(String)}, which gives the original
+ * file and no copy. The original item is not changed until
+ * {@link #commit()}.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public final class CowItem implements Item {
+
+    /**
+     * Original item.
+     */
+    private final Item origin;
+
+    /**
+     * The copy, NULL until the path is asked.
+     */
+    private Path copy;
+
+    /**
+     * Modification time of the copy, when it was made.
+     */
+    private FileTime time;
+
+    /**
+     * Length of the copy, when it was made.
+     */
+    private long length;
+
+    /**
+     * Ctor.
+     * @param item Original item
+     */
+    public CowItem(final Item item) {
+        this.origin = item;
+    }
+
+    @Override
+    public String toString() {
+        return this.origin.toString();
+    }
+
+    @Override
+    public synchronized Path path() throws IOException {
+        if (this.copy == null) {
+            final Path tmp = Files.createTempFile("cow", ".xml");
+            final Path src = this.origin.path();
+            if (src.toFile().exists()) {
+                Files.copy(src, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.time = Files.getLastModifiedTime(tmp);
+            this.length = tmp.toFile().length();
+            this.copy = tmp;
+        }
+        return this.copy;
+    }
+
+    /**
+     * Original file, as it was before all writes.
+     * @return Path
+     * @throws IOException If fails
+     */
+    public Path original() throws IOException {
+        return this.origin.path();
+    }
+
+    /**
+     * Was the path ever asked?
+     * @return TRUE if the copy was made
+     */
+    public synchronized boolean copied() {
+        return this.copy != null;
+    }
+
+    /**
+     * What was changed in the copy, if anything.
+     *
+     * <p>Only modification time and length of the copy are checked,
+     * not its content.</p>
+     *
+     * @return Description of changes, empty if nothing
+     * @throws IOException If fails
+     */
+    public synchronized String changes() throws IOException {
+        final StringBuilder text = new StringBuilder(0);
+        if (this.copy != null && this.copy.toFile().length() > 0L) {
+            final FileTime now = Files.getLastModifiedTime(this.copy);
+            if (!now.equals(this.time)) {
+                text.append(String.format("Time:%s!=%s", now, this.time));
+            }
+            final long len = this.copy.toFile().length();
+            if (len != this.length) {
+                if (text.length() > 0) {
+                    text.append("; ");
+                }
+                text.append(String.format("Length:%s!=%s", len, this.length));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Write the copy to the original item, if it was made.
+     * @throws IOException If fails
+     */
+    public synchronized void commit() throws IOException {
+        if (this.copy != null) {
+            Files.copy(
+                this.copy, this.origin.path(),
+                StandardCopyOption.REPLACE_EXISTING
+            );
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (this.copy != null) {
+                Files.deleteIfExists(this.copy);
+                this.copy = null;
+            }
+        } finally {
+            this.origin.close();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.cactoos.Input;
+import org.cactoos.io.BytesOf;
+import org.cactoos.io.InputOf;
+
+/**
+ * File of the DATUM release, which is {@link Xocument#VERSION}.
+ *
+ * <p>The release is bundled into the JAR, in {@code com/zerocracy/datum},
+ * by the build from the {@code com.zerocracy:datum} artifact, see
+ * {@code pom.xml}. All files listed in its {@code index.xml} files are
+ * loaded into memory by {@link #preload()} and stay there until the JVM is
+ * down. A file that is not in the bundle is not found, unless the system
+ * property {@code datum.online} is set to {@code true}: then it is taken
+ * from {@code datum.zerocracy.com}.</p>
+ *
+ * <p>The path may be either a full URL, like
+ * {@code http://datum.zerocracy.com/latest/rules/pm/index.xml},
+ * or an absolute path, like {@code /0.62.3/xsd/pm/scope/wbs.xsd}. The
+ * first part of the path, either {@code latest} or a version,
+ * is ignored: the version is always the one we are built with.</p>
+ *
+ * @since 1.0
+ */
+public final class Datum implements Input {
+
+    /**
+     * Home of DATUM.
+     */
+    public static final String HOME = "http://datum.zerocracy.com";
+
+    /**
+     * Files loaded, by their paths inside the release.
+     */
+    private static final Map<String, byte[]> FILES =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Location of the bundle in classpath.
+     */
+    private static final String BUNDLE = "com/zerocracy/datum/";
+
+    /**
+     * Top directories of the release.
+     */
+    private static final String[] DIRS = {"xsd", "rules", "auto", "upgrades"};
+
+    /**
+     * Path inside the release, without leading slash.
+     */
+    private final String path;
+
+    /**
+     * Ctor.
+     * @param uri URL or path of the file
+     */
+    public Datum(final String uri) {
+        this.path = Datum.relative(uri);
+    }
+
+    /**
+     * Load the entire bundle into memory.
+     * @return How many files were loaded
+     * @throws IOException If fails
+     */
+    public static int preload() throws IOException {
+        final URL index = Datum.class.getClassLoader().getResource(
+            String.format("%s%s/index.xml", Datum.BUNDLE, Datum.DIRS[0])
+        );
+        int total = 0;
+        if (index == null) {
+            Logger.warn(
+                Datum.class, "DATUM %s is not bundled, nothing to preload",
+                Xocument.VERSION
+            );
+        } else {
+            for (final String dir : Datum.DIRS) {
+                total += Datum.preload(dir);
+            }
+            Logger.info(
+                Datum.class, "%d files of DATUM %s loaded from the bundle",
+                total, Xocument.VERSION
+            );
+        }
+        return total;
+    }
+
+    @Override
+    public InputStream stream() throws IOException {
+        return new ByteArrayInputStream(this.bytes());
+    }
+
+    /**
+     * Content of the file.
+     * @return Bytes
+     * @throws IOException If fails
+     */
+    private byte[] bytes() throws IOException {
+        byte[] bytes = Datum.FILES.get(this.path);
+        if (bytes == null) {
+            final URL res = Datum.class.getClassLoader().getResource(
+                String.format("%s%s", Datum.BUNDLE, this.path)
+            );
+            if (res != null) {
+                bytes = new BytesOf(new InputOf(res)).asBytes();
+            } else if (!Boolean.getBoolean("datum.online")) {
+                throw new FileNotFoundException(
+                    String.format(
+                        "DATUM file \"%s\" is not bundled",
+                        this.path
+                    )
+                );
+            } else {
+                bytes = new BytesOf(
+                    new InputOf(
+                        new URL(
+                            String.format(
+                                "%s/%s/%s",
+                                Datum.HOME, Xocument.VERSION, this.path
+                            )
+                        )
+                    )
+                ).asBytes();
+            }
+            Datum.FILES.putIfAbsent(this.path, bytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * Load the directory of the bundle into memory, with all subdirectories.
+     * @param dir Path of the directory inside the release
+     * @return How many files were loaded
+     * @throws IOException If fails
+     */
+    private static int preload(final String dir) throws IOException {
+        final XML index = new XMLDocument(
+            new String(
+                new Datum(String.format("%s/index.xml", dir)).bytes(),
+                StandardCharsets.UTF_8
+            )
+        );
+        int total = 1;
+        for (final XML entry : index.nodes("/index/entry")) {
+            final String uri = entry.xpath("@uri").get(0)
+                .replaceAll("/+$", "");
+            final String name = String.format(
+                "%s/%s", dir, uri.substring(uri.lastIndexOf('/') + 1)
+            );
+            if ("true".equals(entry.xpath("@dir").get(0))) {
+                total += Datum.preload(name);
+            } else {
+                new Datum(name).bytes();
+                ++total;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Path inside the release.
+     * @param uri URL or path
+     * @return Path without version and leading slash
+     */
+    private static String relative(final String uri) {
+        String rel = uri;
+        if (rel.startsWith(Datum.HOME)) {
+            rel = rel.substring(Datum.HOME.length());
+        }
+        if (rel.startsWith("/")) {
+            rel = rel.substring(Math.max(0, rel.indexOf('/', 1) + 1));
+        }
+        return rel;
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.cactoos.Func;
+import org.w3c.dom.Node;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Cache of parsed and validated XML documents.
+ *
+ * <p>Documents are keyed by SHA-256 of the content of the file they
+ * were parsed from, so a document is never outdated, no matter who
+ * and how rewrote the file, and copies of the same file share one
+ * document. The cache is bounded by the number of documents and by the
+ * total length of their content, and keeps documents through soft
+ * references, so they may be dropped by GC under memory pressure.</p>
+ *
+ * <p>DOM is not thread-safe, even for reading: Xerces expands nodes
+ * lazily and caches node lists inside the document. That's why the
+ * cached DOM is never given away. Each caller gets its own deep copy,
+ * made while nobody else touches the cached one, and may read or
+ * modify it as it wishes.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public final class DomCache {
+
+    /**
+     * Entries, by fingerprints of content, in access order.
+     */
+    private final LinkedHashMap<String, DomCache.Entry> map;
+
+    /**
+     * Maximum number of documents.
+     */
+    private final int max;
+
+    /**
+     * Maximum total length of content, in bytes.
+     */
+    private final long limit;
+
+    /**
+     * Total length of cached content, in bytes.
+     */
+    private long total;
+
+    /**
+     * Hits.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Misses.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Ctor.
+     * @param docs Maximum number of documents
+     * @param bytes Maximum total length of content
+     */
+    public DomCache(final int docs, final long bytes) {
+        // @checkstyle MagicNumber (1 line)
+        this.map = new LinkedHashMap<>(docs, 0.75f, true);
+        this.max = docs;
+        this.limit = bytes;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * Get parsed document, parsing the file if it's not in cache.
+     * @param path The file
+     * @param parser Parser of the content of the file
+     * @return Parsed document, a copy of its own for the caller
+     * @throws IOException If fails
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public XML get(final Path path, final Func<byte[], XML> parser)
+        throws IOException {
+        final byte[] content = Files.readAllBytes(path);
+        final String key = DomCache.print(content);
+        XML xml = this.lookup(key);
+        if (xml == null) {
+            this.misses.incrementAndGet();
+            final XML parsed;
+            try {
+                parsed = parser.apply(content);
+            } catch (final IOException | RuntimeException ex) {
+                throw ex;
+            // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final Exception ex) {
+                throw new IOException(ex);
+            }
+            final DomCache.Entry entry = new DomCache.Entry(
+                content.length, parsed.node()
+            );
+            this.put(key, entry);
+            xml = entry.copy();
+        } else {
+            this.hits.incrementAndGet();
+        }
+        return xml;
+    }
+
+    /**
+     * Get parsed document, only if it is in cache.
+     * @param path The file
+     * @return Parsed document, a copy of its own for the caller,
+     *  or NULL if it's absent
+     * @throws IOException If fails
+     */
+    public XML peek(final Path path) throws IOException {
+        final XML xml = this.lookup(
+            DomCache.print(Files.readAllBytes(path))
+        );
+        if (xml != null) {
+            this.hits.incrementAndGet();
+        }
+        return xml;
+    }
+
+    /**
+     * Number of hits so far.
+     * @return Hits
+     */
+    public long hits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Number of misses so far.
+     * @return Misses
+     */
+    public long misses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Guts of the cache.
+     * @return Directives
+     */
+    public Iterable<Directive> guts() {
+        final int size;
+        final long bytes;
+        synchronized (this.map) {
+            size = this.map.size();
+            bytes = this.total;
+        }
+        return new Directives()
+            .add("dom")
+            .attr("size", size)
+            .attr("bytes", bytes)
+            .attr("hits", this.hits.get())
+            .attr("misses", this.misses.get())
+            .up();
+    }
+
+    /**
+     * Find document parsed from this content.
+     * @param key Fingerprint of the content
+     * @return Copy of the parsed document or NULL
+     */
+    private XML lookup(final String key) {
+        final DomCache.Entry entry;
+        synchronized (this.map) {
+            entry = this.map.get(key);
+        }
+        XML xml = null;
+        if (entry != null) {
+            xml = entry.copy();
+        }
+        return xml;
+    }
+
+    /**
+     * Put new entry and evict the eldest ones, if necessary.
+     * @param key Fingerprint of the content
+     * @param entry The entry
+     */
+    private void put(final String key, final DomCache.Entry entry) {
+        synchronized (this.map) {
+            final DomCache.Entry old = this.map.put(key, entry);
+            if (old != null) {
+                this.total -= old.length;
+            }
+            this.total += entry.length;
+            final Iterator<Map.Entry<String, DomCache.Entry>> iter =
+                this.map.entrySet().iterator();
+            while (iter.hasNext()
+                && (this.map.size() > this.max || this.total > this.limit)) {
+                final DomCache.Entry eldest = iter.next().getValue();
+                if (eldest != entry) {
+                    this.total -= eldest.length;
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Fingerprint of the content.
+     * @param content The content
+     * @return SHA-256 of it
+     */
+    private static String print(final byte[] content) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException err) {
+            throw new IllegalStateException("SHA-256 algorithm required", err);
+        }
+        return Base64.getEncoder().encodeToString(digest.digest(content));
+    }
+
+    /**
+     * Cached document.
+     */
+    private static final class Entry {
+        /**
+         * Length of the content.
+         */
+        private final long length;
+        /**
+         * The document, which is never given away.
+         */
+        private final SoftReference<Node> doc;
+        /**
+         * Ctor.
+         * @param size Length of the content
+         * @param node The document
+         */
+        Entry(final long size, final Node node) {
+            this.length = size;
+            this.doc = new SoftReference<>(node);
+        }
+        /**
+         * Deep copy of the document.
+         * @return The copy or NULL if GC took the document
+         */
+        XML copy() {
+            final Node node = this.doc.get();
+            XML xml = null;
+            if (node != null) {
+                final Node clone;
+                synchronized (node) {
+                    clone = node.cloneNode(true);
+                }
+                xml = new XMLDocument(clone);
+            }
+            return xml;
+        }
+    }
+}
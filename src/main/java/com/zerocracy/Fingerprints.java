@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fingerprints of XML documents, which passed XSD validation.
+ *
+ * <p>A fingerprint is SHA-256 of the content of the document together
+ * with the DATUM version it was validated against. Content with a known
+ * fingerprint doesn't need to be validated again, no matter which file
+ * it is read from: files are often temp copies, which are new on every
+ * transaction, while their content is the same. The content refers to
+ * its own XSD, so it is either valid or not wherever it is.
+ * Set system property {@code com.zerocracy.xocument.strict} to
+ * {@code true} in order to validate all documents on every read.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+final class Fingerprints {
+
+    /**
+     * System property to disable trusted reads.
+     */
+    static final String STRICT = "com.zerocracy.xocument.strict";
+
+    /**
+     * Fingerprints of valid content, the eldest first.
+     */
+    private final Set<String> prints;
+
+    /**
+     * Ctor.
+     * @param max Maximum number of files to remember
+     */
+    @SuppressWarnings("serial")
+    Fingerprints(final int max) {
+        this.prints = Collections.newSetFromMap(
+            new LinkedHashMap<String, Boolean>(max) {
+                @Override
+                protected boolean removeEldestEntry(
+                    final Map.Entry<String, Boolean> eldest) {
+                    return this.size() > max;
+                }
+            }
+        );
+    }
+
+    /**
+     * Remember that this content is valid.
+     * @param content The content, which passed validation
+     */
+    public void valid(final byte[] content) {
+        final String print = Fingerprints.print(content);
+        synchronized (this.prints) {
+            this.prints.add(print);
+        }
+    }
+
+    /**
+     * Can this content be trusted without validation?
+     * @param content The content
+     * @return TRUE if it was validated before
+     */
+    public boolean trusted(final byte[] content) {
+        boolean trusted = false;
+        if (!Boolean.getBoolean(Fingerprints.STRICT)) {
+            final String print = Fingerprints.print(content);
+            synchronized (this.prints) {
+                trusted = this.prints.contains(print);
+            }
+        }
+        return trusted;
+    }
+
+    /**
+     * Fingerprint of the content.
+     * @param content The content
+     * @return Fingerprint
+     */
+    private static String print(final byte[] content) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException err) {
+            throw new IllegalStateException("SHA-256 algorithm required", err);
+        }
+        digest.update(content);
+        digest.update(Xocument.VERSION.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+}
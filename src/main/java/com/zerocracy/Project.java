@@ -58,4 +58,20 @@ public interface Project {
      */
     Item acq(String file) throws IOException;
 
+    /**
+     * Acquire an item only for reading.
+     *
+     * <p>Other threads may read the same file at the same time, but
+     * nobody can modify it, until you call {@code Item.close()}.
+     * Changes made to the file of such an item may be lost. By
+     * default it is the same as {@link #acq(String)}.</p>
+     *
+     * @param file File name in the project
+     * @return Item acquired
+     * @throws IOException If fails on I/O
+     */
+    default Item read(final String file) throws IOException {
+        return this.acq(file);
+    }
+
 }
@@ -17,11 +17,8 @@
 package com.zerocracy;
 
 import java.io.Closeable;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -31,6 +28,10 @@ import org.cactoos.scalar.IoCheckedScalar;
 /**
  * Project's items transaction.
  *
+ * <p>Files of acquired items are copied only when they are asked
+ * for writing, by {@link Item#path()}, see {@link CowItem}. Items
+ * which are only read, by {@link #read(String)}, are never copied.</p>
+ *
  * @since 1.0
  */
 public final class Txn implements Project, Closeable {
@@ -81,6 +82,17 @@ public final class Txn implements Project, Closeable {
         return item;
     }
 
+    @Override
+    public Item read(final String file) throws IOException {
+        final Item item;
+        if (this.items.containsKey(file)) {
+            item = this.acq(file);
+        } else {
+            item = this.origin.read(file);
+        }
+        return item;
+    }
+
     @Override
     public String pid() throws IOException {
         return this.origin.pid();
@@ -116,16 +128,7 @@ public final class Txn implements Project, Closeable {
      * @throws IOException If fails
      */
     private Txn.TxnItem item(final String file) throws IOException {
-        final File tmp = File.createTempFile("txn_", ".tmp");
-        final Item src = this.origin.acq(file);
-        if (src.path().toFile().exists()) {
-            Files.copy(
-                src.path(),
-                tmp.toPath(),
-                StandardCopyOption.REPLACE_EXISTING
-            );
-        }
-        return new Txn.TxnItem(src, tmp);
+        return new Txn.TxnItem(new CowItem(this.origin.acq(file)));
     }
 
     /**
@@ -133,13 +136,9 @@ public final class Txn implements Project, Closeable {
      */
     private static final class TxnItem implements Item {
         /**
-         * Origin item.
+         * Origin item, copied on write.
          */
-        private final Item origin;
-        /**
-         * Temporary file.
-         */
-        private final File tmp;
+        private final CowItem origin;
         /**
          * Committed flag.
          */
@@ -148,17 +147,15 @@ public final class Txn implements Project, Closeable {
         /**
          * Ctor.
          * @param origin Origin item
-         * @param tmp Temp file
          */
-        private TxnItem(final Item origin, final File tmp) {
+        private TxnItem(final CowItem origin) {
             this.origin = origin;
-            this.tmp = tmp;
             this.commited = new AtomicBoolean();
         }
 
         @Override
-        public Path path() {
-            return this.tmp.toPath();
+        public Path path() throws IOException {
+            return this.origin.path();
         }
 
         @Override
@@ -183,18 +180,11 @@ public final class Txn implements Project, Closeable {
          */
         public void close(final boolean force) throws IOException {
             if (this.commited.get()) {
-                Files.move(
-                    this.tmp.toPath(),
-                    this.origin.path(),
-                    StandardCopyOption.REPLACE_EXISTING
-                );
+                this.origin.commit();
             }
             if (force) {
                 this.origin.close();
             }
-            if (force && this.tmp.exists() && !this.tmp.delete()) {
-                throw new IOException("Failed to delete tmp file");
-            }
         }
     }
 }
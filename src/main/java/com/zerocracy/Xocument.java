@@ -20,26 +20,28 @@ import com.jcabi.log.Logger;
 import com.jcabi.xml.StrictXML;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
-import com.jcabi.xml.XSL;
 import com.jcabi.xml.XSLDocument;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.cactoos.Scalar;
-import org.cactoos.cache.SoftFunc;
-import org.cactoos.func.SyncFunc;
+import org.cactoos.func.SolidFunc;
 import org.cactoos.func.UncheckedFunc;
 import org.cactoos.io.InputOf;
-import org.cactoos.io.InputStreamOf;
-import org.cactoos.io.InputWithFallback;
 import org.cactoos.io.LengthOf;
 import org.cactoos.io.TeeInput;
 import org.cactoos.list.SolidList;
@@ -49,6 +51,8 @@ import org.cactoos.scalar.UncheckedScalar;
 import org.cactoos.text.TextOf;
 import org.cactoos.text.UncheckedText;
 import org.cactoos.time.DateAsText;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.ls.LSResourceResolver;
 import org.xembly.Directive;
@@ -70,29 +74,26 @@ public final class Xocument {
     public static final String VERSION = "0.62.3";
 
     /**
-     * Cache of documents.
+     * Indexes of upgrades, which never change, since DATUM is bundled.
      */
-    private static final UncheckedFunc<URL, XML> INDEXES = new UncheckedFunc<>(
-        new SyncFunc<>(
-            new SoftFunc<>(
-                url -> new XMLDocument(
-                    new TextOf(
-                        new InputWithFallback(
-                            new InputOf(url),
-                            new InputOf("<index/>")
-                        )
-                    ).asString()
-                )
+    private static final UncheckedFunc<String, XML> INDEXES =
+        new UncheckedFunc<>(
+            new SolidFunc<>(
+                path -> new XMLDocument(new TextOf(new Datum(path)).asString())
             )
-        )
-    );
+        );
 
     /**
-     * Compressing XSL.
+     * Parsed and validated documents.
      */
-    private static final XSL COMPRESS = XSLDocument.make(
-        Xocument.class.getResource("compress.xsl")
-    );
+    // @checkstyle MagicNumber (1 line)
+    public static final DomCache DOMS = new DomCache(512, 64L << 20);
+
+    /**
+     * Fingerprints of validated documents.
+     */
+    // @checkstyle MagicNumber (1 line)
+    private static final Fingerprints PRINTS = new Fingerprints(4096);
 
     /**
      * XSD resolver.
@@ -152,7 +153,7 @@ public final class Xocument {
         final Path path = this.file.value();
         if (!path.toFile().exists() || Files.size(path) == 0L) {
             Files.write(
-                path,
+                this.file.value(),
                 String.join(
                     " ",
                     String.format("<%s", root),
@@ -166,7 +167,9 @@ public final class Xocument {
                 StandardOpenOption.CREATE
             );
         }
-        final XML xml = this.upgraded(new XMLDocument(path.toFile()), xsd);
+        final XML xml = this.upgraded(
+            new XMLDocument(this.file.value().toFile()), xsd
+        );
         final String schema = xml.xpath(
             String.format("/%s/@xsi:noNamespaceSchemaLocation", root)
         ).get(0);
@@ -191,11 +194,7 @@ public final class Xocument {
      * @throws FileNotFoundException If fails
      */
     public List<String> xpath(final String xpath) throws FileNotFoundException {
-        final XML xml = new StrictXML(
-            new XMLDocument(this.file.value().toFile()),
-            Xocument.RESOLVER
-        );
-        return xml.xpath(xpath);
+        return this.strict().xpath(xpath);
     }
 
     /**
@@ -232,30 +231,106 @@ public final class Xocument {
      * @throws FileNotFoundException If fails
      */
     public List<XML> nodes(final String xpath) throws FileNotFoundException {
-        final XML xml = new StrictXML(
-            new XMLDocument(this.file.value().toFile()),
-            Xocument.RESOLVER
-        );
-        return xml.nodes(xpath);
+        return this.strict().nodes(xpath);
     }
 
     /**
      * Modify it.
+     *
+     * <p>Directives are applied to a copy of the cached DOM, if there is
+     * one, instead of parsing the file again. Whitespace is stripped and
+     * "version" and "updated" attributes are set right in the DOM, the same
+     * way {@code compress.xsl} does it. The file is written only if
+     * directives really changed something.</p>
+     *
      * @param dirs Directives
      */
     public void modify(final Iterable<Directive> dirs) {
-        final XML before = new XMLDocument(this.toString());
+        this.apply(Collections.singleton(dirs));
+    }
+
+    /**
+     * Start a batch of modifications, which will be applied, validated
+     * and written all together in {@link Xocument.Batch#commit()}.
+     * @return Batch
+     */
+    public Xocument.Batch batch() {
+        return new Xocument.Batch(this);
+    }
+
+    /**
+     * Modify it with a few sets of directives at once.
+     * @param all Sets of directives, each one applied from the root
+     */
+    private void apply(final Collection<Iterable<Directive>> all) {
+        final Path path;
+        XML before;
+        try {
+            path = this.file.value();
+            before = Xocument.DOMS.peek(path);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (before == null) {
+            before = new XMLDocument(this.toString());
+        }
         final Node node = before.node();
-        new Xembler(dirs).applyQuietly(node);
-        final XML xml = new StrictXML(
-            Xocument.COMPRESS.with(
-                "version", Xocument.VERSION
-            ).transform(new XMLDocument(node)),
-            Xocument.RESOLVER
-        );
-        final String after = xml.toString();
-        if (!before.toString().equals(after)) {
-            new LengthOf(new TeeInput(after, this.file.value())).intValue();
+        Xocument.strip(node);
+        final Node snapshot = node.cloneNode(true);
+        for (final Iterable<Directive> dirs : all) {
+            new Xembler(dirs).applyQuietly(node);
+        }
+        Xocument.strip(node);
+        final Element root = ((Document) node).getDocumentElement();
+        if (!snapshot.isEqualNode(node)
+            || !Xocument.VERSION.equals(root.getAttribute("version"))) {
+            root.setAttribute("version", Xocument.VERSION);
+            root.setAttribute(
+                "updated",
+                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'")
+                    .withZone(ZoneOffset.UTC)
+                    .format(Instant.now())
+            );
+            final String after = new StrictXML(
+                new XMLDocument(node), Xocument.RESOLVER
+            ).toString();
+            new LengthOf(new TeeInput(after, path)).intValue();
+            Xocument.PRINTS.valid(after.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Parsed and validated document, from cache if possible.
+     *
+     * <p>Validation is skipped if exactly this content was validated
+     * before, see {@link Fingerprints}.</p>
+     *
+     * @return XML
+     * @throws FileNotFoundException If there is no file
+     */
+    private XML strict() throws FileNotFoundException {
+        final Path path = this.file.value();
+        if (!path.toFile().exists()) {
+            throw new FileNotFoundException(path.toString());
+        }
+        try {
+            return Xocument.DOMS.get(
+                path,
+                bytes -> {
+                    XML xml = new XMLDocument(
+                        new String(bytes, StandardCharsets.UTF_8)
+                    );
+                    if (!Xocument.PRINTS.trusted(bytes)) {
+                        xml = new StrictXML(xml, Xocument.RESOLVER);
+                        Xocument.PRINTS.valid(bytes);
+                    }
+                    return xml;
+                }
+            );
+        } catch (final FileNotFoundException ex) {
+            throw ex;
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
         }
     }
 
@@ -287,9 +362,9 @@ public final class Xocument {
                         final String ver = node.xpath("@order").get(0);
                         if (Xocument.compare(ver, version) > 0
                             && Xocument.compare(ver, Xocument.VERSION) <= 0) {
-                            final URL url = new URL(node.xpath("@uri").get(0));
+                            final String url = node.xpath("@uri").get(0);
                             output = XSLDocument.make(
-                                new InputStreamOf(url)
+                                new Datum(url).stream()
                             ).transform(input);
                             Logger.info(
                                 this,
@@ -299,14 +374,9 @@ public final class Xocument {
                         }
                         return output;
                     },
-                    Xocument.INDEXES.apply(
-                        Xocument.url(
-                            String.format(
-                                "/latest/upgrades/%s/index.xml",
-                                xsd
-                            )
-                        )
-                    ).nodes("/index/entry[@dir='false']")
+                    Xocument.upgrades(xsd).nodes(
+                        "/index/entry[@dir='false']"
+                    )
                 )
             ).value();
             new LengthOf(
@@ -316,6 +386,41 @@ public final class Xocument {
         return after;
     }
 
+    /**
+     * Index of upgrades of the XSD.
+     * @param xsd Path to XSD, eg "pm/scope/wbs"
+     * @return Index, empty if there are no upgrades
+     */
+    private static XML upgrades(final String xsd) {
+        XML index;
+        try {
+            index = Xocument.INDEXES.apply(
+                String.format("/latest/upgrades/%s/index.xml", xsd)
+            );
+        } catch (final UncheckedIOException ex) {
+            index = new XMLDocument("<index/>");
+        }
+        return index;
+    }
+
+    /**
+     * Remove whitespace-only text nodes, like xsl:strip-space does.
+     * @param node The node to clean
+     */
+    private static void strip(final Node node) {
+        Node child = node.getFirstChild();
+        while (child != null) {
+            final Node next = child.getNextSibling();
+            if (child.getNodeType() == Node.TEXT_NODE
+                && child.getNodeValue().trim().isEmpty()) {
+                node.removeChild(child);
+            } else if (child.getNodeType() == Node.ELEMENT_NODE) {
+                Xocument.strip(child);
+            }
+            child = next;
+        }
+    }
+
     /**
      * Build URL.
      * @param path Path
@@ -325,8 +430,8 @@ public final class Xocument {
     private static URL url(final String path) throws MalformedURLException {
         return new URL(
             String.format(
-                "http://datum.zerocracy.com%s",
-                path
+                "%s%s",
+                Datum.HOME, path
             )
         );
     }
@@ -362,4 +467,49 @@ public final class Xocument {
         return sum;
     }
 
+    /**
+     * Batch of modifications.
+     *
+     * <p>The class is NOT thread-safe.</p>
+     *
+     * @since 1.0
+     */
+    public static final class Batch {
+        /**
+         * The document.
+         */
+        private final Xocument xoc;
+        /**
+         * Collected directives.
+         */
+        private final Collection<Iterable<Directive>> dirs;
+        /**
+         * Ctor.
+         * @param doc The document
+         */
+        Batch(final Xocument doc) {
+            this.xoc = doc;
+            this.dirs = new LinkedList<>();
+        }
+        /**
+         * Add directives, they will be applied from the root of
+         * the document, just like in {@link Xocument#modify(Iterable)}.
+         * @param more Directives
+         * @return This
+         */
+        public Xocument.Batch modify(final Iterable<Directive> more) {
+            this.dirs.add(more);
+            return this;
+        }
+        /**
+         * Apply all collected directives, validate and write the document.
+         */
+        public void commit() {
+            if (!this.dirs.isEmpty()) {
+                this.xoc.apply(this.dirs);
+                this.dirs.clear();
+            }
+        }
+    }
+
 }
@@ -18,6 +18,7 @@ package com.zerocracy;
 
 import java.net.URL;
 import org.cactoos.Func;
+import org.cactoos.Input;
 import org.cactoos.func.SolidFunc;
 import org.cactoos.func.UncheckedFunc;
 import org.cactoos.io.InputOf;
@@ -39,17 +40,20 @@ public final class XsdResolver implements LSResourceResolver {
     private final Func<String, LSInput> locator = new SolidFunc<>(
         loc -> {
             final String[] parts = loc.split(" ");
-            return new LSInputOf(
-                new SyncInput(
-                    new StickyInput(
-                        new InputOf(
-                            // @checkstyle MagicNumber (6 lines)
-                            new URL(parts[3])
-                        )
-                    )
-                ),
-                parts[2], parts[3], parts[4]
-            );
+            // @checkstyle MagicNumber (1 line)
+            final String sid = parts[3];
+            final Input input;
+            if (sid.startsWith(
+                String.format("%s/%s/", Datum.HOME, Xocument.VERSION)
+            )) {
+                input = new Datum(sid);
+            } else {
+                input = new SyncInput(
+                    new StickyInput(new InputOf(new URL(sid)))
+                );
+            }
+            // @checkstyle MagicNumber (1 line)
+            return new LSInputOf(input, parts[2], sid, parts[4]);
         }
     );
 
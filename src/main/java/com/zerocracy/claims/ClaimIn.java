@@ -19,7 +19,6 @@ package com.zerocracy.claims;
 import com.jcabi.xml.XML;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import org.cactoos.text.UncheckedText;
@@ -32,22 +31,34 @@ import org.cactoos.time.DateOf;
  * its keep components out. Use it everywhere. Don't parse the XML
  * manually.</p>
  *
+ * <p>The XML is parsed only once, in the constructor. Pass
+ * {@link #xml()} further, instead of the original XML, and the next
+ * {@link ClaimIn} made of it won't parse it again.</p>
+ *
  * @since 1.0
  */
 @SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.TooManyMethods"})
 public final class ClaimIn {
 
     /**
-     * XML.
+     * XML, parsed.
      */
-    private final XML xml;
+    private final ClaimView xml;
 
     /**
      * Ctor.
      * @param input Input XML
      */
     public ClaimIn(final XML input) {
-        this.xml = input;
+        this(ClaimIn.view(input));
+    }
+
+    /**
+     * Ctor.
+     * @param view Parsed XML
+     */
+    private ClaimIn(final ClaimView view) {
+        this.xml = view;
     }
 
     @Override
@@ -55,6 +66,14 @@ public final class ClaimIn {
         return this.xml.toString();
     }
 
+    /**
+     * XML of the claim, parsed.
+     * @return XML
+     */
+    public XML xml() {
+        return this.xml;
+    }
+
     /**
      * Reply to it.
      * @param msg The message to reply with
@@ -105,7 +124,7 @@ public final class ClaimIn {
      * @return ID
      */
     public long cid() {
-        return Long.parseLong(this.xml.xpath("@id").get(0));
+        return Long.parseLong(this.xml.cid());
     }
 
     /**
@@ -113,9 +132,7 @@ public final class ClaimIn {
      * @return Date when it was created
      */
     public Date created() {
-        return new DateOf(
-            this.xml.xpath("created/text()").get(0)
-        ).value();
+        return new DateOf(this.text("created")).value();
     }
 
     /**
@@ -123,7 +140,7 @@ public final class ClaimIn {
      * @return Type
      */
     public String type() {
-        return this.xml.xpath("type/text()").get(0);
+        return this.text("type");
     }
 
     /**
@@ -139,7 +156,7 @@ public final class ClaimIn {
      * @return Token
      */
     public String token() {
-        return this.xml.xpath("token/text()").get(0);
+        return this.text("token");
     }
 
     /**
@@ -147,7 +164,7 @@ public final class ClaimIn {
      * @return Author
      */
     public String author() {
-        return this.xml.xpath("author/text()").get(0);
+        return this.text("author");
     }
 
     /**
@@ -155,7 +172,7 @@ public final class ClaimIn {
      * @return TRUE if token exists
      */
     public boolean hasToken() {
-        return !this.xml.nodes("token").isEmpty();
+        return this.xml.text("token") != null;
     }
 
     /**
@@ -163,7 +180,7 @@ public final class ClaimIn {
      * @return TRUE if author exists
      */
     public boolean hasAuthor() {
-        return !this.xml.nodes("author").isEmpty();
+        return this.xml.text("author") != null;
     }
 
     /**
@@ -172,12 +189,7 @@ public final class ClaimIn {
      * @return TRUE if exists
      */
     public boolean hasParam(final String name) {
-        return this.xml.xpath(
-            String.format(
-                "params/param[ @name='%s']/text()",
-                name
-            )
-        ).iterator().hasNext();
+        return this.xml.params().containsKey(name);
     }
 
     /**
@@ -186,22 +198,15 @@ public final class ClaimIn {
      * @return Param value
      */
     public String param(final String name) {
-        final Iterator<String> params = this.xml.xpath(
-            String.format(
-                "params/param[@name='%s']/text()",
-                name
-            )
-        ).iterator();
-        if (!params.hasNext()) {
+        String value = this.xml.params().get(name);
+        if (value == null) {
             throw new IllegalArgumentException(
                 String.format(
                     "Parameter \"%s\" not found in \"%s\" among: %s",
-                    name, this.type(),
-                    this.xml.xpath("params/param/@name")
+                    name, this.type(), this.xml.params().keySet()
                 )
             );
         }
-        String value = params.next();
         if ("login".equals(name)) {
             value = value.toLowerCase(Locale.ENGLISH);
         }
@@ -213,14 +218,39 @@ public final class ClaimIn {
      * @return All params
      */
     public Map<String, String> params() {
-        final Map<String, String> map = new HashMap<>(0);
-        for (final XML param : this.xml.nodes("params/param")) {
-            map.put(
-                param.xpath("@name").get(0),
-                param.xpath("text()").get(0)
+        return new HashMap<>(this.xml.params());
+    }
+
+    /**
+     * Text of the child element, which must exist.
+     * @param name Name of the element
+     * @return Text
+     */
+    private String text(final String name) {
+        final String text = this.xml.text(name);
+        if (text == null) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "There is no <%s> in the claim: %s", name, this.xml
+                )
             );
         }
-        return map;
+        return text;
+    }
+
+    /**
+     * Parse the XML, unless it is parsed already.
+     * @param xml XML of the claim
+     * @return Parsed XML
+     */
+    private static ClaimView view(final XML xml) {
+        final ClaimView view;
+        if (xml instanceof ClaimView) {
+            view = (ClaimView) xml;
+        } else {
+            view = new ClaimView(xml);
+        }
+        return view;
     }
 
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.xml.XML;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.namespace.NamespaceContext;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * XML of a claim, parsed once.
+ *
+ * <p>All components of the claim are taken out of its DOM right
+ * in the constructor, by a single walk through its children, without
+ * any XPath. All methods of {@link XML} go to the original document.
+ * When {@link ClaimIn} is made of this XML, it doesn't parse it again,
+ * see {@link ClaimIn#xml()}.</p>
+ *
+ * <p>The class is immutable and thread-safe.</p>
+ *
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class ClaimView implements XML {
+
+    /**
+     * Original XML.
+     */
+    private final XML origin;
+
+    /**
+     * Attribute {@code id}, empty if absent.
+     */
+    private final String ident;
+
+    /**
+     * Texts of child elements, except params, by names.
+     */
+    private final Map<String, String> texts;
+
+    /**
+     * Params, by names.
+     */
+    private final Map<String, String> args;
+
+    /**
+     * Ctor.
+     * @param xml The claim
+     */
+    ClaimView(final XML xml) {
+        this(xml, ClaimView.element(xml.node()));
+    }
+
+    /**
+     * Ctor.
+     * @param xml The claim
+     * @param claim Its element
+     */
+    private ClaimView(final XML xml, final Element claim) {
+        this(
+            xml,
+            claim.getAttribute("id"),
+            ClaimView.texts(claim),
+            ClaimView.params(claim)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param xml The claim
+     * @param cid ID of the claim
+     * @param txts Texts of child elements
+     * @param prms Params
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private ClaimView(final XML xml, final String cid,
+        final Map<String, String> txts, final Map<String, String> prms) {
+        this.origin = xml;
+        this.ident = cid;
+        this.texts = Collections.unmodifiableMap(txts);
+        this.args = Collections.unmodifiableMap(prms);
+    }
+
+    @Override
+    public String toString() {
+        return this.origin.toString();
+    }
+
+    @Override
+    public List<String> xpath(final String query) {
+        return this.origin.xpath(query);
+    }
+
+    @Override
+    public List<XML> nodes(final String query) {
+        return this.origin.nodes(query);
+    }
+
+    @Override
+    public XML registerNs(final String prefix, final Object uri) {
+        return this.origin.registerNs(prefix, uri);
+    }
+
+    @Override
+    public XML merge(final NamespaceContext context) {
+        return this.origin.merge(context);
+    }
+
+    @Override
+    public Node node() {
+        return this.origin.node();
+    }
+
+    /**
+     * ID of the claim, empty if absent.
+     * @return ID
+     */
+    public String cid() {
+        return this.ident;
+    }
+
+    /**
+     * Text of the child element.
+     * @param name Name of the element
+     * @return Text or NULL if there is no such element
+     */
+    public String text(final String name) {
+        return this.texts.get(name);
+    }
+
+    /**
+     * All params.
+     * @return Params by names
+     */
+    public Map<String, String> params() {
+        return this.args;
+    }
+
+    /**
+     * Element of the claim.
+     * @param node Node of the claim or its document
+     * @return Element
+     */
+    private static Element element(final Node node) {
+        final Element claim;
+        if (node instanceof Document) {
+            claim = ((Document) node).getDocumentElement();
+        } else {
+            claim = (Element) node;
+        }
+        return claim;
+    }
+
+    /**
+     * Texts of child elements, only the first one of each name.
+     * @param claim Element of the claim
+     * @return Texts by names
+     */
+    private static Map<String, String> texts(final Element claim) {
+        final Map<String, String> map = new LinkedHashMap<>(0);
+        final NodeList kids = claim.getChildNodes();
+        for (int idx = 0; idx < kids.getLength(); ++idx) {
+            final Node kid = kids.item(idx);
+            if (kid.getNodeType() == Node.ELEMENT_NODE
+                && !"params".equals(kid.getNodeName())) {
+                map.putIfAbsent(kid.getNodeName(), kid.getTextContent());
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Params with texts.
+     * @param claim Element of the claim
+     * @return Params by names
+     */
+    private static Map<String, String> params(final Element claim) {
+        final Map<String, String> map = new LinkedHashMap<>(0);
+        final NodeList list = claim.getElementsByTagName("param");
+        for (int idx = 0; idx < list.getLength(); ++idx) {
+            final Element param = (Element) list.item(idx);
+            final String text = param.getTextContent();
+            final Node parent = param.getParentNode();
+            if ("params".equals(parent.getNodeName())
+                && parent.getParentNode() == claim
+                && !text.isEmpty()) {
+                map.put(param.getAttribute("name"), text);
+            }
+        }
+        return map;
+    }
+}
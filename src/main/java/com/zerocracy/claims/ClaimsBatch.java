@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claims posted by the current thread, sent to SQS together.
+ *
+ * <p>While it is open, claims posted to {@link ClaimsSqs} by this
+ * thread are collected and sent in batches, see {@link SqsBatch}. When
+ * it is closed, all of them are sent and, if some of them fail, the
+ * exception is thrown. If it is opened inside of another one in the
+ * same thread, it does nothing: the outer one sends everything.</p>
+ *
+ * <pre> try (final ClaimsBatch batch = new ClaimsBatch()) {
+ *   stakeholder.process(project, claim);
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public final class ClaimsBatch implements Closeable {
+
+    /**
+     * Batch of the thread, if it is open.
+     */
+    private static final ThreadLocal<ClaimsBatch> CURRENT =
+        new ThreadLocal<>();
+
+    /**
+     * Messages to send, by batches of queues.
+     */
+    private final Map<SqsBatch, List<SendMessageBatchRequestEntry>> pending;
+
+    /**
+     * Is it the outermost one in the thread?
+     */
+    private final boolean owner;
+
+    /**
+     * Ctor.
+     */
+    public ClaimsBatch() {
+        this.pending = new LinkedHashMap<>(1);
+        this.owner = ClaimsBatch.CURRENT.get() == null;
+        if (this.owner) {
+            ClaimsBatch.CURRENT.set(this);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.owner) {
+            ClaimsBatch.CURRENT.remove();
+            IOException error = null;
+            for (final Map.Entry<SqsBatch, List<SendMessageBatchRequestEntry>>
+                ent : this.pending.entrySet()) {
+                try {
+                    ent.getKey().post(ent.getValue());
+                } catch (final IOException ex) {
+                    if (error == null) {
+                        error = ex;
+                    } else {
+                        error.addSuppressed(ex);
+                    }
+                }
+            }
+            this.pending.clear();
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Batch of the current thread.
+     * @return The batch or NULL if it is not open
+     */
+    static ClaimsBatch current() {
+        return ClaimsBatch.CURRENT.get();
+    }
+
+    /**
+     * Add a message, it will be sent when the batch is full or closed.
+     * @param batch Batch of the queue
+     * @param entry The message
+     * @throws IOException If fails
+     */
+    void add(final SqsBatch batch, final SendMessageBatchRequestEntry entry)
+        throws IOException {
+        final List<SendMessageBatchRequestEntry> list =
+            this.pending.computeIfAbsent(
+                batch, key -> new ArrayList<>(SqsBatch.MAX)
+            );
+        list.add(entry);
+        if (list.size() >= SqsBatch.MAX) {
+            final List<SendMessageBatchRequestEntry> full =
+                new ArrayList<>(list);
+            list.clear();
+            batch.post(full);
+        }
+    }
+}
@@ -126,9 +126,11 @@ public final class ClaimsItem {
                     ).entrySet()
                 )
             );
+            final Xocument.Batch batch = xocument.batch();
             for (final Iterable<Directive> dirs : filtered) {
-                xocument.modify(dirs);
+                batch.modify(dirs);
             }
+            batch.commit();
             if (filtered.size() != claims.size()) {
                 Logger.error(
                     this,
@@ -17,6 +17,7 @@
 package com.zerocracy.claims;
 
 import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.MessageAttributeValue;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
@@ -36,10 +37,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.cactoos.Proc;
 import org.cactoos.Scalar;
+import org.cactoos.Text;
 import org.cactoos.scalar.And;
 import org.cactoos.scalar.UncheckedScalar;
 import org.cactoos.text.UncheckedText;
@@ -48,25 +52,49 @@ import org.cactoos.text.UncheckedText;
  * Claims routine.
  * <p>
  * This class uses long-polling to fetch claims from SQS queue.
+ * <p>
+ * There are a few receivers, each of them long-polls the queue
+ * and, as soon as it gets a batch of messages, gives them to the proc
+ * and polls again. If the batch was full, there are more messages
+ * in the queue and the next poll starts immediately, otherwise it
+ * starts after a short pause. Each receiver asks for as many
+ * messages as the proc can take now, according to its capacity,
+ * minus what other receivers are asking for at the moment. When
+ * there is no capacity, receivers wait.
+ * <p>
+ * Claims which are not due yet are not processed, but hidden until
+ * they are due, see {@link SqsDelays}.
  *
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
+@SuppressWarnings("PMD.TooManyMethods")
 public final class ClaimsRoutine implements Runnable, Closeable {
+
+    /**
+     * Metrics of all routines.
+     */
+    public static final SqsMetrics METRICS = new SqsMetrics();
+
     /**
      * Until attribute.
      */
     private static final String UNTIL = "until";
 
     /**
-     * Messages limit.
+     * Maximum messages in one receive, SQS doesn't allow more.
      */
-    private static final int LIMIT = 8;
+    private static final int LIMIT = 10;
 
     /**
-     * Delay to fetch claims.
+     * How long to long-poll, in seconds, SQS doesn't allow more.
      */
-    private static final long DELAY = 12L;
+    private static final int WAIT = 20;
+
+    /**
+     * Pause between polls, if the last batch was not full, in msec.
+     */
+    private static final long PAUSE = TimeUnit.SECONDS.toMillis(1L);
 
     /**
      * Scheduled service.
@@ -74,9 +102,14 @@ public final class ClaimsRoutine implements Runnable, Closeable {
     private final ScheduledExecutorService service;
 
     /**
-     * Farm.
+     * SQS client.
      */
-    private final Farm farm;
+    private final UncheckedScalar<AmazonSQS> sqs;
+
+    /**
+     * Queue URL.
+     */
+    private final UncheckedText queue;
 
     /**
      * Process queue messages.
@@ -84,9 +117,24 @@ public final class ClaimsRoutine implements Runnable, Closeable {
     private final Proc<List<Message>> proc;
 
     /**
-     * If we can proceed with execution.
+     * How many messages the proc can take now.
+     */
+    private final Scalar<Integer> capacity;
+
+    /**
+     * How many receivers to run.
+     */
+    private final int receivers;
+
+    /**
+     * Messages being received now, by all receivers.
+     */
+    private final AtomicInteger reserved;
+
+    /**
+     * Messages received before they are due.
      */
-    private final Scalar<Boolean> proceed;
+    private final SqsDelays delays;
 
     /**
      * Ctor.
@@ -97,12 +145,42 @@ public final class ClaimsRoutine implements Runnable, Closeable {
      */
     public ClaimsRoutine(final Farm farm, final Proc<List<Message>> proc,
         final Scalar<Boolean> proceed) {
+        this(
+            new ExtSqs(farm), new ClaimsQueueUrl(farm), proc,
+            () -> {
+                int free = 0;
+                if (proceed.value()) {
+                    free = ClaimsRoutine.LIMIT;
+                }
+                return free;
+            },
+            1
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param sqs SQS client
+     * @param queue Queue URL
+     * @param proc Proc
+     * @param capacity How many messages the proc can take now
+     * @param receivers How many receivers to run
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public ClaimsRoutine(final Scalar<AmazonSQS> sqs, final Text queue,
+        final Proc<List<Message>> proc, final Scalar<Integer> capacity,
+        final int receivers) {
+        this.sqs = new UncheckedScalar<>(sqs);
+        this.queue = new UncheckedText(queue);
         this.proc = proc;
-        this.proceed = proceed;
-        this.service = Executors.newSingleThreadScheduledExecutor(
-            new VerboseThreads(ClaimsRoutine.class)
+        this.capacity = capacity;
+        this.receivers = receivers;
+        this.reserved = new AtomicInteger();
+        this.delays = new SqsDelays(this.sqs, this.queue);
+        this.service = Executors.newScheduledThreadPool(
+            receivers, new VerboseThreads(ClaimsRoutine.class)
         );
-        this.farm = farm;
     }
 
     /**
@@ -111,108 +189,166 @@ public final class ClaimsRoutine implements Runnable, Closeable {
      * @param shutdown Shutdown hook
      */
     public void start(final ShutdownFarm.Hook shutdown) {
-        this.service.scheduleWithFixedDelay(
-            new VerboseRunnable(new ShutdownRunnable(this, shutdown)),
-            0L,
-            ClaimsRoutine.DELAY,
-            TimeUnit.SECONDS
-        );
+        for (int idx = 0; idx < this.receivers; ++idx) {
+            this.next(shutdown, 0L);
+        }
     }
 
     @Override
-    @SuppressWarnings(
-        {
-            "PMD.AvoidInstantiatingObjectsInLoops",
-            "PMD.AvoidDuplicateLiterals",
-            "PMD.ConfusingTernary"
-        }
-    )
     public void run() {
-        if (new UncheckedScalar<>(this.proceed).value()) {
-            final AmazonSQS sqs = new UncheckedScalar<>(new ExtSqs(this.farm))
-                .value();
-            final String queue =
-                new UncheckedText(new ClaimsQueueUrl(this.farm))
-                    .asString();
-            final List<Message> messages = sqs.receiveMessage(
-                new ReceiveMessageRequest(queue)
-                    .withMessageAttributeNames(
-                        "project", "signature", ClaimsRoutine.UNTIL
-                    )
-                    .withMaxNumberOfMessages(ClaimsRoutine.LIMIT)
-            ).getMessages();
-            final Set<String> projects = new HashSet<>();
-            final List<Message> merged = new LinkedList<>();
-            for (final Message message : messages) {
-                final Map<String, MessageAttributeValue> attr =
-                    message.getMessageAttributes();
-                if (attr.containsKey(ClaimsRoutine.UNTIL)
-                    && Instant.parse(
-                        attr.get(ClaimsRoutine.UNTIL).getStringValue()
-                    ).isAfter(Instant.now())) {
-                    continue;
-                }
-                final XML xml = new XMLDocument(message.getBody())
-                    .nodes("/claim").get(0);
-                final String pid = attr
-                    .get("project")
-                    .getStringValue();
-                final ClaimIn claim = new ClaimIn(xml);
-                final boolean ping = "ping".equalsIgnoreCase(claim.type());
-                if (ping && !projects.contains(pid)) {
-                    projects.add(pid);
-                    merged.add(message);
-                } else if (!ping) {
-                    merged.add(message);
-                } else {
-                    sqs.deleteMessage(queue, message.getReceiptHandle());
-                }
+        final int size = this.reserve();
+        try {
+            if (size > 0) {
+                this.poll(size);
             }
-            Logger.info(
-                this, "received %d (%d actual) messages from SQS",
-                messages.size(), merged.size()
-            );
-            new UncheckedScalar<>(new And(this.proc, merged)).value();
+        } finally {
+            this.reserved.addAndGet(-size);
         }
     }
 
     @Override
     public void close() {
-        this.service.shutdown();
+        this.service.shutdownNow();
     }
 
     /**
-     * Runnable decorator with shutdown hook check.
+     * Schedule the next poll of a receiver.
+     * @param shutdown Shutdown hook
+     * @param delay Delay in msec
      */
-    private static final class ShutdownRunnable implements Runnable {
-
-        /**
-         * Origin runnable.
-         */
-        private final Runnable origin;
+    private void next(final ShutdownFarm.Hook shutdown, final long delay) {
+        try {
+            this.service.schedule(
+                new VerboseRunnable(() -> this.cycle(shutdown), true, true),
+                delay, TimeUnit.MILLISECONDS
+            );
+        } catch (final RejectedExecutionException ex) {
+            Logger.debug(this, "Receiver stopped: %s", ex.getMessage());
+        }
+    }
 
-        /**
-         * Shutdown hook.
-         */
-        private final ShutdownFarm.Hook shutdown;
+    /**
+     * One poll of a receiver, which schedules the next one.
+     * @param shutdown Shutdown hook
+     */
+    private void cycle(final ShutdownFarm.Hook shutdown) {
+        long delay = ClaimsRoutine.PAUSE;
+        try {
+            if (shutdown.check()) {
+                final int size = this.reserve();
+                try {
+                    if (size > 0 && this.poll(size) == size) {
+                        delay = 0L;
+                    }
+                } finally {
+                    this.reserved.addAndGet(-size);
+                }
+            }
+        } finally {
+            if (!this.service.isShutdown()) {
+                this.next(shutdown, delay);
+            }
+        }
+    }
 
-        /**
-         * Ctor.
-         *
-         * @param origin Origin runnable
-         * @param shutdown Shutdown hook
-         */
-        ShutdownRunnable(final Runnable origin,
-            final ShutdownFarm.Hook shutdown) {
-            this.origin = origin;
-            this.shutdown = shutdown;
+    /**
+     * Reserve capacity for a receive.
+     * @return How many messages to receive, maybe zero
+     */
+    private int reserve() {
+        final int free = Math.max(
+            0, new UncheckedScalar<>(this.capacity).value()
+        );
+        int size;
+        while (true) {
+            final int before = this.reserved.get();
+            size = Math.min(ClaimsRoutine.LIMIT, free - before);
+            if (size <= 0) {
+                size = 0;
+                break;
+            }
+            if (this.reserved.compareAndSet(before, before + size)) {
+                break;
+            }
         }
+        return size;
+    }
 
-        @Override
-        public void run() {
-            if (this.shutdown.check()) {
-                this.origin.run();
+    /**
+     * Receive messages and give them to the proc.
+     * @param size How many messages to receive at most
+     * @return How many were received
+     */
+    @SuppressWarnings(
+        {
+            "PMD.AvoidInstantiatingObjectsInLoops",
+            "PMD.AvoidDuplicateLiterals",
+            "PMD.ConfusingTernary"
+        }
+    )
+    private int poll(final int size) {
+        final AmazonSQS client = this.sqs.value();
+        final String url = this.queue.asString();
+        final long start = System.nanoTime();
+        final List<Message> messages = client.receiveMessage(
+            new ReceiveMessageRequest(url)
+                .withMessageAttributeNames(
+                    "project", "signature", ClaimsRoutine.UNTIL
+                )
+                .withMaxNumberOfMessages(size)
+                .withWaitTimeSeconds(ClaimsRoutine.WAIT)
+        ).getMessages();
+        ClaimsRoutine.METRICS.received(
+            messages.size(), System.nanoTime() - start
+        );
+        final Set<String> projects = new HashSet<>();
+        final List<Message> merged = new LinkedList<>();
+        for (final Message message : messages) {
+            final Map<String, MessageAttributeValue> attr =
+                message.getMessageAttributes();
+            if (attr.containsKey(ClaimsRoutine.UNTIL)) {
+                final Instant until = Instant.parse(
+                    attr.get(ClaimsRoutine.UNTIL).getStringValue()
+                );
+                if (until.isAfter(Instant.now())) {
+                    this.delays.delay(message, until);
+                    continue;
+                }
             }
+            final XML xml = new XMLDocument(message.getBody())
+                .nodes("/claim").get(0);
+            final String pid = attr
+                .get("project")
+                .getStringValue();
+            final ClaimIn claim = new ClaimIn(xml);
+            final boolean ping = "ping".equalsIgnoreCase(claim.type());
+            if (ping && !projects.contains(pid)) {
+                projects.add(pid);
+                merged.add(message);
+            } else if (!ping) {
+                merged.add(message);
+            } else {
+                client.deleteMessage(url, message.getReceiptHandle());
+            }
+        }
+        Logger.info(
+            this, "received %d (%d actual) messages from SQS, asked for %d",
+            messages.size(), merged.size(), size
+        );
+        if (!merged.isEmpty()) {
+            new UncheckedScalar<>(new And(this.proc, merged)).value();
+        }
+        if (ClaimsRoutine.METRICS.outdated()) {
+            ClaimsRoutine.METRICS.depth(
+                client.getQueueAttributes(
+                    new GetQueueAttributesRequest(url).withAttributeNames(
+                        "ApproximateNumberOfMessages",
+                        "ApproximateNumberOfMessagesNotVisible",
+                        "ApproximateNumberOfMessagesDelayed"
+                    )
+                ).getAttributes()
+            );
         }
+        return messages.size();
     }
 }
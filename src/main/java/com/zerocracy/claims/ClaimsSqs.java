@@ -22,6 +22,8 @@ import com.amazonaws.services.sqs.model.SendMessageRequest;
 import com.jcabi.xml.XML;
 import com.zerocracy.Project;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import org.cactoos.scalar.And;
@@ -30,6 +32,14 @@ import org.cactoos.scalar.IoCheckedScalar;
 /**
  * Claims queue on Amazon SQS.
  *
+ * <p>If the queue is not FIFO, claims with {@code until} are sent
+ * with {@code DelaySeconds}, up to 15 minutes. FIFO queues
+ * don't support delays of single messages, there claims are delayed
+ * when received, see {@link SqsDelays}.</p>
+ *
+ * <p>Claims posted inside of a {@link ClaimsBatch} are sent in batches,
+ * see {@link SqsBatch}.</p>
+ *
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
@@ -37,14 +47,14 @@ import org.cactoos.scalar.IoCheckedScalar;
 public final class ClaimsSqs implements Claims {
 
     /**
-     * SQS client.
+     * The longest {@code DelaySeconds}, by SQS.
      */
-    private final AmazonSQS sqs;
+    private static final Duration DELAY = Duration.ofMinutes(15L);
 
     /**
-     * Queue url.
+     * Batch of messages to send.
      */
-    private final String queue;
+    private final SqsBatch batch;
 
     /**
      * Project.
@@ -60,15 +70,24 @@ public final class ClaimsSqs implements Claims {
      */
     public ClaimsSqs(final AmazonSQS sqs, final String queue,
         final Project project) {
-        this.sqs = sqs;
-        this.queue = queue;
+        this(new SqsBatch(sqs, queue), project);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param batch Batch, shared with other projects
+     * @param project Project
+     */
+    public ClaimsSqs(final SqsBatch batch, final Project project) {
+        this.batch = batch;
         this.project = project;
     }
 
     @Override
     public void submit(final XML claim) throws IOException {
         final SendMessageRequest msg = new SendMessageRequest(
-            this.queue,
+            this.batch.queue(),
             claim.toString()
         ).withMessageGroupId(this.project.pid());
         final Map<String, MessageAttributeValue> attrs = new HashMap<>(1);
@@ -98,6 +117,21 @@ public final class ClaimsSqs implements Claims {
                 claim.xpath("/claim/until/text()")
             )
         ).value();
+        if (!this.batch.queue().endsWith(".fifo")) {
+            for (final String until : claim.xpath("/claim/until/text()")) {
+                msg.setDelaySeconds(
+                    (int) Math.min(
+                        ClaimsSqs.DELAY.getSeconds(),
+                        Math.max(
+                            0L,
+                            Duration.between(
+                                Instant.now(), Instant.parse(until)
+                            ).getSeconds()
+                        )
+                    )
+                );
+            }
+        }
         msg.setMessageDeduplicationId(
             String.format(
                 "%s:%s",
@@ -106,6 +140,6 @@ public final class ClaimsSqs implements Claims {
             )
         );
         msg.setMessageAttributes(attrs);
-        this.sqs.sendMessage(msg);
+        this.batch.send(msg);
     }
 }
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityResult;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageResult;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.ReceiptHandleIsInvalidException;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fake Amazon SQS, in memory.
+ *
+ * <p>There is only one queue, its URL is ignored. It behaves like
+ * a FIFO queue: messages of the same group are delivered in the order
+ * they were sent and the next one is not delivered while the previous
+ * one is in flight; messages with the same deduplication ID are sent
+ * only once. Batches of messages, long polling, delays and visibility
+ * timeouts are supported. Everything else throws
+ * {@link UnsupportedOperationException}.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class FkSqs extends AbstractAmazonSQS {
+
+    /**
+     * Default visibility timeout, in seconds.
+     */
+    private static final int VISIBILITY = 30;
+
+    /**
+     * How often to check for delayed messages while waiting, in msec.
+     */
+    private static final long TICK = 100L;
+
+    /**
+     * Messages, in the order of sending.
+     */
+    private final List<FkSqs.Entry> entries;
+
+    /**
+     * Deduplication IDs seen.
+     */
+    private final Set<String> dedup;
+
+    /**
+     * Ctor.
+     */
+    public FkSqs() {
+        super();
+        this.entries = new LinkedList<>();
+        this.dedup = new HashSet<>(0);
+    }
+
+    @Override
+    public SendMessageResult sendMessage(final String queue,
+        final String body) {
+        return this.sendMessage(new SendMessageRequest(queue, body));
+    }
+
+    @Override
+    public SendMessageResult sendMessage(final SendMessageRequest request) {
+        final String id = UUID.randomUUID().toString();
+        synchronized (this.entries) {
+            final String dup = request.getMessageDeduplicationId();
+            if (dup == null || this.dedup.add(dup)) {
+                final Message msg = new Message()
+                    .withMessageId(id)
+                    .withBody(request.getMessageBody());
+                if (request.getMessageAttributes() != null) {
+                    msg.setMessageAttributes(
+                        new HashMap<>(request.getMessageAttributes())
+                    );
+                }
+                int delay = 0;
+                if (request.getDelaySeconds() != null) {
+                    delay = request.getDelaySeconds();
+                }
+                this.entries.add(
+                    new FkSqs.Entry(
+                        msg, request.getMessageGroupId(),
+                        System.currentTimeMillis()
+                            + TimeUnit.SECONDS.toMillis(delay)
+                    )
+                );
+                this.entries.notifyAll();
+            }
+        }
+        return new SendMessageResult().withMessageId(id);
+    }
+
+    @Override
+    public SendMessageBatchResult sendMessageBatch(
+        final SendMessageBatchRequest request) {
+        final List<SendMessageBatchResultEntry> sent = new ArrayList<>(
+            request.getEntries().size()
+        );
+        for (final SendMessageBatchRequestEntry entry
+            : request.getEntries()) {
+            sent.add(
+                new SendMessageBatchResultEntry()
+                    .withId(entry.getId())
+                    .withMessageId(
+                        this.sendMessage(
+                            new SendMessageRequest(
+                                request.getQueueUrl(), entry.getMessageBody()
+                            )
+                                .withMessageAttributes(
+                                    entry.getMessageAttributes()
+                                )
+                                .withMessageGroupId(entry.getMessageGroupId())
+                                .withMessageDeduplicationId(
+                                    entry.getMessageDeduplicationId()
+                                )
+                                .withDelaySeconds(entry.getDelaySeconds())
+                        ).getMessageId()
+                    )
+            );
+        }
+        return new SendMessageBatchResult().withSuccessful(sent);
+    }
+
+    @Override
+    public ReceiveMessageResult receiveMessage(final String queue) {
+        return this.receiveMessage(new ReceiveMessageRequest(queue));
+    }
+
+    @Override
+    public ReceiveMessageResult receiveMessage(
+        final ReceiveMessageRequest request) {
+        int max = 1;
+        if (request.getMaxNumberOfMessages() != null) {
+            max = request.getMaxNumberOfMessages();
+        }
+        int visibility = FkSqs.VISIBILITY;
+        if (request.getVisibilityTimeout() != null) {
+            visibility = request.getVisibilityTimeout();
+        }
+        long wait = 0L;
+        if (request.getWaitTimeSeconds() != null) {
+            wait = TimeUnit.SECONDS.toMillis(request.getWaitTimeSeconds());
+        }
+        final long deadline = System.currentTimeMillis() + wait;
+        final List<Message> list = new LinkedList<>();
+        synchronized (this.entries) {
+            while (true) {
+                list.addAll(this.due(max, visibility));
+                final long left = deadline - System.currentTimeMillis();
+                if (!list.isEmpty() || left <= 0L) {
+                    break;
+                }
+                try {
+                    this.entries.wait(Math.min(left, FkSqs.TICK));
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return new ReceiveMessageResult().withMessages(list);
+    }
+
+    @Override
+    public DeleteMessageResult deleteMessage(final String queue,
+        final String handle) {
+        return this.deleteMessage(new DeleteMessageRequest(queue, handle));
+    }
+
+    @Override
+    public DeleteMessageResult deleteMessage(
+        final DeleteMessageRequest request) {
+        synchronized (this.entries) {
+            this.entries.remove(this.entry(request.getReceiptHandle()));
+            this.entries.notifyAll();
+        }
+        return new DeleteMessageResult();
+    }
+
+    @Override
+    public ChangeMessageVisibilityResult changeMessageVisibility(
+        final String queue, final String handle, final Integer timeout) {
+        return this.changeMessageVisibility(
+            new ChangeMessageVisibilityRequest(queue, handle, timeout)
+        );
+    }
+
+    @Override
+    public ChangeMessageVisibilityResult changeMessageVisibility(
+        final ChangeMessageVisibilityRequest request) {
+        synchronized (this.entries) {
+            this.entry(request.getReceiptHandle()).visible =
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(
+                    request.getVisibilityTimeout()
+                );
+            this.entries.notifyAll();
+        }
+        return new ChangeMessageVisibilityResult();
+    }
+
+    @Override
+    public GetQueueAttributesResult getQueueAttributes(
+        final GetQueueAttributesRequest request) {
+        final long now = System.currentTimeMillis();
+        int visible = 0;
+        int flight = 0;
+        int delayed = 0;
+        synchronized (this.entries) {
+            for (final FkSqs.Entry entry : this.entries) {
+                if (entry.visible <= now) {
+                    ++visible;
+                } else if (entry.handle == null) {
+                    ++delayed;
+                } else {
+                    ++flight;
+                }
+            }
+        }
+        final Map<String, String> attrs = new HashMap<>(0);
+        attrs.put("ApproximateNumberOfMessages", Integer.toString(visible));
+        attrs.put(
+            "ApproximateNumberOfMessagesNotVisible", Integer.toString(flight)
+        );
+        attrs.put(
+            "ApproximateNumberOfMessagesDelayed", Integer.toString(delayed)
+        );
+        return new GetQueueAttributesResult().withAttributes(attrs);
+    }
+
+    /**
+     * Take messages that are due and make them invisible.
+     * @param max Maximum number of messages
+     * @param visibility Visibility timeout, in seconds
+     * @return Messages
+     */
+    private List<Message> due(final int max, final int visibility) {
+        final long now = System.currentTimeMillis();
+        final Set<String> blocked = new HashSet<>(0);
+        final List<Message> list = new LinkedList<>();
+        final Iterator<FkSqs.Entry> iter = this.entries.iterator();
+        while (iter.hasNext() && list.size() < max) {
+            final FkSqs.Entry entry = iter.next();
+            if (entry.visible > now) {
+                if (entry.group != null) {
+                    blocked.add(entry.group);
+                }
+                continue;
+            }
+            if (entry.group != null && blocked.contains(entry.group)) {
+                continue;
+            }
+            entry.handle = UUID.randomUUID().toString();
+            entry.visible = now + TimeUnit.SECONDS.toMillis(visibility);
+            final Map<String, MessageAttributeValue> attrs =
+                entry.message.getMessageAttributes();
+            list.add(
+                new Message()
+                    .withMessageId(entry.message.getMessageId())
+                    .withBody(entry.message.getBody())
+                    .withMessageAttributes(
+                        Collections.unmodifiableMap(attrs)
+                    )
+                    .withReceiptHandle(entry.handle)
+            );
+        }
+        return list;
+    }
+
+    /**
+     * Find entry by receipt handle.
+     * @param handle Receipt handle
+     * @return Entry
+     */
+    private FkSqs.Entry entry(final String handle) {
+        for (final FkSqs.Entry entry : this.entries) {
+            if (handle.equals(entry.handle)) {
+                return entry;
+            }
+        }
+        throw new ReceiptHandleIsInvalidException(
+            String.format("Receipt handle \"%s\" is invalid", handle)
+        );
+    }
+
+    /**
+     * Message in the queue.
+     */
+    private static final class Entry {
+        /**
+         * The message.
+         */
+        private final Message message;
+        /**
+         * Message group ID, NULL if none.
+         */
+        private final String group;
+        /**
+         * When the message is visible, epoch msec.
+         */
+        private long visible;
+        /**
+         * Receipt handle of the last receive, NULL if never received.
+         */
+        private String handle;
+        /**
+         * Ctor.
+         * @param msg The message
+         * @param grp Group ID
+         * @param when When visible
+         */
+        Entry(final Message msg, final String grp, final long when) {
+            this.message = msg;
+            this.group = grp;
+            this.visible = when;
+        }
+    }
+}
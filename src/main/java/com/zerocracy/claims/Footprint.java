@@ -18,22 +18,30 @@ package com.zerocracy.claims;
 
 import com.jcabi.aspects.Tv;
 import com.jcabi.xml.XML;
+import com.mongodb.ErrorCategory;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoWriteException;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
+import com.zerocracy.entry.ExtFootprint;
 import com.zerocracy.entry.ExtMongo;
 import com.zerocracy.farm.props.Props;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.bson.Document;
+import org.cactoos.Proc;
+import org.cactoos.func.UncheckedProc;
 
 /**
  * Footprint.
@@ -44,18 +52,20 @@ import org.bson.Document;
 public final class Footprint implements Closeable {
 
     /**
-     * Footprint lock.
+     * Name of the unique index on project and claim ID.
      */
-    private static final Object LOCK = new Object();
+    public static final String UNIQUE = "unique-claims";
 
     /**
      * Database name.
      */
-    private static final String DBNAME = "footprint";
+    public static final String DBNAME = "footprint";
+
     /**
      * Collection.
      */
-    private static final String CLAIMS = "claims";
+    public static final String CLAIMS = "claims";
+
     /**
      * Project ID.
      */
@@ -66,14 +76,31 @@ public final class Footprint implements Closeable {
      */
     private final MongoClient mongo;
 
+    /**
+     * Writes of changes.
+     */
+    private final Proc<WriteModel<Document>> writes;
+
+    /**
+     * Wait until all changes are written.
+     */
+    private final Proc<Boolean> flush;
+
     /**
      * Ctor.
+     *
+     * <p>Changes of existing claims are written asynchronously,
+     * through the {@link FootprintSink} of the farm.</p>
+     *
      * @param farm Farm
      * @param pkt Project
      * @throws IOException If fails
      */
     public Footprint(final Farm farm, final Project pkt) throws IOException {
-        this(new ExtMongo(farm).value(), pkt.pid());
+        this(
+            new ExtMongo(farm).value(), pkt.pid(),
+            new ExtFootprint(farm).value()
+        );
     }
 
     /**
@@ -84,6 +111,24 @@ public final class Footprint implements Closeable {
     public Footprint(final MongoClient clt, final String pkt) {
         this.mongo = clt;
         this.pid = pkt;
+        this.writes = change -> this.col().bulkWrite(
+            Collections.singletonList(change)
+        );
+        this.flush = any -> { };
+    }
+
+    /**
+     * Ctor.
+     * @param clt Client
+     * @param pkt Project name
+     * @param sink Sink for changes
+     */
+    public Footprint(final MongoClient clt, final String pkt,
+        final FootprintSink sink) {
+        this.mongo = clt;
+        this.pid = pkt;
+        this.writes = sink;
+        this.flush = any -> sink.flush();
     }
 
     /**
@@ -94,73 +139,57 @@ public final class Footprint implements Closeable {
      */
     public void open(final XML xml, final String signature)
         throws IOException {
-        synchronized (Footprint.LOCK) {
-            final ClaimIn claim = new ClaimIn(xml);
-            final long cid = claim.cid();
-            final MongoCollection<Document> col =
-                this.mongo.getDatabase("footprint")
-                    .getCollection("claims");
-            final Iterator<Document> found = col.find(
-                Filters.and(
-                    Filters.eq("cid", cid),
-                    Filters.eq("project", this.pid)
-                )
-            ).iterator();
-            if (found.hasNext()) {
-                throw new IllegalArgumentException(
-                    String.format(
-                        "Claim #%d (%s) already exists for %s",
-                        cid, claim.type(), this.pid
-                    )
-                );
+        final ClaimIn claim = new ClaimIn(xml);
+        final long cid = claim.cid();
+        final Document doc = this.document(claim, signature);
+        try {
+            this.col().insertOne(doc);
+        } catch (final MongoWriteException ex) {
+            if (ex.getError().getCategory()
+                != ErrorCategory.DUPLICATE_KEY) {
+                throw ex;
             }
-            Document doc = new Document()
-                .append("cid", cid)
-                .append("version", new Props().get("//build/version", ""))
-                .append("project", this.pid)
-                .append("type", claim.type())
-                .append("created", claim.created())
-                .append("signature", signature);
-            if (claim.hasAuthor()) {
-                doc = doc.append("author", claim.author());
-            }
-            if (claim.hasToken()) {
-                doc = doc.append("token", claim.token());
-            }
-            final Set<Map.Entry<String, String>> entries =
-                claim.params().entrySet();
-            for (final Map.Entry<String, String> ent : entries) {
-                final Object val;
-                if (ent.getValue().matches("[0-9]+")) {
-                    val = Long.parseLong(ent.getValue());
-                } else {
-                    val = ent.getValue();
-                }
-                doc = doc.append(ent.getKey(), val);
-            }
-            col.insertOne(doc);
+            throw new IllegalArgumentException(
+                String.format(
+                    "Claim #%d (%s) already exists for %s",
+                    cid, claim.type(), this.pid
+                ),
+                ex
+            );
         }
     }
 
+    /**
+     * Add new claim, which was just opened, without waiting for it
+     * to be written and without checking for duplicates.
+     * @param xml The claim XML
+     * @param signature Claim signature
+     * @throws IOException If fails
+     */
+    public void record(final XML xml, final String signature)
+        throws IOException {
+        new UncheckedProc<>(this.writes).exec(
+            new InsertOneModel<>(this.document(new ClaimIn(xml), signature))
+        );
+    }
+
     /**
      * Close this claim.
      * @param xml The claim XML
      */
     public void close(final XML xml) {
-        synchronized (Footprint.LOCK) {
-            final ClaimIn claim = new ClaimIn(xml);
-            this.mongo.getDatabase(Footprint.DBNAME)
-                .getCollection(Footprint.CLAIMS)
-                .updateOne(
-                    Filters.and(
-                        Filters.eq("cid", claim.cid()),
-                        Filters.eq("project", this.pid),
-                        Filters.eq("type", claim.type()),
-                        Filters.eq("created", claim.created())
-                    ),
-                    Updates.currentDate("closed")
-                );
-        }
+        final ClaimIn claim = new ClaimIn(xml);
+        new UncheckedProc<>(this.writes).exec(
+            new UpdateOneModel<>(
+                Filters.and(
+                    Filters.eq("cid", claim.cid()),
+                    Filters.eq("project", this.pid),
+                    Filters.eq("type", claim.type()),
+                    Filters.eq("created", claim.created())
+                ),
+                Updates.currentDate("closed")
+            )
+        );
     }
 
     /**
@@ -187,16 +216,68 @@ public final class Footprint implements Closeable {
     }
 
     /**
-     * Mongo collection to work with.
+     * Mongo collection to work with, after all pending changes
+     * are written.
      * @return Collection
      */
     public MongoCollection<Document> collection() {
-        return this.mongo.getDatabase(Footprint.DBNAME)
+        new UncheckedProc<>(this.flush).exec(true);
+        return this.col();
+    }
+
+    /**
+     * Mongo document of the claim.
+     * @param claim The claim
+     * @param signature Claim signature
+     * @return Document
+     * @throws IOException If fails
+     */
+    private Document document(final ClaimIn claim, final String signature)
+        throws IOException {
+        Document doc = new Document()
+            .append("cid", claim.cid())
+            .append("version", new Props().get("//build/version", ""))
+            .append("project", this.pid)
+            .append("type", claim.type())
+            .append("created", claim.created())
+            .append("signature", signature);
+        if (claim.hasAuthor()) {
+            doc = doc.append("author", claim.author());
+        }
+        if (claim.hasToken()) {
+            doc = doc.append("token", claim.token());
+        }
+        final Set<Map.Entry<String, String>> entries =
+            claim.params().entrySet();
+        for (final Map.Entry<String, String> ent : entries) {
+            final Object val;
+            if (ent.getValue().matches("[0-9]+")) {
+                val = Long.parseLong(ent.getValue());
+            } else {
+                val = ent.getValue();
+            }
+            doc = doc.append(ent.getKey(), val);
+        }
+        return doc;
+    }
+
+    /**
+     * Mongo collection, its unique index on project and claim ID is
+     * created by {@link com.zerocracy.entry.MongobeeChangelog}.
+     * @return Collection
+     */
+    private MongoCollection<Document> col() {
+        return this.mongo
+            .getDatabase(Footprint.DBNAME)
             .getCollection(Footprint.CLAIMS);
     }
 
+    /**
+     * Nothing to close, the client is shared and is closed
+     * together with the farm.
+     */
     @Override
     public void close() {
-        this.mongo.close();
+        // nothing to close
     }
 }
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bson.Document;
+import org.cactoos.Proc;
+
+/**
+ * Asynchronous writer of footprint changes.
+ *
+ * <p>Changes are buffered in a bounded queue and written to Mongo
+ * in bulks, when the bulk is full or when the oldest change in it waited
+ * long enough. If the queue is full, {@link #exec(WriteModel)} waits
+ * until there is space in it, without holding any lock. Changes are
+ * written in the order they were submitted, so an update of a claim
+ * never overtakes its insert. A bulk that fails is logged and dropped,
+ * and if the writer dies anyway, the next {@link #exec(WriteModel)}
+ * starts it again. {@link #close()} writes everything that is still in
+ * the queue, by itself if the writer doesn't, and changes submitted
+ * after it are written right away, never queued.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public final class FootprintSink implements Proc<WriteModel<Document>>,
+    Closeable {
+
+    /**
+     * Mongo collection.
+     */
+    private final MongoCollection<Document> col;
+
+    /**
+     * Queue of changes.
+     */
+    private final BlockingQueue<WriteModel<Document>> queue;
+
+    /**
+     * Maximum size of a bulk.
+     */
+    private final int bulk;
+
+    /**
+     * Maximum time to wait for a bulk to fill up, in milliseconds.
+     */
+    private final long wait;
+
+    /**
+     * Number of changes submitted, queued or about to be queued.
+     */
+    private final AtomicLong submitted;
+
+    /**
+     * Number of changes written, or lost.
+     */
+    private final AtomicLong written;
+
+    /**
+     * Threads waiting in {@link #flush()}.
+     */
+    private final AtomicInteger flushing;
+
+    /**
+     * Writer is running.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Sink is closed.
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * Writer thread.
+     */
+    private final ExecutorService service;
+
+    /**
+     * Ctor.
+     * @param collection Mongo collection
+     */
+    public FootprintSink(final MongoCollection<Document> collection) {
+        // @checkstyle MagicNumber (1 line)
+        this(collection, 1000, 100, TimeUnit.SECONDS.toMillis(1L));
+    }
+
+    /**
+     * Ctor.
+     * @param collection Mongo collection
+     * @param capacity Maximum size of the queue
+     * @param size Maximum size of a bulk
+     * @param msec Maximum time to wait for a bulk to fill up
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public FootprintSink(final MongoCollection<Document> collection,
+        final int capacity, final int size, final long msec) {
+        this.col = collection;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.bulk = size;
+        this.wait = msec;
+        this.submitted = new AtomicLong();
+        this.written = new AtomicLong();
+        this.flushing = new AtomicInteger();
+        this.started = new AtomicBoolean();
+        this.closed = new AtomicBoolean();
+        this.service = Executors.newSingleThreadExecutor(
+            new VerboseThreads(FootprintSink.class)
+        );
+    }
+
+    @Override
+    public void exec(final WriteModel<Document> change)
+        throws InterruptedException {
+        this.submitted.incrementAndGet();
+        boolean queued = false;
+        while (!queued && !this.closed.get()) {
+            this.start();
+            queued = this.queue.offer(
+                change, this.wait, TimeUnit.MILLISECONDS
+            );
+        }
+        if (queued) {
+            if (this.closed.get()) {
+                this.drain();
+            }
+        } else {
+            this.write(Collections.singletonList(change));
+            this.done(1);
+        }
+    }
+
+    /**
+     * Wait until all changes submitted before this call are written.
+     *
+     * <p>Changes submitted after it, by other threads, are not waited
+     * for: they are queued after the ones we wait for, so the writer
+     * gets to them later.</p>
+     *
+     * @throws InterruptedException If interrupted
+     */
+    public void flush() throws InterruptedException {
+        final long target = this.submitted.get();
+        this.flushing.incrementAndGet();
+        try {
+            synchronized (this.written) {
+                while (this.written.get() < target
+                    && !this.service.isTerminated()) {
+                    this.written.wait(this.wait);
+                }
+            }
+        } finally {
+            this.flushing.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed.set(true);
+        this.service.shutdown();
+        try {
+            // @checkstyle MagicNumber (1 line)
+            if (!this.service.awaitTermination(1L, TimeUnit.MINUTES)) {
+                Logger.warn(
+                    this, "%d footprint changes are left to the closer",
+                    this.queue.size()
+                );
+                this.service.shutdownNow();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } finally {
+            this.drain();
+        }
+    }
+
+    /**
+     * Start the writer, if it is not running.
+     */
+    private void start() {
+        if (this.started.compareAndSet(false, true)) {
+            try {
+                this.service.submit(this::run);
+            } catch (final RejectedExecutionException ex) {
+                this.started.set(false);
+            }
+        }
+    }
+
+    /**
+     * Write changes from the queue until closed and empty.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void run() {
+        try {
+            while (!this.closed.get() || !this.queue.isEmpty()) {
+                final List<WriteModel<Document>> list = this.next();
+                if (!list.isEmpty()) {
+                    try {
+                        this.write(list);
+                        // @checkstyle IllegalCatch (1 line)
+                    } catch (final RuntimeException ex) {
+                        Logger.error(
+                            this, "%d footprint changes lost: %[exception]s",
+                            list.size(), ex
+                        );
+                    } finally {
+                        this.done(list.size());
+                    }
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.started.set(false);
+        }
+    }
+
+    /**
+     * Write all changes left in the queue, in this thread.
+     */
+    private void drain() {
+        final List<WriteModel<Document>> list = new ArrayList<>(this.bulk);
+        while (this.queue.drainTo(list, this.bulk) > 0) {
+            try {
+                this.write(list);
+            } finally {
+                this.done(list.size());
+            }
+            list.clear();
+        }
+    }
+
+    /**
+     * Count written changes and wake up those who wait for them.
+     * @param total How many changes were written, or lost
+     */
+    private void done(final int total) {
+        this.written.addAndGet((long) total);
+        synchronized (this.written) {
+            this.written.notifyAll();
+        }
+    }
+
+    /**
+     * Take next bulk of changes from the queue.
+     * @return Changes, maybe empty
+     * @throws InterruptedException If interrupted
+     */
+    private List<WriteModel<Document>> next() throws InterruptedException {
+        final List<WriteModel<Document>> list = new ArrayList<>(this.bulk);
+        final WriteModel<Document> first = this.queue.poll(
+            this.wait, TimeUnit.MILLISECONDS
+        );
+        if (first != null) {
+            list.add(first);
+            final long deadline = System.currentTimeMillis() + this.wait;
+            while (list.size() < this.bulk && !this.closed.get()
+                && this.flushing.get() == 0) {
+                this.queue.drainTo(list, this.bulk - list.size());
+                final long left = deadline - System.currentTimeMillis();
+                if (list.size() >= this.bulk || left <= 0L) {
+                    break;
+                }
+                final WriteModel<Document> more = this.queue.poll(
+                    Math.min(left, this.wait / 10L + 1L),
+                    TimeUnit.MILLISECONDS
+                );
+                if (more != null) {
+                    list.add(more);
+                }
+            }
+            this.queue.drainTo(list, this.bulk - list.size());
+        }
+        return list;
+    }
+
+    /**
+     * Write changes, in order, skipping the ones Mongo rejects.
+     * @param list Changes
+     */
+    private void write(final List<WriteModel<Document>> list) {
+        int from = 0;
+        while (from < list.size()) {
+            try {
+                this.col.bulkWrite(
+                    list.subList(from, list.size()),
+                    new BulkWriteOptions().ordered(true)
+                );
+                from = list.size();
+            } catch (final MongoBulkWriteException ex) {
+                if (ex.getWriteErrors().isEmpty()) {
+                    Logger.error(
+                        this, "Footprint bulk failed: %[exception]s", ex
+                    );
+                    break;
+                }
+                final BulkWriteError err = ex.getWriteErrors().get(0);
+                Logger.warn(
+                    this, "Footprint change #%d rejected: %s",
+                    from + err.getIndex(), err.getMessage()
+                );
+                from += err.getIndex() + 1;
+            } catch (final MongoException ex) {
+                Logger.error(
+                    this, "%d footprint changes lost: %[exception]s",
+                    list.size() - from, ex
+                );
+                break;
+            }
+        }
+    }
+}
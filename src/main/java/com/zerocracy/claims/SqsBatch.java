@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Messages sent to SQS in batches.
+ *
+ * <p>Messages sent inside of a {@link ClaimsBatch} are not sent one by
+ * one, they are collected and sent by {@code SendMessageBatch}, up to
+ * {@link #MAX} in one call, when the batch is full or when the
+ * {@link ClaimsBatch} is closed. Thus, all claims posted by a stakeholder
+ * in one run go to SQS in one or a few calls. Messages sent outside of
+ * a {@link ClaimsBatch} are sent right away. Group and deduplication IDs
+ * of messages stay as they are.</p>
+ *
+ * <p>Batches of one queue are sent one by one, never at the same time,
+ * that's why one instance must be shared by everybody who sends to the
+ * queue. Messages the batch failed to send, not by our fault, are sent
+ * again, up to {@link #ATTEMPTS} times, together with all messages
+ * of the same groups after them, to keep them in order. If they still
+ * fail, {@link IOException} is thrown.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public final class SqsBatch {
+
+    /**
+     * Max messages in one batch, by SQS.
+     */
+    public static final int MAX = 10;
+
+    /**
+     * Max total payload of one batch, by SQS.
+     */
+    private static final int BYTES = 256 << 10;
+
+    /**
+     * How many times to try one message.
+     */
+    private static final int ATTEMPTS = 3;
+
+    /**
+     * Pause between attempts, in msec.
+     */
+    private static final long PAUSE = 100L;
+
+    /**
+     * SQS client.
+     */
+    private final AmazonSQS sqs;
+
+    /**
+     * Queue URL.
+     */
+    private final String url;
+
+    /**
+     * Entry IDs.
+     */
+    private final AtomicLong ids;
+
+    /**
+     * Ctor.
+     * @param client SQS client
+     * @param queue Queue URL
+     */
+    public SqsBatch(final AmazonSQS client, final String queue) {
+        this.sqs = client;
+        this.url = queue;
+        this.ids = new AtomicLong();
+    }
+
+    /**
+     * Queue URL.
+     * @return URL
+     */
+    public String queue() {
+        return this.url;
+    }
+
+    /**
+     * Send a message, now or when the {@link ClaimsBatch} is closed.
+     * @param msg The message, its queue URL is ignored
+     * @throws IOException If fails
+     */
+    public void send(final SendMessageRequest msg) throws IOException {
+        final SendMessageBatchRequestEntry entry =
+            new SendMessageBatchRequestEntry(
+                Long.toString(this.ids.incrementAndGet()),
+                msg.getMessageBody()
+            )
+                .withMessageAttributes(msg.getMessageAttributes())
+                .withMessageGroupId(msg.getMessageGroupId())
+                .withMessageDeduplicationId(msg.getMessageDeduplicationId())
+                .withDelaySeconds(msg.getDelaySeconds());
+        final ClaimsBatch run = ClaimsBatch.current();
+        if (run == null) {
+            this.post(Collections.singletonList(entry));
+        } else {
+            run.add(this, entry);
+        }
+    }
+
+    /**
+     * Send messages in as few batches as possible, in their order.
+     * @param entries Messages
+     * @throws IOException If fails
+     */
+    synchronized void post(final List<SendMessageBatchRequestEntry> entries)
+        throws IOException {
+        final List<SendMessageBatchRequestEntry> batch =
+            new ArrayList<>(SqsBatch.MAX);
+        int bytes = 0;
+        for (final SendMessageBatchRequestEntry entry : entries) {
+            final int size = SqsBatch.size(entry);
+            if (batch.size() == SqsBatch.MAX
+                || !batch.isEmpty() && bytes + size > SqsBatch.BYTES) {
+                this.attempt(batch);
+                batch.clear();
+                bytes = 0;
+            }
+            batch.add(entry);
+            bytes += size;
+        }
+        if (!batch.isEmpty()) {
+            this.attempt(batch);
+        }
+    }
+
+    /**
+     * Send one batch, retrying messages that failed.
+     * @param batch Messages, not more than {@link #MAX}
+     * @throws IOException If fails
+     */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private void attempt(final List<SendMessageBatchRequestEntry> batch)
+        throws IOException {
+        List<SendMessageBatchRequestEntry> left = new ArrayList<>(batch);
+        for (int attempt = 1; !left.isEmpty(); ++attempt) {
+            final boolean last = attempt >= SqsBatch.ATTEMPTS;
+            final Map<String, BatchResultErrorEntry> failed;
+            try {
+                failed = SqsBatch.failed(
+                    this.sqs.sendMessageBatch(
+                        new SendMessageBatchRequest(this.url, left)
+                    )
+                );
+            } catch (final AmazonClientException ex) {
+                if (last) {
+                    throw new IOException(
+                        String.format(
+                            "Failed to send %d messages to %s",
+                            left.size(), this.url
+                        ),
+                        ex
+                    );
+                }
+                SqsBatch.pause(attempt);
+                continue;
+            }
+            final List<SendMessageBatchRequestEntry> again =
+                new ArrayList<>(0);
+            final Set<String> groups = new HashSet<>(0);
+            for (final SendMessageBatchRequestEntry entry : left) {
+                final BatchResultErrorEntry err = failed.get(entry.getId());
+                if (err != null && (last
+                    || Boolean.TRUE.equals(err.getSenderFault()))) {
+                    throw new IOException(
+                        String.format(
+                            "Failed to send %s to %s: %s %s",
+                            entry.getMessageDeduplicationId(), this.url,
+                            err.getCode(), err.getMessage()
+                        )
+                    );
+                }
+                if (err != null || groups.contains(entry.getMessageGroupId())) {
+                    again.add(entry);
+                    groups.add(entry.getMessageGroupId());
+                }
+            }
+            left = again;
+            if (!left.isEmpty()) {
+                SqsBatch.pause(attempt);
+            }
+        }
+    }
+
+    /**
+     * Failed entries of the result.
+     * @param res Result of the batch
+     * @return Errors by entry IDs
+     */
+    private static Map<String, BatchResultErrorEntry> failed(
+        final SendMessageBatchResult res) {
+        final Map<String, BatchResultErrorEntry> failed =
+            new HashMap<>(res.getFailed().size());
+        for (final BatchResultErrorEntry err : res.getFailed()) {
+            failed.put(err.getId(), err);
+        }
+        return failed;
+    }
+
+    /**
+     * Wait before the next attempt.
+     * @param attempt Number of the attempt just failed
+     * @throws InterruptedIOException If interrupted
+     */
+    private static void pause(final int attempt)
+        throws InterruptedIOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(SqsBatch.PAUSE * attempt);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Approximate size of the message in the batch.
+     * @param entry The message
+     * @return Size in bytes
+     */
+    private static int size(final SendMessageBatchRequestEntry entry) {
+        int size = entry.getMessageBody().length();
+        for (final Map.Entry<String, ?> attr
+            : entry.getMessageAttributes().entrySet()) {
+            size += attr.getKey().length()
+                + attr.getValue().toString().length();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.Message;
+import com.jcabi.log.Logger;
+import java.time.Duration;
+import java.time.Instant;
+import org.cactoos.scalar.UncheckedScalar;
+import org.cactoos.text.UncheckedText;
+
+/**
+ * Claims received before they are due.
+ *
+ * <p>A claim with {@code until} in the future is hidden in the queue
+ * by {@code ChangeMessageVisibility} until it's due, or for {@link #MAX},
+ * which is the longest visibility timeout SQS allows. If it comes back
+ * before it's due, it is hidden again. It never leaves the queue, so
+ * nothing is lost if we crash, and it keeps its place in the group of
+ * its project: later claims of the project wait for it, as they do for
+ * any other claim in flight. We can't use {@code DelaySeconds} here,
+ * since our queue is FIFO and it doesn't support per-message
+ * delays.</p>
+ *
+ * @since 1.0
+ */
+final class SqsDelays {
+
+    /**
+     * The longest time to hide a message, a bit less than 12 hours,
+     * which SQS counts from the moment the message was received.
+     */
+    static final Duration MAX = Duration.ofHours(12L).minusMinutes(1L);
+
+    /**
+     * SQS client.
+     */
+    private final UncheckedScalar<AmazonSQS> sqs;
+
+    /**
+     * Queue URL.
+     */
+    private final UncheckedText queue;
+
+    /**
+     * Ctor.
+     * @param client SQS client
+     * @param url Queue URL
+     */
+    SqsDelays(final UncheckedScalar<AmazonSQS> client,
+        final UncheckedText url) {
+        this.sqs = client;
+        this.queue = url;
+    }
+
+    /**
+     * Hide the message until it's due, or as long as possible.
+     *
+     * <p>If SQS refuses to hide it, the failure is only logged: the
+     * message stays in the queue and comes back after the usual
+     * visibility timeout, when it will be hidden again. It must not
+     * break the other messages of the batch.</p>
+     *
+     * @param message Message just received
+     * @param until When it's due
+     */
+    public void delay(final Message message, final Instant until) {
+        final long wait = Math.min(
+            SqsDelays.MAX.getSeconds(),
+            Math.max(1L, Duration.between(Instant.now(), until).getSeconds())
+        );
+        try {
+            this.sqs.value().changeMessageVisibility(
+                new ChangeMessageVisibilityRequest(
+                    this.queue.asString(), message.getReceiptHandle(),
+                    (int) wait
+                )
+            );
+            Logger.info(
+                this, "Message %s is hidden for %ds, it's due at %s",
+                message.getMessageId(), wait, until
+            );
+        } catch (final AmazonClientException ex) {
+            Logger.warn(
+                this, "Failed to hide message %s until %s: %[exception]s",
+                message.getMessageId(), until, ex
+            );
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Metrics of the claims queue.
+ *
+ * <p>Receive latency is the time of one {@code ReceiveMessage} call,
+ * including the time of long polling, if the queue was empty. Depth
+ * of the queue is what SQS reports in queue attributes, it's refreshed
+ * not more often than once a minute, see {@link #outdated()}.</p>
+ *
+ * @since 1.0
+ */
+public final class SqsMetrics {
+
+    /**
+     * How often to refresh the depth of the queue, in msec.
+     */
+    private static final long REFRESH = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * Total number of receives.
+     */
+    private final AtomicLong receives;
+
+    /**
+     * Receives that returned nothing.
+     */
+    private final AtomicLong empty;
+
+    /**
+     * Total number of messages received.
+     */
+    private final AtomicLong messages;
+
+    /**
+     * Total receive time, in nanos.
+     */
+    private final AtomicLong total;
+
+    /**
+     * Maximum receive time, in nanos.
+     */
+    private final AtomicLong max;
+
+    /**
+     * Messages available for receiving.
+     */
+    private final AtomicLong depth;
+
+    /**
+     * Messages in flight.
+     */
+    private final AtomicLong flight;
+
+    /**
+     * Messages delayed.
+     */
+    private final AtomicLong delayed;
+
+    /**
+     * When the depth was refreshed, epoch msec.
+     */
+    private final AtomicLong refreshed;
+
+    /**
+     * Ctor.
+     */
+    public SqsMetrics() {
+        this.receives = new AtomicLong();
+        this.empty = new AtomicLong();
+        this.messages = new AtomicLong();
+        this.total = new AtomicLong();
+        this.max = new AtomicLong();
+        this.depth = new AtomicLong();
+        this.flight = new AtomicLong();
+        this.delayed = new AtomicLong();
+        this.refreshed = new AtomicLong();
+    }
+
+    /**
+     * Messages were received.
+     * @param count How many
+     * @param nanos How long it took
+     */
+    public void received(final int count, final long nanos) {
+        this.receives.incrementAndGet();
+        if (count == 0) {
+            this.empty.incrementAndGet();
+        }
+        this.messages.addAndGet((long) count);
+        this.total.addAndGet(nanos);
+        this.max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Is it time to refresh the depth?
+     *
+     * <p>Only one thread gets TRUE, until the next minute.</p>
+     *
+     * @return TRUE if the caller has to call {@link #depth(Map)}
+     */
+    public boolean outdated() {
+        final long now = System.currentTimeMillis();
+        final long before = this.refreshed.get();
+        return now - before > SqsMetrics.REFRESH
+            && this.refreshed.compareAndSet(before, now);
+    }
+
+    /**
+     * Depth of the queue, from SQS queue attributes.
+     * @param attrs Attributes of the queue
+     */
+    public void depth(final Map<String, String> attrs) {
+        this.depth.set(SqsMetrics.num(attrs, "ApproximateNumberOfMessages"));
+        this.flight.set(
+            SqsMetrics.num(attrs, "ApproximateNumberOfMessagesNotVisible")
+        );
+        this.delayed.set(
+            SqsMetrics.num(attrs, "ApproximateNumberOfMessagesDelayed")
+        );
+    }
+
+    /**
+     * Guts.
+     * @return Directives
+     */
+    public Iterable<Directive> guts() {
+        final long count = this.receives.get();
+        final long avg;
+        if (count == 0L) {
+            avg = 0L;
+        } else {
+            avg = this.total.get() / count;
+        }
+        return new Directives()
+            .add("sqs")
+            .attr("receives", count)
+            .attr("empty", this.empty.get())
+            .attr("messages", this.messages.get())
+            .attr("avg", TimeUnit.NANOSECONDS.toMillis(avg))
+            .attr("max", TimeUnit.NANOSECONDS.toMillis(this.max.get()))
+            .attr("depth", this.depth.get())
+            .attr("flight", this.flight.get())
+            .attr("delayed", this.delayed.get())
+            .up();
+    }
+
+    /**
+     * Number from attributes.
+     * @param attrs Attributes
+     * @param name Name of the attribute
+     * @return Number, zero if absent
+     */
+    private static long num(final Map<String, String> attrs,
+        final String name) {
+        final String value = attrs.get(name);
+        final long num;
+        if (value == null) {
+            num = 0L;
+        } else {
+            num = Long.parseLong(value);
+        }
+        return num;
+    }
+}
@@ -17,25 +17,53 @@
 package com.zerocracy.claims.proc;
 
 import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
 import com.jcabi.log.Logger;
-import com.jcabi.log.VerboseCallable;
-import com.jcabi.log.VerboseThreads;
+import com.jcabi.log.VerboseRunnable;
 import com.zerocracy.shutdown.ShutdownFarm;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.cactoos.Proc;
-import org.cactoos.scalar.And;
 
 /**
- * Proc to execute origin proc asynchronously.
+ * Proc to execute origin proc asynchronously, in project lanes.
+ *
+ * <p>Every project has its own lane, which is a queue of its messages.
+ * Messages of one lane are processed one by one, in the order they
+ * were received, which is the order of SQS {@code MessageGroupId}. Lanes
+ * of different projects are processed in parallel. After each message
+ * the lane goes back to the end of the queue of its worker, which is
+ * a work-stealing {@link ForkJoinPool}: idle workers take lanes from
+ * the busy ones.</p>
+ *
+ * <p>A lane can't hold more than a few messages. If the lane is full,
+ * the message and all next messages of the same lane in the list are
+ * not processed and not deleted from SQS, they will be received again.
+ * Depths of lanes are in {@link #METRICS}.</p>
  *
  * @since 1.0
  */
 public final class AsyncProc implements Proc<List<Message>> {
 
+    /**
+     * Metrics of lanes.
+     */
+    public static final LaneMetrics METRICS = new LaneMetrics();
+
+    /**
+     * Default max messages in one lane.
+     */
+    private static final int BOUND = 16;
+
     /**
      * Executor.
      */
@@ -52,7 +80,23 @@ public final class AsyncProc implements Proc<List<Message>> {
     private final ShutdownFarm.Hook shutdown;
 
     /**
-     * Counter.
+     * Threads.
+     */
+    private final int threads;
+
+    /**
+     * Max messages in one lane.
+     */
+    private final int bound;
+
+    /**
+     * Lanes with messages, by project IDs; the head of each one is
+     * being processed or is the next to process.
+     */
+    private final Map<String, Queue<Message>> lanes;
+
+    /**
+     * Messages in all lanes.
      */
     private final AtomicInteger count;
 
@@ -76,46 +120,181 @@ public final class AsyncProc implements Proc<List<Message>> {
      */
     public AsyncProc(final int threads, final Proc<Message> origin,
         final ShutdownFarm.Hook shutdown) {
-        this.service = Executors.newFixedThreadPool(
-            threads, new VerboseThreads(AsyncProc.class)
+        this(threads, AsyncProc.BOUND, origin, shutdown);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param threads Threads
+     * @param bound Max messages in one lane
+     * @param origin Origin proc
+     * @param shutdown Shutdown hook
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public AsyncProc(final int threads, final int bound,
+        final Proc<Message> origin, final ShutdownFarm.Hook shutdown) {
+        this.service = new ForkJoinPool(
+            threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+            null, true
         );
+        this.threads = threads;
+        this.bound = bound;
         this.origin = origin;
         this.shutdown = shutdown;
+        this.lanes = new HashMap<>(0);
         this.count = new AtomicInteger();
     }
 
     @Override
-    @SuppressWarnings("PMD.PrematureDeclaration")
     public void exec(final List<Message> input) {
-        final int cnt = this.count.incrementAndGet();
-        try {
-            this.service.submit(
-                new VerboseCallable<>(
-                    () -> {
-                        try {
-                            Logger.info(
-                                this, "Processing %d messages",
-                                input.size()
-                            );
-                            new And(this.origin, input).value();
-                        } finally {
-                            if (this.count.decrementAndGet() == 0
-                                && this.shutdown.stopping()) {
-                                this.shutdown.complete();
-                            }
-                        }
-                        return null;
-                    },
-                    true, true
-                )
+        final Set<String> full = new HashSet<>(0);
+        for (final Message msg : input) {
+            final String lane = AsyncProc.lane(msg);
+            if (full.contains(lane) || !this.offer(lane, msg)) {
+                full.add(lane);
+                AsyncProc.METRICS.rejected();
+            }
+        }
+        if (!full.isEmpty()) {
+            Logger.warn(
+                this, "Lanes %[list]s are full, messages postponed", full
             );
-        } catch (final RejectedExecutionException err) {
-            this.count.decrementAndGet();
-            throw new IllegalStateException("Task was rejected", err);
         }
         Logger.info(
             this, "Submitted %d messages (count=%d)",
-            input.size(), cnt
+            input.size(), this.count.get()
         );
     }
+
+    /**
+     * Messages in all lanes, queued or being processed.
+     * @return Total
+     */
+    public int size() {
+        return this.count.get();
+    }
+
+    /**
+     * Workers that are not busy with any lane.
+     *
+     * <p>Each lane takes at most one worker at a time, no matter how
+     * many messages are queued in it, so a long lane of one project
+     * doesn't make other workers look busy.</p>
+     *
+     * @return How many workers are idle, zero if none
+     */
+    public int idle() {
+        final int active;
+        synchronized (this.lanes) {
+            active = this.lanes.size();
+        }
+        return Math.max(0, this.threads - active);
+    }
+
+    /**
+     * Add message to the lane and start the lane, if it's new.
+     * @param lane Project ID
+     * @param msg The message
+     * @return FALSE if the lane is full
+     */
+    private boolean offer(final String lane, final Message msg) {
+        final boolean start;
+        final boolean added;
+        synchronized (this.lanes) {
+            Queue<Message> queue = this.lanes.get(lane);
+            start = queue == null;
+            if (start) {
+                queue = new ArrayDeque<>(this.bound);
+                this.lanes.put(lane, queue);
+            }
+            added = queue.size() < this.bound;
+            if (added) {
+                queue.add(msg);
+            }
+        }
+        if (added) {
+            this.count.incrementAndGet();
+            AsyncProc.METRICS.queued(lane);
+        }
+        if (start) {
+            try {
+                this.schedule(lane);
+            } catch (final RejectedExecutionException err) {
+                synchronized (this.lanes) {
+                    this.lanes.remove(lane);
+                }
+                this.count.decrementAndGet();
+                AsyncProc.METRICS.processed(lane);
+                throw new IllegalStateException("Task was rejected", err);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Process the next message of the lane, later.
+     * @param lane Project ID
+     */
+    private void schedule(final String lane) {
+        this.service.execute(
+            new VerboseRunnable(
+                () -> {
+                    this.next(lane);
+                    return null;
+                },
+                true, true
+            )
+        );
+    }
+
+    /**
+     * Process the head of the lane and schedule the lane again,
+     * if it's not empty.
+     * @param lane Project ID
+     * @throws Exception If fails
+     */
+    private void next(final String lane) throws Exception {
+        final Queue<Message> queue;
+        synchronized (this.lanes) {
+            queue = this.lanes.get(lane);
+        }
+        try {
+            this.origin.exec(queue.peek());
+        } finally {
+            final boolean more;
+            synchronized (this.lanes) {
+                queue.poll();
+                more = !queue.isEmpty();
+                if (!more) {
+                    this.lanes.remove(lane);
+                }
+            }
+            AsyncProc.METRICS.processed(lane);
+            if (more) {
+                this.schedule(lane);
+            }
+            if (this.count.decrementAndGet() == 0
+                && this.shutdown.stopping()) {
+                this.shutdown.complete();
+            }
+        }
+    }
+
+    /**
+     * Lane of the message.
+     * @param msg The message
+     * @return Project ID, or empty if unknown
+     */
+    private static String lane(final Message msg) {
+        final MessageAttributeValue attr =
+            msg.getMessageAttributes().get("project");
+        final String lane;
+        if (attr == null) {
+            lane = "";
+        } else {
+            lane = attr.getStringValue();
+        }
+        return lane;
+    }
 }
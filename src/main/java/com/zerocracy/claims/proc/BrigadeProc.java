@@ -106,7 +106,7 @@ public final class BrigadeProc implements Proc<Message> {
             input.getMessageId(), claim.type(),
             claim.cid(), project.pid()
         );
-        final int total = this.brigade.apply(project, xml);
+        final int total = this.brigade.apply(project, claim.xml());
         if (total == 0 && claim.hasToken()) {
             throw new IllegalStateException(
                 String.format(
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims.proc;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Metrics of project lanes, see {@link AsyncProc}.
+ *
+ * <p>Depth of a lane is the number of its messages queued or being
+ * processed. Empty lanes are forgotten, only {@link #TOP} deepest
+ * lanes are reported in guts.</p>
+ *
+ * @since 1.0
+ */
+public final class LaneMetrics {
+
+    /**
+     * How many lanes to show in guts.
+     */
+    private static final int TOP = 20;
+
+    /**
+     * Depths of lanes, by project IDs.
+     */
+    private final Map<String, Integer> depths;
+
+    /**
+     * Messages processed.
+     */
+    private final AtomicLong processed;
+
+    /**
+     * Messages rejected since their lanes were full.
+     */
+    private final AtomicLong rejected;
+
+    /**
+     * Ctor.
+     */
+    public LaneMetrics() {
+        this.depths = new ConcurrentHashMap<>(0);
+        this.processed = new AtomicLong();
+        this.rejected = new AtomicLong();
+    }
+
+    /**
+     * A message was queued to the lane.
+     * @param lane Project ID
+     */
+    public void queued(final String lane) {
+        this.depths.merge(lane, 1, Integer::sum);
+    }
+
+    /**
+     * A message of the lane was processed.
+     * @param lane Project ID
+     */
+    public void processed(final String lane) {
+        this.processed.incrementAndGet();
+        this.depths.computeIfPresent(
+            lane,
+            (key, depth) -> {
+                final Integer left;
+                if (depth > 1) {
+                    left = depth - 1;
+                } else {
+                    left = null;
+                }
+                return left;
+            }
+        );
+    }
+
+    /**
+     * A message was rejected, since the lane was full.
+     */
+    public void rejected() {
+        this.rejected.incrementAndGet();
+    }
+
+    /**
+     * Guts.
+     * @return Directives
+     */
+    public Iterable<Directive> guts() {
+        final Directives dirs = new Directives()
+            .add("lanes")
+            .attr("lanes", this.depths.size())
+            .attr(
+                "queued",
+                this.depths.values().stream().mapToInt(Integer::intValue).sum()
+            )
+            .attr("processed", this.processed.get())
+            .attr("rejected", this.rejected.get());
+        for (final Map.Entry<String, Integer> lane
+            : this.depths.entrySet().stream()
+                .sorted(
+                    Map.Entry.<String, Integer>comparingByValue(
+                        Comparator.reverseOrder()
+                    )
+                )
+                .limit((long) LaneMetrics.TOP)
+                .collect(Collectors.toList())) {
+            dirs.add("lane")
+                .attr("id", lane.getKey())
+                .attr("depth", lane.getValue())
+                .up();
+        }
+        return dirs.up();
+    }
+}
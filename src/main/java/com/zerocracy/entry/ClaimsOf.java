@@ -23,11 +23,14 @@ import com.zerocracy.claims.Claims;
 import com.zerocracy.claims.ClaimsQueueUrl;
 import com.zerocracy.claims.ClaimsSqs;
 import com.zerocracy.claims.ClaimsXml;
+import com.zerocracy.claims.SqsBatch;
 import com.zerocracy.farm.props.Props;
 import com.zerocracy.pmo.Pmo;
 import java.io.IOException;
 import org.cactoos.func.IoCheckedBiFunc;
+import org.cactoos.func.IoCheckedFunc;
 import org.cactoos.func.SolidBiFunc;
+import org.cactoos.func.SolidFunc;
 
 /**
  * Claims for farm.
@@ -37,6 +40,19 @@ import org.cactoos.func.SolidBiFunc;
  */
 public final class ClaimsOf implements Claims {
 
+    /**
+     * Batches of SQS messages, one per farm.
+     */
+    private static final IoCheckedFunc<Farm, SqsBatch> BATCHES =
+        new IoCheckedFunc<>(
+            new SolidFunc<>(
+                farm -> new SqsBatch(
+                    new ExtSqs(farm).value(),
+                    new ClaimsQueueUrl(farm).asString()
+                )
+            )
+        );
+
     /**
      * Claims instances.
      */
@@ -48,9 +64,7 @@ public final class ClaimsOf implements Claims {
                     final Claims claims;
                     if (props.has("//sqs")) {
                         claims = new ClaimsSqs(
-                            new ExtSqs(farm).value(),
-                            new ClaimsQueueUrl(farm).asString(),
-                            project
+                            ClaimsOf.BATCHES.apply(farm), project
                         );
                     } else {
                         claims = new ClaimsXml(project);
@@ -18,6 +18,9 @@ package com.zerocracy.entry;
 
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
+import com.zerocracy.Xocument;
+import com.zerocracy.claims.ClaimsRoutine;
+import com.zerocracy.claims.proc.AsyncProc;
 import com.zerocracy.farm.guts.Guts;
 import com.zerocracy.radars.github.Quota;
 import java.io.IOException;
@@ -55,12 +58,21 @@ public final class ExtFarm implements Farm {
                 .add("farm")
                 .attr("id", this.getClass().getSimpleName())
                 .add("quota").set(new Quota(this.origin).toString()).up()
+                .append(Xocument.DOMS.guts())
+                .append(ExtMongo.METRICS.guts())
+                .append(ClaimsRoutine.METRICS.guts())
+                .append(AsyncProc.METRICS.guts())
                 .up()
         ).apply(query);
     }
 
     @Override
     public void close() throws IOException {
-        this.origin.close();
+        try {
+            new ExtFootprint(this.origin).close();
+            new ExtMongo(this.origin).close();
+        } finally {
+            this.origin.close();
+        }
     }
 }
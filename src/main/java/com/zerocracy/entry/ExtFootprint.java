@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.entry;
+
+import com.mongodb.MongoClient;
+import com.zerocracy.Farm;
+import com.zerocracy.claims.Footprint;
+import com.zerocracy.claims.FootprintSink;
+import com.zerocracy.farm.props.Props;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.cactoos.Scalar;
+
+/**
+ * Footprint sink, shared by everybody who uses the same Mongo.
+ *
+ * @since 1.0
+ */
+public final class ExtFootprint implements Scalar<FootprintSink> {
+
+    /**
+     * Sinks, by Mongo connection settings.
+     */
+    private static final ConcurrentMap<String, FootprintSink> SINKS =
+        new ConcurrentHashMap<>(1);
+
+    /**
+     * The farm.
+     */
+    private final Farm farm;
+
+    /**
+     * Ctor.
+     * @param frm The farm
+     */
+    public ExtFootprint(final Farm frm) {
+        this.farm = frm;
+    }
+
+    @Override
+    public FootprintSink value() throws IOException {
+        final ExtMongo ext = new ExtMongo(this.farm);
+        final String key = ext.key(new Props(this.farm));
+        FootprintSink sink = ExtFootprint.SINKS.get(key);
+        if (sink == null) {
+            final MongoClient client = ext.value();
+            sink = ExtFootprint.SINKS.computeIfAbsent(
+                key,
+                any -> new FootprintSink(
+                    client.getDatabase(Footprint.DBNAME)
+                        .getCollection(Footprint.CLAIMS)
+                )
+            );
+        }
+        return sink;
+    }
+
+    /**
+     * Write all pending changes and stop the sink, if it was created.
+     * @throws IOException If fails
+     */
+    public void close() throws IOException {
+        final FootprintSink sink = ExtFootprint.SINKS.remove(
+            new ExtMongo(this.farm).key(new Props(this.farm))
+        );
+        if (sink != null) {
+            sink.close();
+        }
+    }
+}
@@ -34,6 +34,8 @@ import de.flapdoodle.embed.process.runtime.Network;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import org.cactoos.Scalar;
 import org.cactoos.func.SolidFunc;
@@ -49,6 +51,11 @@ import org.slf4j.LoggerFactory;
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class ExtMongo implements Scalar<MongoClient> {
 
+    /**
+     * Connection pool metrics.
+     */
+    static final MongoMetrics METRICS = new MongoMetrics();
+
     /**
      * Thread with Mongodb.
      * @checkstyle ConstantUsageCheck (5 lines)
@@ -97,6 +104,12 @@ public final class ExtMongo implements Scalar<MongoClient> {
         )
     );
 
+    /**
+     * Shared clients, by connection settings.
+     */
+    private static final ConcurrentMap<String, MongoClient> CLIENTS =
+        new ConcurrentHashMap<>(1);
+
     /**
      * The farm.
      */
@@ -126,13 +139,64 @@ public final class ExtMongo implements Scalar<MongoClient> {
         this.id = ident;
     }
 
+    /**
+     * Shared client with a pool of connections. Don't close it, it is
+     * closed together with the farm, see {@link ExtFarm#close()}.
+     * @return Client
+     * @throws IOException If fails
+     */
     @Override
     public MongoClient value() throws IOException {
         final Props props = new Props(this.farm);
+        final String key = this.key(props);
+        final MongoClient client = ExtMongo.CLIENTS.get(key);
+        final MongoClient shared;
+        if (client == null) {
+            final MongoClient fresh = this.fresh();
+            shared = ExtMongo.CLIENTS.computeIfAbsent(key, any -> fresh);
+            if (!shared.equals(fresh)) {
+                fresh.close();
+            }
+        } else {
+            shared = client;
+        }
+        return shared;
+    }
+
+    /**
+     * Close shared client, if it was created.
+     * @throws IOException If fails
+     */
+    public void close() throws IOException {
+        final MongoClient client = ExtMongo.CLIENTS.remove(
+            this.key(new Props(this.farm))
+        );
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    /**
+     * Make new client, not shared with anyone, which has to be closed
+     * by the caller.
+     * @return Client
+     * @throws IOException If fails
+     */
+    public MongoClient fresh() throws IOException {
+        final Props props = new Props(this.farm);
+        final MongoClientOptions.Builder opts = MongoClientOptions.builder()
+            .connectionsPerHost(
+                // @checkstyle MagicNumber (1 line)
+                Integer.parseInt(props.get("//mongo/pool", "100"))
+            )
+            .addConnectionPoolListener(ExtMongo.METRICS);
         final MongoClient client;
         if (props.has("//testing")) {
             client = new MongoClient(
-                "localhost", ExtMongo.FAKE.apply(this.id)
+                new ServerAddress(
+                    "localhost", ExtMongo.FAKE.apply(this.id)
+                ),
+                opts.build()
             );
         } else {
             // @checkstyle MagicNumber (5 lines)
@@ -147,7 +211,7 @@ public final class ExtMongo implements Scalar<MongoClient> {
                     props.get("//mongo/dbname"),
                     props.get("//mongo/password").toCharArray()
                 ),
-                MongoClientOptions.builder()
+                opts
                     .maxWaitTime(timeout)
                     .socketTimeout(timeout)
                     .connectTimeout(timeout)
@@ -158,4 +222,26 @@ public final class ExtMongo implements Scalar<MongoClient> {
         return client;
     }
 
+    /**
+     * Key of the shared client.
+     * @param props Props
+     * @return Key
+     * @throws IOException If fails
+     */
+    String key(final Props props) throws IOException {
+        final String key;
+        if (props.has("//testing")) {
+            key = String.format("testing %s", this.id);
+        } else {
+            key = String.format(
+                "%s:%s %s@%s",
+                props.get("//mongo/host"),
+                props.get("//mongo/port"),
+                props.get("//mongo/user"),
+                props.get("//mongo/dbname")
+            );
+        }
+        return key;
+    }
+
 }
@@ -54,7 +54,7 @@ public final class ExtMongobee {
      */
     public void apply() throws IOException {
         final Props props = new Props(this.farm);
-        try (final MongoClient client = new ExtMongo(this.farm).value()) {
+        try (final MongoClient client = new ExtMongo(this.farm).fresh()) {
             final String dbname = props.get("//mongo/dbname", "footprint");
             final Version version = Version.valueOf(
                 client.getDatabase(dbname).runCommand(
@@ -18,12 +18,13 @@ package com.zerocracy.entry;
 
 import com.jcabi.aspects.Loggable;
 import com.jcabi.log.Logger;
+import com.zerocracy.Datum;
 import com.zerocracy.Farm;
 import com.zerocracy.SafeSentry;
+import com.zerocracy.claims.ClaimsQueueUrl;
 import com.zerocracy.claims.ClaimsRoutine;
 import com.zerocracy.claims.proc.AsyncProc;
 import com.zerocracy.claims.proc.BrigadeProc;
-import com.zerocracy.claims.proc.CountingProc;
 import com.zerocracy.claims.proc.DeleteProc;
 import com.zerocracy.claims.proc.FootprintProc;
 import com.zerocracy.claims.proc.SentryProc;
@@ -44,7 +45,6 @@ import io.sentry.Sentry;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.concurrent.atomic.AtomicInteger;
 import javax.ws.rs.HttpMethod;
 import org.cactoos.func.AsyncFunc;
 import org.takes.facets.fork.FkRegex;
@@ -119,9 +119,9 @@ public final class Main {
                 )
             );
         }
+        Datum.preload();
         Logger.info(this, "Farm is ready to start");
         final ShutdownFarm.Hook shutdown = new ShutdownFarm.Hook();
-        final AtomicInteger count = new AtomicInteger();
         final int threads = Runtime.getRuntime().availableProcessors();
         try (
             final Farm farm = new ShutdownFarm(
@@ -131,27 +131,7 @@ public final class Main {
                 shutdown
             );
             final SlackRadar radar = new SlackRadar(farm);
-            final ClaimsRoutine claims = new ClaimsRoutine(
-                farm,
-                new AsyncProc(
-                    threads,
-                    new DeleteProc(
-                        farm,
-                        new SentryProc(
-                            farm,
-                            new FootprintProc(
-                                farm,
-                                new CountingProc(
-                                    new BrigadeProc(farm),
-                                    count
-                                )
-                            )
-                        )
-                    ),
-                    shutdown
-                ),
-                () -> count.intValue() < threads
-            )
+            final ClaimsRoutine claims = Main.routine(farm, shutdown, threads)
         ) {
             new ExtMongobee(farm).apply();
             claims.start(shutdown);
@@ -187,4 +167,33 @@ public final class Main {
         }
     }
 
+    /**
+     * Claims routine, which processes claims in project lanes.
+     * @param farm Farm
+     * @param shutdown Shutdown hook
+     * @param threads How many threads to use
+     * @return Routine
+     */
+    private static ClaimsRoutine routine(final Farm farm,
+        final ShutdownFarm.Hook shutdown, final int threads) {
+        final AsyncProc lanes = new AsyncProc(
+            threads,
+            new DeleteProc(
+                farm,
+                new SentryProc(
+                    farm,
+                    new FootprintProc(farm, new BrigadeProc(farm))
+                )
+            ),
+            shutdown
+        );
+        return new ClaimsRoutine(
+            new ExtSqs(farm),
+            new ClaimsQueueUrl(farm),
+            lanes,
+            lanes::idle,
+            threads
+        );
+    }
+
 }
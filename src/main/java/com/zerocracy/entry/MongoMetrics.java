@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.entry;
+
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListenerAdapter;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Metrics of MongoDB connection pools.
+ *
+ * <p>Checkout time is the time between the moment a thread asks
+ * the pool for a connection and the moment it gets one, including
+ * the time to open a new connection, if the pool had to.</p>
+ *
+ * @since 1.0
+ */
+final class MongoMetrics extends ConnectionPoolListenerAdapter {
+
+    /**
+     * When current thread started to wait for a connection, in nanos.
+     */
+    private final ThreadLocal<Long> start;
+
+    /**
+     * Total number of checkouts.
+     */
+    private final AtomicLong checkouts;
+
+    /**
+     * Total checkout time, in nanos.
+     */
+    private final AtomicLong total;
+
+    /**
+     * Maximum checkout time, in nanos.
+     */
+    private final AtomicLong max;
+
+    /**
+     * Connections opened.
+     */
+    private final AtomicLong opened;
+
+    /**
+     * Ctor.
+     */
+    MongoMetrics() {
+        super();
+        this.start = new ThreadLocal<>();
+        this.checkouts = new AtomicLong();
+        this.total = new AtomicLong();
+        this.max = new AtomicLong();
+        this.opened = new AtomicLong();
+    }
+
+    @Override
+    public void waitQueueEntered(
+        final ConnectionPoolWaitQueueEnteredEvent event) {
+        this.start.set(System.nanoTime());
+    }
+
+    @Override
+    public void connectionCheckedOut(final ConnectionCheckedOutEvent event) {
+        final Long before = this.start.get();
+        if (before != null) {
+            this.start.remove();
+            final long time = System.nanoTime() - before;
+            this.checkouts.incrementAndGet();
+            this.total.addAndGet(time);
+            this.max.accumulateAndGet(time, Math::max);
+        }
+    }
+
+    @Override
+    public void connectionAdded(final ConnectionAddedEvent event) {
+        this.opened.incrementAndGet();
+    }
+
+    /**
+     * Guts.
+     * @return Directives
+     */
+    public Iterable<Directive> guts() {
+        final long count = this.checkouts.get();
+        final long avg;
+        if (count == 0L) {
+            avg = 0L;
+        } else {
+            avg = this.total.get() / count;
+        }
+        return new Directives()
+            .add("mongo")
+            .attr("opened", this.opened.get())
+            .attr("checkouts", count)
+            .attr("avg", TimeUnit.NANOSECONDS.toMicros(avg))
+            .attr("max", TimeUnit.NANOSECONDS.toMicros(this.max.get()))
+            .up();
+    }
+}
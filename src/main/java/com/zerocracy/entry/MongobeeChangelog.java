@@ -18,8 +18,15 @@ package com.zerocracy.entry;
 
 import com.github.mongobee.changeset.ChangeLog;
 import com.github.mongobee.changeset.ChangeSet;
+import com.mongodb.AggregationOptions;
+import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.Cursor;
 import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.zerocracy.claims.Footprint;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * MongoDB changes.
@@ -45,4 +52,52 @@ public final class MongobeeChangelog {
         );
     }
 
+    @ChangeSet(order = "002", id = "duplicate-claims", author = "agent")
+    public static void duplicateClaims(final DB mongo) {
+        final DBCollection claims = mongo.getCollection(Footprint.CLAIMS);
+        try (final Cursor dups = claims.aggregate(
+            Arrays.asList(
+                new BasicDBObject("$sort", new BasicDBObject("_id", 1)),
+                new BasicDBObject(
+                    "$group",
+                    new BasicDBObjectBuilder()
+                        .push("_id")
+                        .add("project", "$project")
+                        .add("cid", "$cid")
+                        .pop()
+                        .push("ids").add("$push", "$_id").pop()
+                        .push("total").add("$sum", 1).pop()
+                        .get()
+                ),
+                new BasicDBObject(
+                    "$match",
+                    new BasicDBObject("total", new BasicDBObject("$gt", 1))
+                )
+            ),
+            AggregationOptions.builder().allowDiskUse(true).build()
+        )) {
+            while (dups.hasNext()) {
+                final List<?> ids = (List<?>) dups.next().get("ids");
+                claims.remove(
+                    new BasicDBObject(
+                        "_id",
+                        new BasicDBObject("$in", ids.subList(1, ids.size()))
+                    )
+                );
+            }
+        }
+    }
+
+    @ChangeSet(order = "003", id = "unique-claims", author = "agent")
+    public static void uniqueClaims(final DB mongo) {
+        mongo.getCollection(Footprint.CLAIMS).createIndex(
+            new BasicDBObjectBuilder()
+                .add("project", 1)
+                .add("cid", 1)
+                .get(),
+            Footprint.UNIQUE,
+            true
+        );
+    }
+
 }
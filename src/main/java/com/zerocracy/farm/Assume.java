@@ -97,7 +97,8 @@ public final class Assume {
                 String.format(
                     "Type \"%s\" is not mine, I'm expecting \"%s\"",
                     input, expected
-                )
+                ),
+                expected
             );
         }
     }
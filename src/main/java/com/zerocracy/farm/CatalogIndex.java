@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.jcabi.xml.XML;
+import com.zerocracy.Item;
+import com.zerocracy.Project;
+import com.zerocracy.Xocument;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of the catalog of projects.
+ *
+ * <p>Projects are indexed by their IDs and by their links, so
+ * the most popular queries, like {@code @id='C3NDPUA8L'} or
+ * {@code links/link[@rel='github' and @href='yegor256/pdd']}, are
+ * answered from hash maps. Any other query goes to the catalog
+ * as an XPath. The index is rebuilt when the catalog file
+ * changes.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+final class CatalogIndex {
+
+    /**
+     * Query by ID.
+     */
+    private static final Pattern BY_ID = Pattern.compile(
+        "\\s*@id\\s*=\\s*'([^']+)'\\s*"
+    );
+
+    /**
+     * Query by link.
+     */
+    private static final Pattern BY_LINK = Pattern.compile(
+        String.join(
+            "",
+            "\\s*links/link\\[\\s*@rel\\s*=\\s*'([^']+)'",
+            "\\s+and\\s+@href\\s*=\\s*'([^']+)'\\s*\\]\\s*"
+        )
+    );
+
+    /**
+     * PMO project.
+     */
+    private final Project pmo;
+
+    /**
+     * Current snapshot of the catalog.
+     */
+    private final AtomicReference<CatalogIndex.Snapshot> snapshot;
+
+    /**
+     * How many times the index was rebuilt.
+     */
+    private final AtomicLong rebuilds;
+
+    /**
+     * Ctor.
+     * @param pkt PMO project
+     */
+    CatalogIndex(final Project pkt) {
+        this.pmo = pkt;
+        this.snapshot = new AtomicReference<>(new CatalogIndex.Snapshot());
+        this.rebuilds = new AtomicLong();
+    }
+
+    /**
+     * Find prefixes of projects by XPath query.
+     * @param xpath The XPath
+     * @return Prefixes found
+     * @throws IOException If fails
+     */
+    public Collection<String> prefixes(final String xpath)
+        throws IOException {
+        try (final Item item = this.pmo.acq("catalog.xml")) {
+            final CatalogIndex.Snapshot snap = this.fresh(item.path());
+            final Matcher byid = CatalogIndex.BY_ID.matcher(xpath);
+            final Matcher bylink = CatalogIndex.BY_LINK.matcher(xpath);
+            final Collection<String> found;
+            if (xpath.isEmpty()) {
+                found = snap.all;
+            } else if (byid.matches()) {
+                final String prefix = snap.ids.get(byid.group(1));
+                if (prefix == null) {
+                    found = Collections.emptyList();
+                } else {
+                    found = Collections.singletonList(prefix);
+                }
+            } else if (bylink.matches()) {
+                found = snap.links.getOrDefault(
+                    CatalogIndex.link(bylink.group(1), bylink.group(2)),
+                    Collections.emptyList()
+                );
+            } else {
+                found = new Xocument(item.path()).xpath(
+                    String.format("//project[%s]/prefix/text()", xpath)
+                );
+            }
+            return found;
+        }
+    }
+
+    /**
+     * How many times the index was rebuilt.
+     * @return Number of rebuilds
+     */
+    public long rebuilds() {
+        return this.rebuilds.get();
+    }
+
+    /**
+     * Make sure the snapshot matches the file.
+     * @param path The catalog file
+     * @return Snapshot
+     * @throws IOException If fails
+     */
+    private CatalogIndex.Snapshot fresh(final Path path) throws IOException {
+        CatalogIndex.Snapshot snap = this.snapshot.get();
+        if (!snap.matches(path)) {
+            synchronized (this.snapshot) {
+                snap = this.snapshot.get();
+                if (!snap.matches(path)) {
+                    new Xocument(path).bootstrap("pmo/catalog");
+                    snap = new CatalogIndex.Snapshot(path);
+                    this.snapshot.set(snap);
+                    this.rebuilds.incrementAndGet();
+                }
+            }
+        }
+        return snap;
+    }
+
+    /**
+     * Key of a link.
+     * @param rel Link rel
+     * @param href Link href
+     * @return Key
+     */
+    private static String link(final String rel, final String href) {
+        return String.format("%s %s", rel, href);
+    }
+
+    /**
+     * Immutable snapshot of the catalog.
+     */
+    private static final class Snapshot {
+        /**
+         * Prefixes of all projects, in the order of the catalog.
+         */
+        private final List<String> all;
+        /**
+         * Prefixes by project IDs.
+         */
+        private final Map<String, String> ids;
+        /**
+         * Prefixes by links.
+         */
+        private final Map<String, List<String>> links;
+        /**
+         * Last modified time of the file, in nanos, -1 if unknown.
+         */
+        private final long modified;
+        /**
+         * Length of the file, -1 if unknown.
+         */
+        private final long length;
+        /**
+         * Ctor, for an empty snapshot, which never matches.
+         */
+        Snapshot() {
+            this.all = Collections.emptyList();
+            this.ids = Collections.emptyMap();
+            this.links = Collections.emptyMap();
+            this.modified = -1L;
+            this.length = -1L;
+        }
+        /**
+         * Ctor.
+         * @param path The catalog file
+         * @throws IOException If fails
+         */
+        Snapshot(final Path path) throws IOException {
+            final BasicFileAttributes attrs = Files.readAttributes(
+                path, BasicFileAttributes.class
+            );
+            final List<String> prefixes = new ArrayList<>(0);
+            final Map<String, String> byid = new HashMap<>(0);
+            final Map<String, List<String>> bylink = new HashMap<>(0);
+            for (final XML prj : new Xocument(path).nodes("/catalog/project")) {
+                final String prefix = prj.xpath("prefix/text()").get(0);
+                prefixes.add(prefix);
+                byid.put(prj.xpath("@id").get(0), prefix);
+                for (final XML lnk : prj.nodes("links/link")) {
+                    final List<String> list = bylink.computeIfAbsent(
+                        CatalogIndex.link(
+                            lnk.xpath("@rel").get(0),
+                            lnk.xpath("@href").get(0)
+                        ),
+                        key -> new ArrayList<>(1)
+                    );
+                    if (!list.contains(prefix)) {
+                        list.add(prefix);
+                    }
+                }
+            }
+            this.all = Collections.unmodifiableList(prefixes);
+            this.ids = Collections.unmodifiableMap(byid);
+            this.links = Collections.unmodifiableMap(bylink);
+            this.modified = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            this.length = attrs.size();
+        }
+        /**
+         * This snapshot was made from this very file?
+         * @param path The catalog file
+         * @return TRUE if the file wasn't changed since then
+         * @throws IOException If fails
+         */
+        boolean matches(final Path path) throws IOException {
+            boolean same = false;
+            if (this.length >= 0L && path.toFile().exists()) {
+                final BasicFileAttributes attrs = Files.readAttributes(
+                    path, BasicFileAttributes.class
+                );
+                same = attrs.size() == this.length
+                    && attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+                    == this.modified;
+            }
+            return same;
+        }
+    }
+}
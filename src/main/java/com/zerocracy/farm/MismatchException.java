@@ -17,6 +17,10 @@
 package com.zerocracy.farm;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
 
 /**
  * When type is not the right one.
@@ -30,12 +34,45 @@ public final class MismatchException extends IOException {
      */
     private static final long serialVersionUID = -6427949021762997442L;
 
+    /**
+     * Claim types the stakeholder is expecting, if known.
+     */
+    @SuppressWarnings("PMD.LooseCoupling")
+    private final HashSet<String> expected;
+
     /**
      * Ctor.
      * @param cause Cause of it
      */
     public MismatchException(final String cause) {
+        this(cause, Collections.emptySet());
+    }
+
+    /**
+     * Ctor.
+     * @param cause Cause of it
+     * @param types Claim types the stakeholder is expecting
+     */
+    public MismatchException(final String cause,
+        final Collection<String> types) {
         super(cause);
+        this.expected = new HashSet<>(types.size());
+        for (final String type : types) {
+            this.expected.add(type.toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+    /**
+     * Claim types the stakeholder is expecting.
+     *
+     * <p>The collection is empty if the mismatch is not about the
+     * type of the claim, for example when it's thrown
+     * by {@link Assume#notPmo()}.</p>
+     *
+     * @return Lower-cased claim types, or empty if unknown
+     */
+    public Collection<String> types() {
+        return Collections.unmodifiableSet(this.expected);
     }
 
 }
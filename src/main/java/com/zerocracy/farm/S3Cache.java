@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * What we know about S3 objects and their local copies.
+ *
+ * <p>For every S3 object we remember its version (ETag, if S3 reports
+ * it) and the last-modified time and length of the local copy, as they
+ * were right after the last download or upload. While the entry is
+ * younger than TTL and the local copy is untouched, {@link S3Item} trusts
+ * it and doesn't talk to S3 at all.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+final class S3Cache {
+
+    /**
+     * Time to live of an entry, in milliseconds.
+     */
+    private final long ttl;
+
+    /**
+     * Entries, by S3 key.
+     */
+    private final ConcurrentMap<String, S3Cache.Entry> entries;
+
+    /**
+     * Counters of requests to S3, by S3 key.
+     */
+    private final ConcurrentMap<String, S3Cache.Counts> counts;
+
+    /**
+     * Ctor.
+     * @param msec Time to live of an entry, in milliseconds
+     */
+    S3Cache(final long msec) {
+        this.ttl = msec;
+        this.entries = new ConcurrentHashMap<>(0);
+        this.counts = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Can we trust the local copy of this object, without asking S3?
+     * @param key S3 key
+     * @param file Local copy
+     * @return TRUE if the local copy is known and recent enough
+     * @throws IOException If fails
+     */
+    public boolean fresh(final String key, final Path file)
+        throws IOException {
+        final S3Cache.Entry entry = this.entries.get(key);
+        return entry != null
+            && System.currentTimeMillis() - entry.checked < this.ttl
+            && entry.same(file);
+    }
+
+    /**
+     * Is the local copy the same as we saw it after the last sync?
+     * @param key S3 key
+     * @param file Local copy
+     * @return TRUE if it is known and the same
+     * @throws IOException If fails
+     */
+    public boolean same(final String key, final Path file)
+        throws IOException {
+        final S3Cache.Entry entry = this.entries.get(key);
+        return entry != null && entry.same(file);
+    }
+
+    /**
+     * Version of the object we know, NULL if we know it's absent in S3.
+     * @param key S3 key
+     * @return Version or NULL
+     */
+    public String version(final String key) {
+        final S3Cache.Entry entry = this.entries.get(key);
+        String version = null;
+        if (entry != null) {
+            version = entry.version;
+        }
+        return version;
+    }
+
+    /**
+     * Remember the state right after a sync with S3.
+     * @param key S3 key
+     * @param version Version in S3, NULL if it's absent there
+     * @param file Local copy
+     * @throws IOException If fails
+     */
+    public void synced(final String key, final String version,
+        final Path file) throws IOException {
+        long modified = -1L;
+        long length = -1L;
+        if (file.toFile().exists()) {
+            final BasicFileAttributes attrs = Files.readAttributes(
+                file, BasicFileAttributes.class
+            );
+            modified = attrs.lastModifiedTime().toMillis();
+            length = attrs.size();
+        }
+        this.entries.put(
+            key,
+            new S3Cache.Entry(
+                version, modified, length, System.currentTimeMillis()
+            )
+        );
+    }
+
+    /**
+     * Count a metadata request.
+     * @param key S3 key
+     */
+    public void head(final String key) {
+        this.counter(key).heads.incrementAndGet();
+    }
+
+    /**
+     * Count a download.
+     * @param key S3 key
+     */
+    public void get(final String key) {
+        this.counter(key).gets.incrementAndGet();
+    }
+
+    /**
+     * Count an upload.
+     * @param key S3 key
+     */
+    public void put(final String key) {
+        this.counter(key).puts.incrementAndGet();
+    }
+
+    /**
+     * Guts.
+     * @return Directives
+     */
+    public Iterable<Directive> guts() {
+        final Directives dirs = new Directives()
+            .add("s3")
+            .attr("ttl", this.ttl)
+            .attr("cached", this.entries.size());
+        for (final Map.Entry<String, S3Cache.Counts> ent
+            : this.counts.entrySet()) {
+            dirs.add("item")
+                .attr("key", ent.getKey())
+                .attr("heads", ent.getValue().heads.get())
+                .attr("gets", ent.getValue().gets.get())
+                .attr("puts", ent.getValue().puts.get())
+                .up();
+        }
+        return dirs.up();
+    }
+
+    /**
+     * Version of the object, according to its metadata.
+     * @param meta Metadata from S3
+     * @return Version
+     */
+    public static String version(final ObjectMetadata meta) {
+        String version = meta.getETag();
+        if (version == null) {
+            version = String.format(
+                "%d:%d",
+                meta.getLastModified().getTime(), meta.getContentLength()
+            );
+        }
+        return version;
+    }
+
+    /**
+     * Counters of the key.
+     * @param key S3 key
+     * @return Counters
+     */
+    private S3Cache.Counts counter(final String key) {
+        return this.counts.computeIfAbsent(key, any -> new S3Cache.Counts());
+    }
+
+    /**
+     * Known state of an object.
+     */
+    private static final class Entry {
+        /**
+         * Version in S3 or NULL if absent.
+         */
+        private final String version;
+        /**
+         * Last modified time of the local copy, -1 if absent.
+         */
+        private final long modified;
+        /**
+         * Length of the local copy, -1 if absent.
+         */
+        private final long length;
+        /**
+         * When it was checked with S3.
+         */
+        private final long checked;
+        /**
+         * Ctor.
+         * @param ver Version
+         * @param time Last modified time of the local copy
+         * @param size Length of the local copy
+         * @param when When checked
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Entry(final String ver, final long time, final long size,
+            final long when) {
+            this.version = ver;
+            this.modified = time;
+            this.length = size;
+            this.checked = when;
+        }
+        /**
+         * Local copy is the same?
+         * @param file Local copy
+         * @return TRUE if same
+         * @throws IOException If fails
+         */
+        boolean same(final Path file) throws IOException {
+            final boolean same;
+            if (file.toFile().exists()) {
+                final BasicFileAttributes attrs = Files.readAttributes(
+                    file, BasicFileAttributes.class
+                );
+                same = attrs.lastModifiedTime().toMillis() == this.modified
+                    && attrs.size() == this.length;
+            } else {
+                same = this.length < 0L;
+            }
+            return same;
+        }
+    }
+
+    /**
+     * Counters of requests.
+     */
+    private static final class Counts {
+        /**
+         * Metadata requests.
+         */
+        private final AtomicLong heads = new AtomicLong();
+        /**
+         * Downloads.
+         */
+        private final AtomicLong gets = new AtomicLong();
+        /**
+         * Uploads.
+         */
+        private final AtomicLong puts = new AtomicLong();
+    }
+}
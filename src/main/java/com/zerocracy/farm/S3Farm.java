@@ -19,17 +19,20 @@ package com.zerocracy.farm;
 import com.jcabi.s3.Bucket;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
+import com.zerocracy.farm.guts.Guts;
 import com.zerocracy.pmo.Catalog;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import org.cactoos.iterable.Mapped;
 import org.cactoos.list.SolidList;
+import org.xembly.Directives;
 
 /**
  * Farm in S3.
@@ -50,6 +53,16 @@ public final class S3Farm implements Farm {
      */
     private final Path temp;
 
+    /**
+     * What we know about S3 objects.
+     */
+    private final S3Cache cache;
+
+    /**
+     * Index of the catalog.
+     */
+    private final CatalogIndex index;
+
     /**
      * Ctor.
      * @param bkt Bucket
@@ -65,28 +78,37 @@ public final class S3Farm implements Farm {
      * @param tmp Temporary storage
      */
     public S3Farm(final Bucket bkt, final Path tmp) {
+        this(bkt, tmp, TimeUnit.MINUTES.toMillis(1L));
+    }
+
+    /**
+     * Ctor.
+     * @param bkt Bucket
+     * @param tmp Temporary storage
+     * @param ttl For how long, in milliseconds, local copies of S3 objects
+     *  are trusted without checking S3
+     */
+    public S3Farm(final Bucket bkt, final Path tmp, final long ttl) {
         this.bucket = bkt;
         this.temp = tmp;
+        this.cache = new S3Cache(ttl);
+        this.index = new CatalogIndex(
+            new S3Project(this.bucket, "PMO/", this.temp, this.cache)
+        );
     }
 
     @Override
     public Iterable<Project> find(final String xpath) throws IOException {
-        Iterable<Project> found;
-        if ("@id='PMO'".equals(xpath)) {
-            found = new SolidList<>(
-                new S3Project(this.bucket, "PMO/", this.temp)
-            );
-        } else {
-            final Catalog catalog = new Catalog(this).bootstrap();
-            found = new Mapped<>(
-                prefix -> new S3Project(this.bucket, prefix, this.temp),
-                catalog.findByXPath(xpath)
-            );
-            if (!found.iterator().hasNext()) {
-                found = this.force(catalog, xpath);
-            }
-        }
-        return found;
+        return new Guts(
+            new S3Farm.Bottom(),
+            () -> this.projects(xpath),
+            () -> new Directives()
+                .xpath("/guts")
+                .add("farm")
+                .attr("id", this.getClass().getSimpleName())
+                .append(this.cache.guts())
+                .up()
+        ).apply(xpath);
     }
 
     @Override
@@ -105,6 +127,32 @@ public final class S3Farm implements Farm {
         }
     }
 
+    /**
+     * Find projects.
+     * @param xpath The XPath
+     * @return List of found projects
+     * @throws IOException If fails
+     */
+    private Iterable<Project> projects(final String xpath) throws IOException {
+        Iterable<Project> found;
+        if ("@id='PMO'".equals(xpath)) {
+            found = new SolidList<>(
+                new S3Project(this.bucket, "PMO/", this.temp, this.cache)
+            );
+        } else {
+            found = new Mapped<>(
+                prefix -> new S3Project(
+                    this.bucket, prefix, this.temp, this.cache
+                ),
+                this.index.prefixes(xpath)
+            );
+            if (!found.iterator().hasNext()) {
+                found = this.force(new Catalog(this).bootstrap(), xpath);
+            }
+        }
+        return found;
+    }
+
     /**
      * Make sure it exists and return it.
      * @param catalog The catalog
@@ -130,4 +178,18 @@ public final class S3Farm implements Farm {
         return found;
     }
 
+    /**
+     * Nothing below this farm, for the guts.
+     */
+    private static final class Bottom implements Farm {
+        @Override
+        public Iterable<Project> find(final String xpath) {
+            return Collections.emptyList();
+        }
+        @Override
+        public void close() {
+            // nothing
+        }
+    }
+
 }
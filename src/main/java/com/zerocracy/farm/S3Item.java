@@ -16,21 +16,34 @@
  */
 package com.zerocracy.farm;
 
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.jcabi.log.Logger;
 import com.jcabi.s3.Ocket;
 import com.zerocracy.Item;
-import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.EqualsAndHashCode;
-import org.cactoos.io.BytesOf;
-import org.cactoos.io.InputOf;
 
 /**
  * Item in S3.
@@ -41,6 +54,16 @@ import org.cactoos.io.InputOf;
 @EqualsAndHashCode(of = {"ocket", "temp"})
 final class S3Item implements Item {
 
+    /**
+     * Size of files, in bytes, above which they are uploaded in parts.
+     */
+    private static final long THRESHOLD = 16L << 20;
+
+    /**
+     * Size of one part of a multipart upload, in bytes.
+     */
+    private static final long PART = 8L << 20;
+
     /**
      * S3 ocket.
      */
@@ -51,6 +74,16 @@ final class S3Item implements Item {
      */
     private final Path temp;
 
+    /**
+     * What we know about S3 objects.
+     */
+    private final S3Cache cache;
+
+    /**
+     * Size of files, in bytes, above which they are uploaded in parts.
+     */
+    private final long threshold;
+
     /**
      * Is it open/acquired?
      */
@@ -71,8 +104,34 @@ final class S3Item implements Item {
      * @param tmp Path
      */
     S3Item(final Ocket okt, final Path tmp) {
+        this(okt, tmp, new S3Cache(0L));
+    }
+
+    /**
+     * Ctor.
+     * @param okt Ocket
+     * @param tmp Path
+     * @param cch What we know about S3 objects
+     */
+    S3Item(final Ocket okt, final Path tmp, final S3Cache cch) {
+        this(okt, tmp, cch, S3Item.THRESHOLD);
+    }
+
+    /**
+     * Ctor.
+     * @param okt Ocket
+     * @param tmp Path
+     * @param cch What we know about S3 objects
+     * @param max Size of files, in bytes, above which they are uploaded
+     *  in parts
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    S3Item(final Ocket okt, final Path tmp, final S3Cache cch,
+        final long max) {
         this.ocket = okt;
         this.temp = tmp;
+        this.cache = cch;
+        this.threshold = max;
         this.open = new AtomicBoolean(false);
     }
 
@@ -90,30 +149,20 @@ final class S3Item implements Item {
                     this.temp.toFile().getAbsolutePath()
                 );
             }
-            if (this.ocket.exists() && (!this.temp.toFile().exists()
-                || this.expired())) {
-                final long start = System.currentTimeMillis();
-                this.ocket.read(
-                    Files.newOutputStream(
-                        this.temp,
-                        StandardOpenOption.CREATE,
-                        StandardOpenOption.TRUNCATE_EXISTING
-                    )
-                );
-                Files.setLastModifiedTime(
-                    this.temp,
-                    FileTime.fromMillis(
-                        this.ocket.meta().getLastModified().getTime()
-                    )
-                );
-                Logger.info(
-                    this, "Loaded %d bytes from %s to %s (%s) in %[ms]s",
-                    this.temp.toFile().length(),
-                    this.ocket.key(),
-                    this.temp,
-                    Files.getLastModifiedTime(this.temp),
-                    System.currentTimeMillis() - start
-                );
+            final String key = this.ocket.key();
+            if (!this.cache.fresh(key, this.temp)) {
+                this.cache.head(key);
+                if (this.ocket.exists()) {
+                    this.cache.head(key);
+                    final ObjectMetadata meta = this.ocket.meta();
+                    final String version = S3Cache.version(meta);
+                    if (this.outdated(version, meta)) {
+                        this.load(meta);
+                    }
+                    this.cache.synced(key, version, this.temp);
+                } else {
+                    this.cache.synced(key, null, this.temp);
+                }
             }
             this.open.set(true);
         }
@@ -122,28 +171,23 @@ final class S3Item implements Item {
 
     @Override
     public void close() throws IOException {
+        final String key = this.ocket.key();
         if (this.open.get() && this.temp.toFile().exists()
-            && (!this.ocket.exists() || this.dirty())) {
-            final ObjectMetadata meta = new ObjectMetadata();
+            && (this.cache.version(key) == null
+            || !this.cache.same(key, this.temp))) {
             final long start = System.currentTimeMillis();
-            meta.setContentLength(this.temp.toFile().length());
-            this.ocket.write(
-                new ByteArrayInputStream(
-                    new BytesOf(
-                        new InputOf(this.temp)
-                    ).asBytes()
-                ),
-                meta
-            );
-            Files.setLastModifiedTime(
-                this.temp,
-                FileTime.fromMillis(
-                    this.ocket.meta().getLastModified().getTime()
-                )
-            );
+            final long length = this.temp.toFile().length();
+            this.cache.put(key);
+            final String version;
+            if (length > this.threshold) {
+                version = this.multipart(length);
+            } else {
+                version = this.single(length);
+            }
+            this.cache.synced(key, version, this.temp);
             Logger.info(
                 this, "Saved %d bytes to %s from %s (%s) in %[ms]s",
-                this.temp.toFile().length(),
+                length,
                 this.ocket.key(),
                 this.temp,
                 Files.getLastModifiedTime(this.temp),
@@ -154,30 +198,147 @@ final class S3Item implements Item {
     }
 
     /**
-     * Local version is expired?
-     * @return TRUE if local one is expired
+     * Upload the local file in one request, streaming it from disk.
+     *
+     * <p>We use {@link FileInputStream} on purpose: unlike channel based
+     * streams it doesn't get closed when the reading thread is
+     * interrupted.</p>
+     *
+     * @param length Length of the file
+     * @return Version of the object in S3
      * @throws IOException If fails
      */
-    private boolean expired() throws IOException {
-        final Date local = new Date(
-            Files.getLastModifiedTime(this.temp).toMillis()
-        );
-        final Date remote = this.ocket.meta().getLastModified();
-        return remote.compareTo(local) > 0;
+    private String single(final long length) throws IOException {
+        final ObjectMetadata meta = new ObjectMetadata();
+        meta.setContentLength(length);
+        final MessageDigest digest = S3Item.md5();
+        try (final InputStream input = new DigestInputStream(
+            new FileInputStream(this.temp.toFile()), digest
+        )) {
+            this.ocket.write(input, meta);
+        }
+        return String.format("%032x", new BigInteger(1, digest.digest()));
+    }
+
+    /**
+     * Upload the local file in parts, each one read by the S3 client
+     * right from the file.
+     * @param length Length of the file
+     * @return Version of the object in S3
+     * @throws IOException If fails
+     */
+    private String multipart(final long length) throws IOException {
+        final AmazonS3 aws = this.ocket.bucket().region().aws();
+        final String bucket = this.ocket.bucket().name();
+        final String key = this.ocket.key();
+        final String upload = aws.initiateMultipartUpload(
+            new InitiateMultipartUploadRequest(bucket, key)
+        ).getUploadId();
+        try {
+            final List<PartETag> tags = new LinkedList<>();
+            long offset = 0L;
+            while (offset < length) {
+                final long size = Math.min(S3Item.PART, length - offset);
+                tags.add(
+                    aws.uploadPart(
+                        new UploadPartRequest()
+                            .withBucketName(bucket)
+                            .withKey(key)
+                            .withUploadId(upload)
+                            .withPartNumber(tags.size() + 1)
+                            .withFile(this.temp.toFile())
+                            .withFileOffset(offset)
+                            .withPartSize(size)
+                    ).getPartETag()
+                );
+                offset += size;
+            }
+            return aws.completeMultipartUpload(
+                new CompleteMultipartUploadRequest(bucket, key, upload, tags)
+            ).getETag();
+        } catch (final AmazonClientException ex) {
+            final IOException error = new IOException(
+                String.format("Failed to upload %s to %s", this.temp, key),
+                ex
+            );
+            try {
+                aws.abortMultipartUpload(
+                    new AbortMultipartUploadRequest(bucket, key, upload)
+                );
+            } catch (final AmazonClientException abort) {
+                error.addSuppressed(abort);
+            }
+            throw error;
+        }
     }
 
     /**
-     * Do we really need to save it now to S3?
-     * @return TRUE if it has to be uploaded
+     * Download the object to the local file.
+     * @param meta Its metadata
      * @throws IOException If fails
      */
-    private boolean dirty() throws IOException {
-        final Date local = new Date(
-            Files.getLastModifiedTime(this.temp).toMillis()
+    private void load(final ObjectMetadata meta) throws IOException {
+        final long start = System.currentTimeMillis();
+        this.cache.get(this.ocket.key());
+        try (final OutputStream output = Files.newOutputStream(
+            this.temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            this.ocket.read(output);
+        }
+        Files.setLastModifiedTime(
+            this.temp,
+            FileTime.fromMillis(meta.getLastModified().getTime())
         );
-        final ObjectMetadata meta = this.ocket.meta();
-        final Date remote = meta.getLastModified();
-        return !remote.equals(local)
-            || this.temp.toFile().length() != meta.getContentLength();
+        Logger.info(
+            this, "Loaded %d bytes from %s to %s (%s) in %[ms]s",
+            this.temp.toFile().length(),
+            this.ocket.key(),
+            this.temp,
+            Files.getLastModifiedTime(this.temp),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Local version is outdated?
+     *
+     * <p>If we know the local copy and it wasn't touched since the last
+     * sync, it's enough to compare versions. Otherwise, we compare
+     * modification times of the local copy and the object in S3.</p>
+     *
+     * @param version Version of the object in S3
+     * @param meta Metadata of the object in S3
+     * @return TRUE if local one has to be downloaded again
+     * @throws IOException If fails
+     */
+    private boolean outdated(final String version, final ObjectMetadata meta)
+        throws IOException {
+        final String key = this.ocket.key();
+        final boolean outdated;
+        if (!this.temp.toFile().exists()) {
+            outdated = true;
+        } else if (this.cache.same(key, this.temp)) {
+            outdated = !version.equals(this.cache.version(key));
+        } else {
+            final Date local = new Date(
+                Files.getLastModifiedTime(this.temp).toMillis()
+            );
+            outdated = meta.getLastModified().compareTo(local) > 0;
+        }
+        return outdated;
+    }
+
+    /**
+     * New MD5 digest, the same S3 uses for ETag of simple uploads.
+     * @return Digest
+     */
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException err) {
+            throw new IllegalStateException("MD5 algorithm required", err);
+        }
     }
 }
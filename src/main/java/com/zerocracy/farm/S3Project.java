@@ -57,6 +57,11 @@ final class S3Project implements Project {
      */
     private final Path temp;
 
+    /**
+     * What we know about S3 objects.
+     */
+    private final S3Cache cache;
+
     /**
      * Ctor.
      * @param bkt Bucket
@@ -74,9 +79,23 @@ final class S3Project implements Project {
      * @param tmp Storage
      */
     S3Project(final Bucket bkt, final String pfx, final Path tmp) {
+        this(bkt, pfx, tmp, new S3Cache(0L));
+    }
+
+    /**
+     * Ctor.
+     * @param bkt Bucket
+     * @param pfx Prefix
+     * @param tmp Storage
+     * @param cch What we know about S3 objects
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    S3Project(final Bucket bkt, final String pfx, final Path tmp,
+        final S3Cache cch) {
         this.bucket = bkt;
         this.prefix = pfx;
         this.temp = tmp;
+        this.cache = cch;
     }
 
     @Override
@@ -134,7 +153,8 @@ final class S3Project implements Project {
             final String key = String.format("%s%s", this.prefix, file);
             item = new S3Item(
                 this.bucket.ocket(key),
-                this.temp.resolve(key)
+                this.temp.resolve(key),
+                this.cache
             );
         }
         return item;
@@ -16,6 +16,7 @@
  */
 package com.zerocracy.farm;
 
+import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
@@ -23,8 +24,10 @@ import com.zerocracy.SafeSentry;
 import com.zerocracy.SoftException;
 import com.zerocracy.Stakeholder;
 import com.zerocracy.claims.ClaimIn;
+import com.zerocracy.claims.ClaimsBatch;
 import com.zerocracy.entry.ClaimsOf;
 import com.zerocracy.farm.props.Props;
+import com.zerocracy.farm.sync.DeadlockException;
 import com.zerocracy.tools.TxtUnrecoverableError;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
@@ -47,6 +50,11 @@ public final class StkSafe implements Stakeholder {
      */
     private static final int STACKTRACE_MAX = 8192;
 
+    /**
+     * How many times to try a claim that loses deadlocks.
+     */
+    private static final int ATTEMPTS = 3;
+
     /**
      * Original stakeholder.
      */
@@ -62,6 +70,11 @@ public final class StkSafe implements Stakeholder {
      */
     private final String identifier;
 
+    /**
+     * Props of the farm.
+     */
+    private final Props props;
+
     /**
      * Ctor.
      * @param sid Stakeholder identifier
@@ -72,6 +85,7 @@ public final class StkSafe implements Stakeholder {
         this.identifier = sid;
         this.farm = frm;
         this.origin = stk;
+        this.props = new Props(frm);
     }
 
     // @todo #733:30min Prevent StkSafe from swallowing exceptions generated
@@ -93,12 +107,12 @@ public final class StkSafe implements Stakeholder {
         final XML xml) throws IOException {
         final ClaimIn claim = new ClaimIn(xml);
         try {
-            this.origin.process(project, xml);
+            this.attempt(project, claim);
         } catch (final MismatchException ex) {
             throw ex;
         } catch (final SoftException ex) {
             if (claim.hasToken()) {
-                new ClaimIn(xml).reply(ex.getMessage()).postTo(
+                claim.reply(ex.getMessage()).postTo(
                     new ClaimsOf(this.farm, project)
                 );
             } else {
@@ -127,8 +141,7 @@ public final class StkSafe implements Stakeholder {
             if (claim.hasToken()) {
                 msg.append(String.format(", token=\"%s\"", claim.token()));
             }
-            final Props props = new Props(this.farm);
-            if (props.has("//testing")) {
+            if (this.props.has("//testing")) {
                 throw new IllegalStateException(ex);
             }
             if (!claim.isError()) {
@@ -144,7 +157,7 @@ public final class StkSafe implements Stakeholder {
             if (claim.hasToken() && !claim.type().startsWith("Notify")) {
                 claim.reply(
                     new TxtUnrecoverableError(
-                        ex, props,
+                        ex, this.props,
                         String.format(
                             // @checkstyle LineLength (1 line)
                             "CID: [%d](https://www.0crat.com/%s/%1$d), Type: \"%s\", Author: \"%s\"",
@@ -157,6 +170,37 @@ public final class StkSafe implements Stakeholder {
         }
     }
 
+    /**
+     * Process the claim, and again, if it loses a deadlock.
+     *
+     * <p>When it loses, all files it acquired are released, since the
+     * exception goes through all of them, and the stakeholder that holds
+     * the file it waited for can continue.</p>
+     *
+     * @param project The project
+     * @param claim The claim
+     * @throws IOException If fails
+     */
+    private void attempt(final Project project, final ClaimIn claim)
+        throws IOException {
+        boolean done = false;
+        for (int attempt = 1; !done; ++attempt) {
+            try (final ClaimsBatch batch = new ClaimsBatch()) {
+                this.origin.process(project, claim.xml());
+                done = true;
+            } catch (final DeadlockException ex) {
+                if (attempt >= StkSafe.ATTEMPTS) {
+                    throw ex;
+                }
+                Logger.warn(
+                    this, "Claim #%d in %s by %s, attempt #%d: %s",
+                    claim.cid(), project.pid(), this.identifier,
+                    attempt, ex.getMessage()
+                );
+            }
+        }
+    }
+
     /**
      * Stacktrace for error.
      * @param exception Error
@@ -17,99 +17,85 @@
 package com.zerocracy.farm.footprint;
 
 import com.jcabi.xml.XML;
-import com.jcabi.xml.XMLDocument;
 import com.zerocracy.Farm;
-import com.zerocracy.Item;
 import com.zerocracy.Project;
 import com.zerocracy.claims.Footprint;
-import java.io.FileNotFoundException;
+import com.zerocracy.farm.pipe.Hook;
+import com.zerocracy.farm.pipe.Pipe;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import lombok.EqualsAndHashCode;
-import org.cactoos.io.LengthOf;
-import org.cactoos.io.TeeInput;
 
 /**
- * Footprint item.
+ * Footprint hook, records changes of claims.
  *
  * @since 1.0
  */
-@EqualsAndHashCode(of = "origin")
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
-final class FtItem implements Item {
+final class FtHook implements Hook {
 
     /**
-     * Project.
+     * Empty claims.
      */
-    private final Project project;
+    private static final String EMPTY = "<claims/>";
 
     /**
-     * Original item.
+     * Project.
      */
-    private final Item origin;
+    private final Project project;
 
     /**
      * Farm.
      */
     private final Farm farm;
 
-    /**
-     * Path to content temp.
-     */
-    private final Path temp;
-
     /**
      * Ctor.
      * @param pkt Project
-     * @param item Original item
      * @param frm Farm
-     * @param path Content temp
-     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    FtItem(final Project pkt, final Item item,
-        final Farm frm, final Path path) {
+    FtHook(final Project pkt, final Farm frm) {
         this.project = pkt;
-        this.origin = item;
         this.farm = frm;
-        this.temp = path;
     }
 
     @Override
-    public String toString() {
-        return this.origin.toString();
+    public void closing(final Pipe pipe) throws IOException {
+        if (!pipe.dirty().isEmpty()) {
+            pipe.before(FtHook.EMPTY);
+            pipe.after(FtHook.EMPTY);
+        }
     }
 
     @Override
-    public Path path() throws IOException {
-        return this.origin.path();
+    public void closed(final Pipe pipe) throws IOException {
+        if (!pipe.dirty().isEmpty()) {
+            this.record(pipe.before(FtHook.EMPTY), pipe.after(FtHook.EMPTY));
+        }
     }
 
-    @Override
-    public void close() throws IOException {
-        final Path modified = Files.createTempFile("footprint", ".xml");
-        new LengthOf(new TeeInput(this.path(), modified)).intValue();
-        final XML after = FtItem.claims(modified);
-        this.origin.close();
-        final XML before = FtItem.claims(this.temp);
+    /**
+     * Record changes in claims to the footprint.
+     * @param before Claims before
+     * @param after Claims after
+     * @throws IOException If fails
+     */
+    private void record(final XML before, final XML after)
+        throws IOException {
         try (final Footprint footprint =
             new Footprint(this.farm, this.project)) {
             for (final XML claim : before.nodes("//claim[type!='Ping']")) {
-                if (!FtItem.exists(after, claim)) {
+                if (!FtHook.exists(after, claim)) {
                     footprint.close(claim);
                 }
             }
             for (final XML claim : after.nodes("//claim[type!='Ping' ]")) {
-                if (!FtItem.exists(before, claim)) {
-                    footprint.open(
+                if (!FtHook.exists(before, claim)) {
+                    footprint.record(
                         claim,
                         "testFT"
                     );
                 }
             }
         }
-        Files.delete(this.temp);
-        Files.delete(modified);
     }
 
     /**
@@ -126,20 +112,4 @@ final class FtItem implements Item {
         ).isEmpty();
     }
 
-    /**
-     * Load claims as XML document.
-     * @param path The path
-     * @return XML document
-     * @throws FileNotFoundException If fails
-     */
-    private static XML claims(final Path path) throws FileNotFoundException {
-        final XML xml;
-        if (path.toFile().length() > 0L) {
-            xml = new XMLDocument(path.toFile());
-        } else {
-            xml = new XMLDocument("<claims/>");
-        }
-        return xml;
-    }
-
 }
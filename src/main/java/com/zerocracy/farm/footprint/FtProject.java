@@ -19,12 +19,9 @@ package com.zerocracy.farm.footprint;
 import com.zerocracy.Farm;
 import com.zerocracy.Item;
 import com.zerocracy.Project;
+import com.zerocracy.farm.pipe.PipeItem;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import lombok.EqualsAndHashCode;
-import org.cactoos.io.LengthOf;
-import org.cactoos.io.TeeInput;
 
 /**
  * Footprint project.
@@ -64,14 +61,14 @@ final class FtProject implements Project {
     public Item acq(final String file) throws IOException {
         Item item = this.origin.acq(file);
         if ("claims.xml".equals(file)) {
-            final Path temp = Files.createTempFile("footprint", ".xml");
-            final Path before = item.path();
-            if (before.toFile().exists()) {
-                new LengthOf(new TeeInput(item.path(), temp)).intValue();
-            }
-            item = new FtItem(this, item, this.farm, temp);
+            item = new PipeItem(item, new FtHook(this, this.farm));
         }
         return item;
     }
 
+    @Override
+    public Item read(final String file) throws IOException {
+        return this.origin.read(file);
+    }
+
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.pipe;
+
+import java.io.IOException;
+
+/**
+ * Close hook of an item.
+ *
+ * <p>Hooks of an item are called in the order they were added to
+ * the {@link Pipe}, first {@link #closing(Pipe)} of all of them and then
+ * {@link #closed(Pipe)} of all of them. A hook that reads the file must
+ * ask for {@link Pipe#after(String)} in {@link #closing(Pipe)} and use it
+ * in {@link #closed(Pipe)}, where it is up to date no matter in which
+ * order the hooks were added.</p>
+ *
+ * @since 1.0
+ */
+public interface Hook {
+
+    /**
+     * The item is being closed, it is still acquired and the copy
+     * is not written to the original item yet.
+     *
+     * <p>The hook may modify the copy, if {@link Pipe#dirty()} is
+     * not empty, or throw to prevent the changes from being written.</p>
+     *
+     * @param pipe The pipe
+     * @throws IOException If fails
+     */
+    default void closing(final Pipe pipe) throws IOException {
+        // nothing by default
+    }
+
+    /**
+     * The item is closed and released.
+     * @param pipe The pipe
+     * @throws IOException If fails
+     */
+    default void closed(final Pipe pipe) throws IOException {
+        // nothing by default
+    }
+
+}
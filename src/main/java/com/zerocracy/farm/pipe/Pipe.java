@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.pipe;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.CowItem;
+import com.zerocracy.Item;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pipeline of an item, shared by all farms in the stack.
+ *
+ * <p>The file of the item is copied only once, on the first write,
+ * see {@link CowItem}, no matter how many farms are interested in it.
+ * Its content before the changes is parsed only once, when some
+ * {@link Hook} asks for it for the first time. Its content after the
+ * changes is parsed again only if the copy was changed since the last
+ * parsing. When the item is closed, all hooks are called one by one,
+ * see {@link Hook}.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public final class Pipe {
+
+    /**
+     * The item, copied on write.
+     */
+    private final CowItem cow;
+
+    /**
+     * Hooks.
+     */
+    private final List<Hook> hooks;
+
+    /**
+     * Changes found when closing, NULL until then.
+     */
+    private String changes;
+
+    /**
+     * Parsed original file, NULL until asked.
+     */
+    private XML origin;
+
+    /**
+     * Parsed current file, NULL until asked.
+     */
+    private XML current;
+
+    /**
+     * Content of the copy, when it was parsed to {@link #current}.
+     */
+    private byte[] parsed;
+
+    /**
+     * XML to use if the current file is empty.
+     */
+    private String blank;
+
+    /**
+     * Is it closed already?
+     */
+    private boolean over;
+
+    /**
+     * Ctor.
+     * @param item Original item
+     */
+    Pipe(final Item item) {
+        this.cow = new CowItem(item);
+        this.hooks = new CopyOnWriteArrayList<>();
+    }
+
+    @Override
+    public String toString() {
+        return this.cow.toString();
+    }
+
+    /**
+     * Add a hook.
+     * @param hook The hook
+     * @return This
+     */
+    public Pipe with(final Hook hook) {
+        this.hooks.add(hook);
+        return this;
+    }
+
+    /**
+     * The file to write to.
+     * @return Path of the copy, see {@link CowItem#path()}
+     * @throws IOException If fails
+     */
+    public Path writable() throws IOException {
+        return this.cow.path();
+    }
+
+    /**
+     * What was changed in the file, empty if nothing.
+     * @return Description of changes, see {@link CowItem#changes()}
+     */
+    public synchronized String dirty() {
+        if (this.changes == null) {
+            throw new IllegalStateException(
+                String.format("%s is not closing yet", this)
+            );
+        }
+        return this.changes;
+    }
+
+    /**
+     * The file as it was before all changes, parsed.
+     * @param empty XML to return if the file is empty
+     * @return XML
+     * @throws IOException If fails
+     */
+    public synchronized XML before(final String empty) throws IOException {
+        if (this.origin == null) {
+            this.origin = Pipe.parse(this.cow.original(), empty);
+        }
+        return this.origin;
+    }
+
+    /**
+     * The file with all changes, parsed.
+     *
+     * <p>Hooks that need it in {@link Hook#closed(Pipe)} must ask for
+     * it in {@link Hook#closing(Pipe)}: after all hooks are done with
+     * closing, it is parsed once again, if some of them changed the
+     * file, and then the copy is gone.</p>
+     *
+     * @param empty XML to return if the file is empty
+     * @return XML
+     * @throws IOException If fails
+     */
+    public synchronized XML after(final String empty) throws IOException {
+        if (this.over) {
+            if (this.current == null) {
+                throw new IllegalStateException(
+                    String.format(
+                        "%s was not parsed before it was closed", this
+                    )
+                );
+            }
+        } else if (this.cow.copied()) {
+            final byte[] bytes = Files.readAllBytes(this.cow.path());
+            if (this.current == null || !Arrays.equals(bytes, this.parsed)) {
+                this.current = Pipe.parse(bytes, empty);
+                this.parsed = bytes;
+            }
+        } else {
+            this.current = this.before(empty);
+        }
+        this.blank = empty;
+        return this.current;
+    }
+
+    /**
+     * Run all hooks, write changes and close the item.
+     * @throws IOException If fails
+     */
+    public void close() throws IOException {
+        try {
+            final String dirty = this.cow.changes();
+            synchronized (this) {
+                this.changes = dirty;
+            }
+            for (final Hook hook : this.hooks) {
+                hook.closing(this);
+            }
+            synchronized (this) {
+                if (this.current != null) {
+                    this.after(this.blank);
+                }
+            }
+            if (!dirty.isEmpty()) {
+                this.cow.commit();
+            }
+        } finally {
+            synchronized (this) {
+                this.over = true;
+            }
+            this.cow.close();
+        }
+        for (final Hook hook : this.hooks) {
+            hook.closed(this);
+        }
+    }
+
+    /**
+     * Parse the file.
+     * @param path The file
+     * @param empty XML to return if the file is empty
+     * @return XML document
+     * @throws IOException If fails
+     */
+    private static XML parse(final Path path, final String empty)
+        throws IOException {
+        final XML xml;
+        if (path.toFile().length() > 0L) {
+            xml = Pipe.parse(Files.readAllBytes(path), empty);
+        } else {
+            xml = new XMLDocument(empty);
+        }
+        return xml;
+    }
+
+    /**
+     * Parse the content.
+     * @param bytes Content of the file
+     * @param empty XML to return if it is empty
+     * @return XML document
+     */
+    private static XML parse(final byte[] bytes, final String empty) {
+        final XML xml;
+        if (bytes.length > 0) {
+            xml = new XMLDocument(new String(bytes, StandardCharsets.UTF_8));
+        } else {
+            xml = new XMLDocument(empty);
+        }
+        return xml;
+    }
+}
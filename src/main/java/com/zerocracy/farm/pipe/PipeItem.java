@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.pipe;
+
+import com.zerocracy.Item;
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Item with a close hook.
+ *
+ * <p>If the original item is a {@link PipeItem} too, which happens
+ * when a few farms on top of each other are interested in the same
+ * file, its {@link Pipe} is shared and the hook is added to it, instead
+ * of wrapping the item once again. This way, there is only one copy
+ * of the file and only one pipeline of hooks, no matter how many
+ * farms are in the stack. Only the outermost item is closed by its
+ * user, and it runs the hooks of all farms.</p>
+ *
+ * @since 1.0
+ */
+@EqualsAndHashCode(of = "pipe")
+public final class PipeItem implements Item {
+
+    /**
+     * The pipe.
+     */
+    private final Pipe pipe;
+
+    /**
+     * Ctor.
+     * @param item Original item
+     * @param hook Close hook to add
+     */
+    public PipeItem(final Item item, final Hook hook) {
+        this(PipeItem.pipe(item).with(hook));
+    }
+
+    /**
+     * Ctor.
+     * @param ppe The pipe
+     */
+    private PipeItem(final Pipe ppe) {
+        this.pipe = ppe;
+    }
+
+    @Override
+    public String toString() {
+        return this.pipe.toString();
+    }
+
+    @Override
+    public Path path() throws IOException {
+        return this.pipe.writable();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.pipe.close();
+    }
+
+    /**
+     * Pipe of the item, new or shared.
+     * @param item The item
+     * @return The pipe
+     */
+    private static Pipe pipe(final Item item) {
+        final Pipe pipe;
+        if (item instanceof PipeItem) {
+            pipe = ((PipeItem) item).pipe;
+        } else {
+            pipe = new Pipe(item);
+        }
+        return pipe;
+    }
+}
@@ -16,13 +16,13 @@
  */
 package com.zerocracy.farm.props;
 
-import com.jcabi.xml.XMLDocument;
 import com.zerocracy.Farm;
 import com.zerocracy.Item;
 import com.zerocracy.Project;
 import com.zerocracy.pmo.Pmo;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.cactoos.text.TextOf;
 
 /**
@@ -32,6 +32,11 @@ import org.cactoos.text.TextOf;
  * which specifies properties such as S3 credentials, Paypal or Stripe secrets
  * etc.</p>
  *
+ * <p>The file is read and parsed only once, when the first property is
+ * asked, and then all properties come from memory. If the project is from
+ * {@link PropsFarm}, the file is not even read, since the farm keeps
+ * the parsed one. Call {@link #reload()} to read it again.</p>
+ *
  * @since 1.0
  */
 public final class Props {
@@ -41,6 +46,11 @@ public final class Props {
      */
     private final Project project;
 
+    /**
+     * Snapshot, NULL until loaded.
+     */
+    private final AtomicReference<PropsSnapshot> snapshot;
+
     /**
      * Ctor.
      */
@@ -62,17 +72,36 @@ public final class Props {
      */
     public Props(final Project pkt) {
         this.project = pkt;
+        this.snapshot = new AtomicReference<>();
     }
 
     @Override
     public String toString() {
-        try (final Item item = this.item()) {
-            return new TextOf(item.path()).asString();
+        try {
+            return this.snap().toString();
         } catch (final IOException ex) {
             throw new IllegalStateException(ex);
         }
     }
 
+    /**
+     * Read them again.
+     * @return This
+     * @throws IOException If fails
+     */
+    public Props reload() throws IOException {
+        try (final Item item = this.item()) {
+            final PropsSnapshot snap;
+            if (item instanceof PropsItem) {
+                snap = PropsItem.class.cast(item).reload();
+            } else {
+                snap = new PropsSnapshot(new TextOf(item.path()).asString());
+            }
+            this.snapshot.set(snap);
+        }
+        return this;
+    }
+
     /**
      * Get one property.
      * @param xpath Xpath to use
@@ -119,11 +148,29 @@ public final class Props {
      * @throws IOException If fails
      */
     private List<String> values(final String xpath) throws IOException {
-        try (final Item item = this.item()) {
-            return new XMLDocument(item.path()).xpath(
-                String.format("%s/text()", xpath)
-            );
+        return this.snap().values(xpath);
+    }
+
+    /**
+     * Get snapshot, loading it if necessary.
+     * @return Snapshot
+     * @throws IOException If fails
+     */
+    private PropsSnapshot snap() throws IOException {
+        PropsSnapshot snap = this.snapshot.get();
+        if (snap == null) {
+            try (final Item item = this.item()) {
+                if (item instanceof PropsItem) {
+                    snap = PropsItem.class.cast(item).snapshot();
+                } else {
+                    snap = new PropsSnapshot(
+                        new TextOf(item.path()).asString()
+                    );
+                }
+            }
+            this.snapshot.set(snap);
         }
+        return snap;
     }
 
     /**
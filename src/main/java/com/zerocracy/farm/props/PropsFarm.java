@@ -21,6 +21,7 @@ import com.zerocracy.Project;
 import com.zerocracy.farm.fake.FkFarm;
 import com.zerocracy.farm.guts.Guts;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.EqualsAndHashCode;
 import org.cactoos.iterable.Mapped;
 import org.xembly.Directive;
@@ -33,6 +34,9 @@ import org.xembly.Directives;
  * have their {@code _props.xml} file loaded and accessible, by using the Props
  * class.</p>
  *
+ * <p>The file is made and parsed only once, see {@link PropsSnapshot},
+ * until {@link #reload()} is called.</p>
+ *
  * @since 1.0
  */
 @EqualsAndHashCode(of = "origin")
@@ -48,6 +52,11 @@ public final class PropsFarm implements Farm {
      */
     private final Iterable<Directive> post;
 
+    /**
+     * Snapshot of props, NULL until they are needed.
+     */
+    private final AtomicReference<PropsSnapshot> current;
+
     /**
      * Ctor.
      */
@@ -79,6 +88,7 @@ public final class PropsFarm implements Farm {
     public PropsFarm(final Farm farm, final Iterable<Directive> dirs) {
         this.origin = farm;
         this.post = dirs;
+        this.current = new AtomicReference<>();
     }
 
     @Override
@@ -86,7 +96,7 @@ public final class PropsFarm implements Farm {
         return new Guts(
             this.origin,
             () -> new Mapped<>(
-                pkt -> new PropsProject(pkt, this.post),
+                pkt -> new PropsProject(pkt, this),
                 this.origin.find(query)
             ),
             () -> new Directives()
@@ -97,8 +107,31 @@ public final class PropsFarm implements Farm {
         ).apply(query);
     }
 
+    /**
+     * Make props again, for example if post processing dirs
+     * were changed.
+     * @throws IOException If fails
+     */
+    public void reload() throws IOException {
+        this.current.set(new PropsSnapshot(this.post));
+    }
+
     @Override
     public void close() throws IOException {
         this.origin.close();
     }
+
+    /**
+     * Snapshot of props.
+     * @return Snapshot
+     * @throws IOException If fails
+     */
+    PropsSnapshot snapshot() throws IOException {
+        PropsSnapshot snap = this.current.get();
+        if (snap == null) {
+            this.current.compareAndSet(null, new PropsSnapshot(this.post));
+            snap = this.current.get();
+        }
+        return snap;
+    }
 }
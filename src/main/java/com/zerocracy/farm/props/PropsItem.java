@@ -16,56 +16,42 @@
  */
 package com.zerocracy.farm.props;
 
-import com.jcabi.xml.XMLDocument;
 import com.zerocracy.Item;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import lombok.EqualsAndHashCode;
-import org.cactoos.io.LengthOf;
-import org.cactoos.io.ResourceOf;
-import org.cactoos.io.TeeInput;
-import org.cactoos.text.TextOf;
-import org.xembly.Directive;
-import org.xembly.Directives;
-import org.xembly.Xembler;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Props item.
  *
- * <p>This Item represents the {@code _props.xml} file in a PMO project.</p>
+ * <p>This Item represents the {@code _props.xml} file in a PMO project.
+ * The file is made from the snapshot of the farm, see
+ * {@link PropsFarm#snapshot()}, only if somebody asks for its path.
+ * {@link Props} takes the snapshot right from the item.</p>
  *
  * @since 1.0
  */
-@EqualsAndHashCode(of = "temp")
 final class PropsItem implements Item {
 
     /**
-     * Temp file.
+     * The farm.
      */
-    private final Path temp;
+    private final PropsFarm farm;
 
     /**
-     * Post processing.
+     * Temp file, if it was created.
      */
-    private final Iterable<Directive> post;
+    private final AtomicReference<Path> temp;
 
     /**
      * Ctor.
-     * @param tmp Temp file
+     * @param frm The farm
      */
-    PropsItem(final Path tmp) {
-        this(tmp, new Directives());
-    }
-
-    /**
-     * Ctor.
-     * @param tmp Temp file
-     * @param dirs Post processing dirs
-     */
-    PropsItem(final Path tmp, final Iterable<Directive> dirs) {
-        this.temp = tmp;
-        this.post = dirs;
+    PropsItem(final PropsFarm frm) {
+        this.farm = frm;
+        this.temp = new AtomicReference<>();
     }
 
     @Override
@@ -75,31 +61,44 @@ final class PropsItem implements Item {
 
     @Override
     public Path path() throws IOException {
-        final Directives dirs = new Directives();
-        if (this.getClass().getResource("/org/junit/Test.class") != null) {
-            dirs.xpath("/props").add("testing").set("yes");
+        synchronized (this.temp) {
+            if (this.temp.get() == null) {
+                final Path tmp = Files.createTempFile("props", ".xml");
+                Files.write(
+                    tmp,
+                    this.snapshot().toString().getBytes(StandardCharsets.UTF_8)
+                );
+                this.temp.set(tmp);
+            }
+            return this.temp.get();
         }
-        dirs.append(this.post);
-        new LengthOf(
-            new TeeInput(
-                new XMLDocument(
-                    new Xembler(dirs).applyQuietly(
-                        new XMLDocument(
-                            new TextOf(
-                                new ResourceOf("com/zerocracy/_props.xml")
-                            ).asString()
-                        ).node()
-                    )
-                ).toString(),
-                this.temp
-            )
-        ).intValue();
-        return this.temp;
     }
 
     @Override
     public void close() throws IOException {
-        Files.delete(this.temp);
+        final Path tmp = this.temp.getAndSet(null);
+        if (tmp != null) {
+            Files.delete(tmp);
+        }
+    }
+
+    /**
+     * Snapshot of the farm.
+     * @return Snapshot
+     * @throws IOException If fails
+     */
+    public PropsSnapshot snapshot() throws IOException {
+        return this.farm.snapshot();
+    }
+
+    /**
+     * Make a new snapshot in the farm.
+     * @return Snapshot
+     * @throws IOException If fails
+     */
+    public PropsSnapshot reload() throws IOException {
+        this.farm.reload();
+        return this.farm.snapshot();
     }
 
 }
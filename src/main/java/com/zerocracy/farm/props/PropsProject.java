@@ -19,10 +19,7 @@ package com.zerocracy.farm.props;
 import com.zerocracy.Item;
 import com.zerocracy.Project;
 import java.io.IOException;
-import java.nio.file.Files;
 import lombok.EqualsAndHashCode;
-import org.xembly.Directive;
-import org.xembly.Directives;
 
 /**
  * Props project.
@@ -41,26 +38,18 @@ final class PropsProject implements Project {
     private final Project origin;
 
     /**
-     * Post processing.
+     * The farm, with the snapshot of props.
      */
-    private final Iterable<Directive> post;
+    private final PropsFarm farm;
 
     /**
      * Ctor.
      * @param pkt Project
+     * @param frm The farm
      */
-    PropsProject(final Project pkt) {
-        this(pkt, new Directives());
-    }
-
-    /**
-     * Ctor.
-     * @param pkt Project
-     * @param dirs Post processing dirs
-     */
-    PropsProject(final Project pkt, final Iterable<Directive> dirs) {
+    PropsProject(final Project pkt, final PropsFarm frm) {
         this.origin = pkt;
-        this.post = dirs;
+        this.farm = frm;
     }
 
     @Override
@@ -72,13 +61,22 @@ final class PropsProject implements Project {
     public Item acq(final String file) throws IOException {
         final Item item;
         if ("_props.xml".equals(file)) {
-            item = new PropsItem(
-                Files.createTempFile("props", ".xml"), this.post
-            );
+            item = new PropsItem(this.farm);
         } else {
             item = this.origin.acq(file);
         }
         return item;
     }
 
+    @Override
+    public Item read(final String file) throws IOException {
+        final Item item;
+        if ("_props.xml".equals(file)) {
+            item = this.acq(file);
+        } else {
+            item = this.origin.read(file);
+        }
+        return item;
+    }
+
 }
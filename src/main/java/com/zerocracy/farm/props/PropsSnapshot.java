@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.props;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.cactoos.io.ResourceOf;
+import org.cactoos.text.TextOf;
+import org.xembly.Directive;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Parsed {@code _props.xml}, which never changes.
+ *
+ * <p>Values are found by XPath only once, the next time the same
+ * XPath is asked, the value comes from memory.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+final class PropsSnapshot {
+
+    /**
+     * The document.
+     */
+    private final XML xml;
+
+    /**
+     * Its text.
+     */
+    private final String text;
+
+    /**
+     * Values found, by XPath.
+     */
+    private final Map<String, List<String>> values;
+
+    /**
+     * Ctor.
+     * @param dirs Post processing dirs
+     * @throws IOException If fails
+     */
+    PropsSnapshot(final Iterable<Directive> dirs) throws IOException {
+        this(PropsSnapshot.render(dirs));
+    }
+
+    /**
+     * Ctor.
+     * @param txt Text of {@code _props.xml}
+     */
+    PropsSnapshot(final String txt) {
+        this.xml = new XMLDocument(txt);
+        this.text = this.xml.toString();
+        this.values = new ConcurrentHashMap<>(0);
+    }
+
+    @Override
+    public String toString() {
+        return this.text;
+    }
+
+    /**
+     * All values of a property.
+     * @param xpath Xpath of the property
+     * @return Texts
+     */
+    public List<String> values(final String xpath) {
+        return this.values.computeIfAbsent(
+            xpath,
+            path -> Collections.unmodifiableList(
+                this.xml.xpath(String.format("%s/text()", path))
+            )
+        );
+    }
+
+    /**
+     * Make {@code _props.xml} from the resource.
+     * @param post Post processing dirs
+     * @return Text of it
+     * @throws IOException If fails
+     */
+    private static String render(final Iterable<Directive> post)
+        throws IOException {
+        final Directives dirs = new Directives();
+        if (PropsSnapshot.class.getResource("/org/junit/Test.class") != null) {
+            dirs.xpath("/props").add("testing").set("yes");
+        }
+        dirs.append(post);
+        return new XMLDocument(
+            new Xembler(dirs).applyQuietly(
+                new XMLDocument(
+                    new TextOf(
+                        new ResourceOf("com/zerocracy/_props.xml")
+                    ).asString()
+                ).node()
+            )
+        ).toString();
+    }
+}
@@ -19,25 +19,32 @@ package com.zerocracy.farm.reactive;
 import com.jcabi.xml.XML;
 import com.zerocracy.Project;
 import com.zerocracy.Stakeholder;
+import com.zerocracy.claims.ClaimIn;
 import com.zerocracy.farm.MismatchException;
 import java.io.IOException;
 import org.cactoos.BiFunc;
+import org.cactoos.Scalar;
 import org.cactoos.iterable.Filtered;
 import org.cactoos.iterable.IterableOf;
 import org.cactoos.iterable.LengthOf;
-import org.cactoos.iterable.Mapped;
-import org.cactoos.list.SolidList;
+import org.xembly.Directive;
 
 /**
  * Brigade of stakeholders.
+ *
+ * <p>Only the stakeholders that may accept the type of the claim
+ * are invoked, see {@link Dispatch}. The claim is parsed only once
+ * and all of them get the same parsed XML, see {@link ClaimIn#xml()}.</p>
+ *
  * @since 1.0
  */
-public final class Brigade implements BiFunc<Project, XML, Integer> {
+public final class Brigade implements BiFunc<Project, XML, Integer>,
+    Scalar<Iterable<Directive>> {
 
     /**
      * Stakeholders.
      */
-    private final Iterable<Stakeholder> pool;
+    private final Dispatch pool;
 
     /**
      * Ctor.
@@ -52,19 +59,25 @@ public final class Brigade implements BiFunc<Project, XML, Integer> {
      * @param list List of stakeholders
      */
     public Brigade(final Iterable<Stakeholder> list) {
-        this.pool = new SolidList<>(new Mapped<>(StkSmart::new, list));
+        this.pool = new Dispatch(list);
     }
 
     @Override
     public Integer apply(final Project project, final XML xml) {
+        final ClaimIn claim = new ClaimIn(xml);
         return new LengthOf(
             new Filtered<>(
-                stk -> Brigade.process(stk, project, xml),
-                this.pool
+                stk -> Brigade.process(stk, project, claim.xml()),
+                this.pool.apply(claim.type())
             )
         ).intValue();
     }
 
+    @Override
+    public Iterable<Directive> value() {
+        return this.pool.value();
+    }
+
     /**
      * Process this claim.
      * @param stk Stakeholder
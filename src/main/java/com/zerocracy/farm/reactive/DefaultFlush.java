@@ -24,13 +24,12 @@ import com.zerocracy.claims.ClaimsXml;
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
-import org.cactoos.BiFunc;
+import org.cactoos.Scalar;
 import org.cactoos.func.IoCheckedBiFunc;
 import org.cactoos.iterable.Mapped;
 import org.cactoos.text.JoinedText;
 import org.cactoos.text.SubText;
 import org.xembly.Directive;
-import org.xembly.Directives;
 
 /**
  * The action that happens in the {@link DefaultFlush}.
@@ -50,12 +49,18 @@ final class DefaultFlush implements Flush {
      */
     private final IoCheckedBiFunc<Project, XML, Integer> brigade;
 
+    /**
+     * Guts of the brigade.
+     */
+    private final Scalar<Iterable<Directive>> guts;
+
     /**
      * Ctor.
      * @param bgd Brigade
      */
-    DefaultFlush(final BiFunc<Project, XML, Integer> bgd) {
+    DefaultFlush(final Brigade bgd) {
         this.brigade = new IoCheckedBiFunc<>(bgd);
+        this.guts = bgd;
     }
 
     @Override
@@ -74,8 +79,8 @@ final class DefaultFlush implements Flush {
     }
 
     @Override
-    public Iterable<Directive> value() {
-        return new Directives();
+    public Iterable<Directive> value() throws Exception {
+        return this.guts.value();
     }
 
     /**
@@ -95,7 +100,7 @@ final class DefaultFlush implements Flush {
             "Processing #%d:\"%s/%d\" at \"%s\"",
             idx.incrementAndGet(), claim.type(), claim.cid(), project.pid()
         );
-        final int total = this.brigade.apply(project, xml);
+        final int total = this.brigade.apply(project, claim.xml());
         if (total == 0 && claim.hasToken()) {
             throw new IllegalStateException(
                 String.format(
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.reactive;
+
+import com.jcabi.xml.XML;
+import com.zerocracy.Project;
+import com.zerocracy.Stakeholder;
+import com.zerocracy.farm.MismatchException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.cactoos.Func;
+import org.cactoos.Scalar;
+import org.cactoos.list.SolidList;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Dispatch table of stakeholders, by claim type.
+ *
+ * <p>Most stakeholders start with {@code Assume.type(...)} and reject
+ * all other claims with a {@link MismatchException}. The first time
+ * a stakeholder rejects a claim this way, the exception tells us the full
+ * list of types it accepts, and from that moment on the stakeholder
+ * is not invoked for any other type. Stakeholders we know nothing about
+ * yet stay in the wildcard bucket and are invoked for every claim.</p>
+ *
+ * @since 1.0
+ */
+final class Dispatch implements Func<String, Iterable<Stakeholder>>,
+    Scalar<Iterable<Directive>> {
+
+    /**
+     * All stakeholders.
+     */
+    private final List<Stakeholder> pool;
+
+    /**
+     * Accepted types of stakeholders, by their position in the pool.
+     */
+    private final Map<Integer, Set<String>> types;
+
+    /**
+     * Stakeholders by claim type.
+     */
+    private final Map<String, List<Stakeholder>> table;
+
+    /**
+     * How many invocations were skipped.
+     */
+    private final AtomicLong skipped;
+
+    /**
+     * Ctor.
+     * @param list List of stakeholders
+     */
+    Dispatch(final Iterable<Stakeholder> list) {
+        this.types = new ConcurrentHashMap<>(0);
+        this.table = new ConcurrentHashMap<>(0);
+        this.skipped = new AtomicLong();
+        final List<Stakeholder> stks = new LinkedList<>();
+        for (final Stakeholder stk : list) {
+            stks.add(
+                new StkSmart(
+                    new Dispatch.Typed(
+                        stk, stks.size(), this.types, this.table
+                    )
+                )
+            );
+        }
+        this.pool = new SolidList<>(stks);
+    }
+
+    @Override
+    public Iterable<Stakeholder> apply(final String type) {
+        final List<Stakeholder> list = this.table.computeIfAbsent(
+            type.toLowerCase(Locale.ENGLISH), this::select
+        );
+        this.skipped.addAndGet((long) (this.pool.size() - list.size()));
+        return list;
+    }
+
+    @Override
+    public Iterable<Directive> value() {
+        return new Directives()
+            .add("dispatch")
+            .attr("stakeholders", this.pool.size())
+            .attr("indexed", this.types.size())
+            .attr("wildcard", this.pool.size() - this.types.size())
+            .attr("skipped", this.skipped.get())
+            .up();
+    }
+
+    /**
+     * Select stakeholders that may accept this type.
+     * @param type Lower-cased claim type
+     * @return Stakeholders
+     */
+    private List<Stakeholder> select(final String type) {
+        final List<Stakeholder> list = new LinkedList<>();
+        for (int idx = 0; idx < this.pool.size(); ++idx) {
+            final Set<String> accepted = this.types.get(idx);
+            if (accepted == null || accepted.contains(type)) {
+                list.add(this.pool.get(idx));
+            }
+        }
+        return new SolidList<>(list);
+    }
+
+    /**
+     * Stakeholder that reports the types it accepts.
+     */
+    private static final class Typed implements Stakeholder {
+
+        /**
+         * The original one.
+         */
+        private final Stakeholder origin;
+
+        /**
+         * Position in the pool.
+         */
+        private final int position;
+
+        /**
+         * Accepted types, by position.
+         */
+        private final Map<Integer, Set<String>> types;
+
+        /**
+         * Table to invalidate once types are learned.
+         */
+        private final Map<String, List<Stakeholder>> table;
+
+        /**
+         * Ctor.
+         * @param stk Original
+         * @param pos Position in the pool
+         * @param tps Accepted types
+         * @param tbl Dispatch table
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Typed(final Stakeholder stk, final int pos,
+            final Map<Integer, Set<String>> tps,
+            final Map<String, List<Stakeholder>> tbl) {
+            this.origin = stk;
+            this.position = pos;
+            this.types = tps;
+            this.table = tbl;
+        }
+
+        @Override
+        public void process(final Project project, final XML xml)
+            throws IOException {
+            try {
+                this.origin.process(project, xml);
+            } catch (final MismatchException ex) {
+                final Collection<String> expected = ex.types();
+                if (!expected.isEmpty() && this.types.putIfAbsent(
+                    this.position, new HashSet<>(expected)
+                ) == null) {
+                    this.table.clear();
+                }
+                throw ex;
+            }
+        }
+    }
+}
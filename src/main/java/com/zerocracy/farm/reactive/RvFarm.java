@@ -61,6 +61,11 @@ public final class RvFarm implements Farm {
      */
     private final UncheckedScalar<ExecutorService> routine;
 
+    /**
+     * Props of the farm.
+     */
+    private final Props props;
+
     /**
      * Ctor.
      * @param farm Original farm
@@ -105,6 +110,7 @@ public final class RvFarm implements Farm {
     public RvFarm(final Farm farm, final Flush flsh) {
         this.origin = farm;
         this.flush = flsh;
+        this.props = new Props(farm);
         this.routine = new UncheckedScalar<>(
             new SolidScalar<>(
                 () -> {
@@ -139,7 +145,7 @@ public final class RvFarm implements Farm {
             () -> new Mapped<>(
                 pkt -> new RvProject(
                     pkt, this.flush,
-                    new Props(this.origin).has("//testing")
+                    this.props.has("//testing")
                 ),
                 this.origin.find(query)
             ),
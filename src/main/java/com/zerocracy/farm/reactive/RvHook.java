@@ -16,31 +16,34 @@
  */
 package com.zerocracy.farm.reactive;
 
-import com.zerocracy.Item;
-import com.zerocracy.Xocument;
+import com.zerocracy.Project;
+import com.zerocracy.farm.pipe.Hook;
+import com.zerocracy.farm.pipe.Pipe;
 import java.io.IOException;
-import java.nio.file.Path;
-import lombok.EqualsAndHashCode;
 import org.cactoos.Proc;
 import org.cactoos.func.IoCheckedProc;
 
 /**
- * Reactive claims item.
+ * Reactive hook of claims, flushes them when they are closed.
  *
  * @since 1.0
  */
-@EqualsAndHashCode(of = "origin")
-final class RvClaims implements Item {
+final class RvHook implements Hook {
 
     /**
-     * Original item.
+     * Empty claims.
      */
-    private final Item origin;
+    private static final String EMPTY = "<claims/>";
+
+    /**
+     * Project.
+     */
+    private final Project project;
 
     /**
      * The flush.
      */
-    private final Proc<Item> flush;
+    private final Proc<Project> flush;
 
     /**
      * Testing.
@@ -49,34 +52,26 @@ final class RvClaims implements Item {
 
     /**
      * Ctor.
-     * @param item Original item
+     * @param pkt Project
      * @param tgr Trigger
      * @param tst Testing
      */
-    RvClaims(final Item item, final Proc<Item> tgr, final boolean tst) {
-        this.origin = item;
+    RvHook(final Project pkt, final Proc<Project> tgr, final boolean tst) {
+        this.project = pkt;
         this.flush = tgr;
         this.testing = tst;
     }
 
     @Override
-    public String toString() {
-        return this.origin.toString();
-    }
-
-    @Override
-    public Path path() throws IOException {
-        return this.origin.path();
+    public void closing(final Pipe pipe) throws IOException {
+        pipe.after(RvHook.EMPTY);
     }
 
     @Override
-    public void close() throws IOException {
-        final int total = new Xocument(this.path())
-            .bootstrap("pm/claims")
-            .nodes("/claims/claim").size();
-        this.origin.close();
-        if (total > 0 || !this.testing) {
-            new IoCheckedProc<>(this.flush).exec(this);
+    public void closed(final Pipe pipe) throws IOException {
+        if (!this.testing
+            || !pipe.after(RvHook.EMPTY).nodes("/claims/claim").isEmpty()) {
+            new IoCheckedProc<>(this.flush).exec(this.project);
         }
     }
 
@@ -18,6 +18,7 @@ package com.zerocracy.farm.reactive;
 
 import com.zerocracy.Item;
 import com.zerocracy.Project;
+import com.zerocracy.farm.pipe.PipeItem;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import org.cactoos.Proc;
@@ -67,10 +68,8 @@ final class RvProject implements Project {
     public Item acq(final String file) throws IOException {
         Item item = this.origin.acq(file);
         if ("claims.xml".equals(file)) {
-            item = new RvClaims(
-                item,
-                item1 -> this.flush.exec(this),
-                this.testing
+            item = new PipeItem(
+                item, new RvHook(this, this.flush, this.testing)
             );
         }
         return item;
@@ -22,6 +22,7 @@ import com.zerocracy.Project;
 import com.zerocracy.SoftException;
 import com.zerocracy.Stakeholder;
 import com.zerocracy.farm.MismatchException;
+import com.zerocracy.farm.sync.DeadlockException;
 import groovy.lang.Binding;
 import groovy.lang.Script;
 import java.io.IOException;
@@ -72,6 +73,9 @@ public final class StkRuntime implements Stakeholder {
             if (ex.getCause() instanceof SoftException) {
                 throw SoftException.class.cast(ex.getCause());
             }
+            if (ex.getCause() instanceof DeadlockException) {
+                throw DeadlockException.class.cast(ex.getCause());
+            }
             throw new IllegalStateException(
                 String.format(
                     "%s in %s",
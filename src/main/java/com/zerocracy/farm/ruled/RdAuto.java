@@ -19,26 +19,16 @@ package com.zerocracy.farm.ruled;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
-import com.jcabi.xml.XSLDocument;
 import com.zerocracy.Item;
 import com.zerocracy.Project;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import org.apache.commons.lang3.StringUtils;
-import org.cactoos.Func;
-import org.cactoos.Input;
-import org.cactoos.cache.SoftFunc;
-import org.cactoos.func.SyncFunc;
-import org.cactoos.func.UncheckedFunc;
-import org.cactoos.io.InputOf;
 import org.cactoos.io.LengthOf;
-import org.cactoos.io.StickyInput;
-import org.cactoos.io.SyncInput;
 import org.cactoos.io.TeeInput;
 import org.cactoos.scalar.And;
 import org.cactoos.scalar.UncheckedScalar;
-import org.cactoos.text.TextOf;
 
 /**
  * Auto updater of XML documents.
@@ -48,19 +38,6 @@ import org.cactoos.text.TextOf;
  */
 final class RdAuto {
 
-    /**
-     * Cache of documents.
-     */
-    private static final UncheckedFunc<URI, Input> CACHE = new UncheckedFunc<>(
-        new SyncFunc<>(
-            new SoftFunc<>(
-                (Func<URI, Input>) uri -> new SyncInput(
-                    new StickyInput(new InputOf(uri))
-                )
-            )
-        )
-    );
-
     /**
      * Original project.
      */
@@ -126,12 +103,9 @@ final class RdAuto {
             if (item.path().toFile().exists()
                 && item.path().toFile().length() > 0L) {
                 final XML xml = new XMLDocument(item.path().toFile());
-                final XML after = new XSLDocument(
-                    new TextOf(
-                        RdAuto.CACHE.apply(URI.create(xsl))
-                    ).asString(),
-                    new RdSources(this.project)
-                ).transform(xml);
+                final XML after = new RdTemplates(xsl).transform(
+                    xml, new RdSources(this.project)
+                );
                 if (!xml.equals(after)) {
                     new LengthOf(
                         new TeeInput(
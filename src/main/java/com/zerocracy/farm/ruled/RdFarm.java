@@ -18,9 +18,11 @@ package com.zerocracy.farm.ruled;
 
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
+import com.zerocracy.farm.guts.Guts;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import org.cactoos.iterable.Mapped;
+import org.xembly.Directives;
 
 /**
  * Ruled farm (auto-updates XMLs and checks for their consistency).
@@ -35,20 +37,35 @@ public final class RdFarm implements Farm {
      */
     private final Farm origin;
 
+    /**
+     * Counters of rules.
+     */
+    private final RdRuns runs;
+
     /**
      * Ctor.
      * @param farm Original farm
      */
     public RdFarm(final Farm farm) {
         this.origin = farm;
+        this.runs = new RdRuns();
     }
 
     @Override
     public Iterable<Project> find(final String query) throws IOException {
-        return new Mapped<>(
-            RdProject::new,
-            this.origin.find(query)
-        );
+        return new Guts(
+            this.origin,
+            () -> new Mapped<>(
+                pkt -> new RdProject(pkt, this.runs),
+                this.origin.find(query)
+            ),
+            () -> new Directives()
+                .xpath("/guts")
+                .add("farm")
+                .attr("id", this.getClass().getSimpleName())
+                .append(this.runs.guts())
+                .up()
+        ).apply(query);
     }
 
     @Override
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.ruled;
+
+import com.zerocracy.Item;
+import com.zerocracy.Project;
+import com.zerocracy.farm.fake.FkItem;
+import com.zerocracy.farm.pipe.Hook;
+import com.zerocracy.farm.pipe.Pipe;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+
+/**
+ * Ruled hook, propagates changes and validates them by the rules.
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class RdHook implements Hook {
+
+    /**
+     * Project.
+     */
+    private final Project project;
+
+    /**
+     * Name.
+     */
+    private final String name;
+
+    /**
+     * Counters of rules.
+     */
+    private final RdRuns runs;
+
+    /**
+     * Ctor.
+     * @param pkt Project
+     * @param label Name of the item
+     * @param counters Counters of rules
+     */
+    RdHook(final Project pkt, final String label, final RdRuns counters) {
+        this.project = pkt;
+        this.name = label;
+        this.runs = counters;
+    }
+
+    @Override
+    public void closing(final Pipe pipe) throws IOException {
+        final String dirty = pipe.dirty();
+        if (!dirty.isEmpty()) {
+            final Path tmp = pipe.writable();
+            final Project proxy = new RdHook.Proxy(
+                this.project, this.name, tmp
+            );
+            if (!"PMO".equals(this.project.pid())
+                || !"roles.xml".equals(this.name)) {
+                new RdAuto(proxy, tmp, dirty).propagate();
+                new RdRules(
+                    proxy, tmp, Collections.singleton(this.name),
+                    dirty, this.runs
+                ).validate();
+            }
+        }
+    }
+
+    /**
+     * Project that gives the modified temp file instead of the item.
+     */
+    private static final class Proxy implements Project {
+        /**
+         * Origin project.
+         */
+        private final Project origin;
+        /**
+         * Name of the item.
+         */
+        private final String name;
+        /**
+         * Temp file.
+         */
+        private final Path temp;
+        /**
+         * Ctor.
+         * @param pkt Origin project
+         * @param label Name of the item
+         * @param tmp Temp file
+         */
+        Proxy(final Project pkt, final String label, final Path tmp) {
+            this.origin = pkt;
+            this.name = label;
+            this.temp = tmp;
+        }
+        @Override
+        public String pid() throws IOException {
+            return this.origin.pid();
+        }
+        @Override
+        public Item acq(final String file) throws IOException {
+            final Item item;
+            if (this.name.equals(file)) {
+                item = new FkItem(this.temp);
+            } else {
+                item = this.origin.acq(file);
+            }
+            return item;
+        }
+        @Override
+        public Item read(final String file) throws IOException {
+            final Item item;
+            if (this.name.equals(file)) {
+                item = new FkItem(this.temp);
+            } else {
+                item = this.origin.read(file);
+            }
+            return item;
+        }
+    }
+}
@@ -16,17 +16,16 @@
  */
 package com.zerocracy.farm.ruled;
 
+import com.jcabi.log.Logger;
 import com.jcabi.xml.XMLDocument;
+import com.zerocracy.Datum;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import org.cactoos.Input;
-import org.cactoos.cache.SoftFunc;
-import org.cactoos.func.SyncFunc;
+import java.util.Collections;
+import java.util.List;
+import org.cactoos.func.SolidFunc;
 import org.cactoos.func.UncheckedFunc;
-import org.cactoos.io.InputOf;
-import org.cactoos.io.InputWithFallback;
-import org.cactoos.io.StickyInput;
-import org.cactoos.io.SyncInput;
 import org.cactoos.text.TextOf;
 
 /**
@@ -38,17 +37,18 @@ import org.cactoos.text.TextOf;
 final class RdIndex {
 
     /**
-     * Cache of documents.
+     * Entries of indexes, which never change, since DATUM is bundled.
      */
-    private static final UncheckedFunc<URI, Input> CACHE = new UncheckedFunc<>(
-        new SyncFunc<>(
-            new SoftFunc<>(
-                path -> new SyncInput(
-                    new StickyInput(new InputOf(path))
-                )
+    private static final UncheckedFunc<URI, List<String>> CACHE =
+        new UncheckedFunc<>(
+            new SolidFunc<>(
+                path -> new XMLDocument(
+                    new TextOf(
+                        new Datum(String.format("%s/index.xml", path))
+                    ).asString()
+                ).xpath("/index/entry[@dir='false']/@uri")
             )
-        )
-    );
+        );
 
     /**
      * The URI.
@@ -69,20 +69,16 @@ final class RdIndex {
      * @throws IOException If fails
      */
     public Iterable<String> iterate() throws IOException {
-        return new XMLDocument(
-            new TextOf(
-                new InputWithFallback(
-                    RdIndex.CACHE.apply(
-                        URI.create(
-                            String.format(
-                                "http://datum.zerocracy.com%s/index.xml",
-                                this.uri
-                            )
-                        )
-                    ),
-                    new InputOf("<index/>")
-                )
-            ).asString()
-        ).xpath("/index/entry[@dir='false']/@uri");
+        List<String> list;
+        try {
+            list = RdIndex.CACHE.apply(this.uri);
+        } catch (final UncheckedIOException ex) {
+            Logger.debug(
+                this, "Index %s is not available: %s",
+                this.uri, ex.getLocalizedMessage()
+            );
+            list = Collections.emptyList();
+        }
+        return list;
     }
 }
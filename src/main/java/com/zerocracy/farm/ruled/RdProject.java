@@ -18,6 +18,7 @@ package com.zerocracy.farm.ruled;
 
 import com.zerocracy.Item;
 import com.zerocracy.Project;
+import com.zerocracy.farm.pipe.PipeItem;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 
@@ -34,12 +35,19 @@ final class RdProject implements Project {
      */
     private final Project origin;
 
+    /**
+     * Counters of rules.
+     */
+    private final RdRuns runs;
+
     /**
      * Ctor.
      * @param pkt Project
+     * @param counters Counters of rules
      */
-    RdProject(final Project pkt) {
+    RdProject(final Project pkt, final RdRuns counters) {
         this.origin = pkt;
+        this.runs = counters;
     }
 
     @Override
@@ -53,9 +61,16 @@ final class RdProject implements Project {
         if (!"claims.xml".equals(file)
             && file.charAt(0) != '_'
             && file.endsWith(".xml")) {
-            item = new RdItem(this, item, file);
+            item = new PipeItem(
+                item, new RdHook(this, file, this.runs)
+            );
         }
         return item;
     }
 
+    @Override
+    public Item read(final String file) throws IOException {
+        return this.origin.read(file);
+    }
+
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.ruled;
+
+import com.zerocracy.Datum;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.cactoos.text.TextOf;
+
+/**
+ * Documents a rule reads.
+ *
+ * <p>Rules read project documents through {@code document()}
+ * calls, like {@code document('wbs.xml')}. If all of them have
+ * literal file names, we know what the rule depends on and don't need
+ * to run it when some other document is changed. If at least one of
+ * them computes the name, the rule may read anything. So may a rule
+ * that reads through {@code doc()} or {@code doc-available()}, or
+ * includes or imports another XSL, or has no {@code document()}
+ * calls at all, since we can't tell what it reads.</p>
+ *
+ * @since 1.0
+ */
+final class RdReads {
+
+    /**
+     * Documents read by XSLs, by their URIs, empty if anything.
+     */
+    private static final Map<String, Optional<Set<String>>> CACHE =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Any call of a function that reads a document.
+     */
+    private static final Pattern CALL = Pattern.compile(
+        "(?<![\\w.-])(?:document|doc|doc-available)\\s*\\("
+    );
+
+    /**
+     * Include or import of another XSL.
+     */
+    private static final Pattern INCLUDE = Pattern.compile(
+        "<xsl:(?:include|import)\\b"
+    );
+
+    /**
+     * Call of {@code document()} with a literal file name.
+     */
+    private static final Pattern LITERAL = Pattern.compile(
+        "document\\s*\\(\\s*(?:'([^']+)'|\"([^\"]+)\")\\s*\\)"
+    );
+
+    /**
+     * URI of the XSL.
+     */
+    private final String uri;
+
+    /**
+     * Ctor.
+     * @param xsl URI of the XSL
+     */
+    RdReads(final String xsl) {
+        this.uri = xsl;
+    }
+
+    /**
+     * Does the rule read any of these documents?
+     * @param files Names of documents
+     * @return TRUE if it reads at least one of them, or may read them
+     * @throws IOException If fails
+     */
+    public boolean any(final Iterable<String> files) throws IOException {
+        Optional<Set<String>> reads = RdReads.CACHE.get(this.uri);
+        if (reads == null) {
+            reads = RdReads.parse(new TextOf(new Datum(this.uri)).asString());
+            RdReads.CACHE.putIfAbsent(this.uri, reads);
+        }
+        boolean any = !reads.isPresent();
+        if (!any) {
+            for (final String file : files) {
+                if (reads.get().contains(file)) {
+                    any = true;
+                    break;
+                }
+            }
+        }
+        return any;
+    }
+
+    /**
+     * Find documents the XSL reads.
+     * @param xsl Text of XSL
+     * @return Names of documents, empty if anything
+     */
+    static Optional<Set<String>> parse(final String xsl) {
+        final Set<String> files = new HashSet<>(0);
+        final Matcher literal = RdReads.LITERAL.matcher(xsl);
+        int literals = 0;
+        while (literal.find()) {
+            if (literal.group(1) == null) {
+                files.add(literal.group(2));
+            } else {
+                files.add(literal.group(1));
+            }
+            ++literals;
+        }
+        final Matcher call = RdReads.CALL.matcher(xsl);
+        int calls = 0;
+        while (call.find()) {
+            ++calls;
+        }
+        final Optional<Set<String>> reads;
+        if (calls > 0 && calls == literals
+            && !RdReads.INCLUDE.matcher(xsl).find()) {
+            reads = Optional.of(Collections.unmodifiableSet(files));
+        } else {
+            reads = Optional.empty();
+        }
+        return reads;
+    }
+}
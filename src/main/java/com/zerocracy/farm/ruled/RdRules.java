@@ -18,24 +18,13 @@ package com.zerocracy.farm.ruled;
 
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XMLDocument;
-import com.jcabi.xml.XSLDocument;
 import com.zerocracy.Project;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.Collection;
 import org.apache.commons.lang3.StringUtils;
-import org.cactoos.Func;
-import org.cactoos.Input;
-import org.cactoos.cache.SoftFunc;
-import org.cactoos.func.SyncFunc;
-import org.cactoos.func.UncheckedFunc;
-import org.cactoos.io.InputOf;
-import org.cactoos.io.StickyInput;
-import org.cactoos.io.SyncInput;
 import org.cactoos.iterable.LengthOf;
-import org.cactoos.scalar.And;
-import org.cactoos.scalar.UncheckedScalar;
 import org.cactoos.text.JoinedText;
 
 /**
@@ -46,19 +35,6 @@ import org.cactoos.text.JoinedText;
  */
 final class RdRules {
 
-    /**
-     * Cache of documents.
-     */
-    private static final UncheckedFunc<URI, Input> CACHE = new UncheckedFunc<>(
-        new SyncFunc<>(
-            new SoftFunc<>(
-                (Func<URI, Input>) uri -> new SyncInput(
-                    new StickyInput(new InputOf(uri))
-                )
-            )
-        )
-    );
-
     /**
      * Original project.
      */
@@ -69,21 +45,37 @@ final class RdRules {
      */
     private final Path path;
 
+    /**
+     * Names of documents changed.
+     */
+    private final Collection<String> changed;
+
     /**
      * The reason for validation.
      */
     private final String reason;
 
+    /**
+     * Counters of rules.
+     */
+    private final RdRuns runs;
+
     /**
      * Ctor.
      * @param pkt Project
      * @param file File with item
+     * @param names Names of documents changed
      * @param rsn Reason
+     * @param counters Counters of rules
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    RdRules(final Project pkt, final Path file, final String rsn) {
+    RdRules(final Project pkt, final Path file, final Collection<String> names,
+        final String rsn, final RdRuns counters) {
         this.project = pkt;
         this.path = file;
+        this.changed = names;
         this.reason = rsn;
+        this.runs = counters;
     }
 
     /**
@@ -102,7 +94,15 @@ final class RdRules {
                 )
             )
         ).iterate();
-        new UncheckedScalar<>(new And(this::check, xsls)).value();
+        final RdSources sources = new RdSources(this.project);
+        for (final String xsl : xsls) {
+            if (new RdReads(xsl).any(this.changed)) {
+                this.check(xsl, sources);
+                this.runs.executed();
+            } else {
+                this.runs.skipped();
+            }
+        }
         if (Logger.isDebugEnabled(this)) {
             Logger.debug(
                 // @checkstyle LineLength (1 line)
@@ -117,13 +117,13 @@ final class RdRules {
     /**
      * Check for consistency.
      * @param xsl The URI of the XSL that modifies
+     * @param sources Sources of documents
      * @throws IOException If fails
      */
-    private void check(final String xsl) throws IOException {
+    private void check(final String xsl, final RdSources sources)
+        throws IOException {
         final Collection<String> errors =
-            XSLDocument.make(RdRules.CACHE.apply(URI.create(xsl)).stream())
-                .with(new RdSources(this.project))
-                .transform(new XMLDocument("<i/>"))
+            new RdTemplates(xsl).transform(new XMLDocument("<i/>"), sources)
                 .xpath("/errors/error/text()");
         if (!errors.isEmpty()) {
             throw new IllegalStateException(
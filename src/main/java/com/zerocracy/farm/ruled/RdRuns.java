@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.ruled;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Counters of rules executed and skipped.
+ *
+ * @since 1.0
+ */
+final class RdRuns {
+
+    /**
+     * Rules executed.
+     */
+    private final AtomicLong executed;
+
+    /**
+     * Rules skipped, since they don't read changed documents.
+     */
+    private final AtomicLong skipped;
+
+    /**
+     * Ctor.
+     */
+    RdRuns() {
+        this.executed = new AtomicLong();
+        this.skipped = new AtomicLong();
+    }
+
+    /**
+     * A rule was executed.
+     */
+    public void executed() {
+        this.executed.incrementAndGet();
+    }
+
+    /**
+     * A rule was skipped.
+     */
+    public void skipped() {
+        this.skipped.incrementAndGet();
+    }
+
+    /**
+     * Counters for guts.
+     * @return Directives
+     */
+    public Iterable<Directive> guts() {
+        return new Directives()
+            .add("rules")
+            .attr("executed", this.executed.get())
+            .attr("skipped", this.skipped.get())
+            .up();
+    }
+}
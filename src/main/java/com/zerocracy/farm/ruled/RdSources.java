@@ -21,6 +21,8 @@ import com.zerocracy.Item;
 import com.zerocracy.Project;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.transform.Source;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.stream.StreamSource;
@@ -32,6 +34,9 @@ import org.cactoos.text.TextOf;
 /**
  * Ruled rules.
  *
+ * <p>Documents are read only once and then given from memory, so
+ * an instance must not live longer than one validation.</p>
+ *
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
@@ -42,31 +47,40 @@ final class RdSources implements Sources {
      */
     private final Project project;
 
+    /**
+     * Documents already read, by their names.
+     */
+    private final Map<String, String> docs;
+
     /**
      * Ctor.
      * @param pkt Project
      */
     RdSources(final Project pkt) {
         this.project = pkt;
+        this.docs = new ConcurrentHashMap<>(0);
     }
 
     @Override
     public Source resolve(final String href, final String base)
         throws TransformerException {
-        try (final Item item = this.project.acq(href)) {
-            final Path path = item.path();
-            final Input input;
-            if (path.toFile().length() > 0L) {
-                input = new InputOf(item.path());
-            } else {
-                input = new InputOf("<always-empty/>");
+        String text = this.docs.get(href);
+        if (text == null) {
+            try (final Item item = this.project.read(href)) {
+                final Path path = item.path();
+                final Input input;
+                if (path.toFile().length() > 0L) {
+                    input = new InputOf(item.path());
+                } else {
+                    input = new InputOf("<always-empty/>");
+                }
+                text = new TextOf(input).asString();
+            } catch (final IOException ex) {
+                throw new TransformerException(ex);
             }
-            return new StreamSource(
-                new InputStreamOf(new TextOf(input).asString())
-            );
-        } catch (final IOException ex) {
-            throw new TransformerException(ex);
+            this.docs.put(href, text);
         }
+        return new StreamSource(new InputStreamOf(text));
     }
 
 }
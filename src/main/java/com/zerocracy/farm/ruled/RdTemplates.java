@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.ruled;
+
+import com.jcabi.xml.Sources;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.Datum;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamSource;
+import org.w3c.dom.Document;
+
+/**
+ * Compiled XSL of DATUM.
+ *
+ * <p>Every XSL is compiled only once per process, when it is used for
+ * the first time, and the compiled {@link Templates} are never
+ * evicted: there are only so many rules and auto-XSLs in DATUM, and
+ * they never change, since DATUM is bundled, see {@link Datum}.
+ * {@link Templates} are thread-safe, each transformation makes its
+ * own {@link Transformer} with its own {@link Sources}.</p>
+ *
+ * @since 1.0
+ */
+final class RdTemplates {
+
+    /**
+     * Compiled XSLs, by their URIs.
+     */
+    private static final Map<String, Templates> CACHE =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Transformer factory.
+     */
+    private static final TransformerFactory FACTORY =
+        TransformerFactory.newInstance();
+
+    /**
+     * Document builder factory.
+     */
+    private static final DocumentBuilderFactory DOCS =
+        DocumentBuilderFactory.newInstance();
+
+    /**
+     * URI of the XSL.
+     */
+    private final String uri;
+
+    /**
+     * Ctor.
+     * @param xsl URI of the XSL
+     */
+    RdTemplates(final String xsl) {
+        this.uri = xsl;
+    }
+
+    /**
+     * Transform the document.
+     * @param xml The document
+     * @param sources Sources for {@code document()} calls in the XSL
+     * @return Result of transformation
+     * @throws IOException If fails
+     */
+    public XML transform(final XML xml, final Sources sources)
+        throws IOException {
+        try {
+            final Transformer trans = this.templates().newTransformer();
+            trans.setURIResolver(sources);
+            final Document target;
+            synchronized (RdTemplates.DOCS) {
+                target = RdTemplates.DOCS.newDocumentBuilder().newDocument();
+            }
+            trans.transform(new DOMSource(xml.node()), new DOMResult(target));
+            return new XMLDocument(target);
+        } catch (final TransformerException | ParserConfigurationException ex) {
+            throw new IOException(
+                String.format("Failed to transform by %s", this.uri), ex
+            );
+        }
+    }
+
+    /**
+     * Number of XSLs compiled so far.
+     * @return Total
+     */
+    public static int size() {
+        return RdTemplates.CACHE.size();
+    }
+
+    /**
+     * Compiled XSL.
+     * @return Templates
+     * @throws IOException If fails
+     * @throws TransformerConfigurationException If can't compile
+     */
+    private Templates templates()
+        throws IOException, TransformerConfigurationException {
+        Templates tpl = RdTemplates.CACHE.get(this.uri);
+        if (tpl == null) {
+            final StreamSource src = new StreamSource(
+                new Datum(this.uri).stream(), this.uri
+            );
+            synchronized (RdTemplates.FACTORY) {
+                tpl = RdTemplates.FACTORY.newTemplates(src);
+            }
+            final Templates before = RdTemplates.CACHE.putIfAbsent(
+                this.uri, tpl
+            );
+            if (before != null) {
+                tpl = before;
+            }
+        }
+        return tpl;
+    }
+}
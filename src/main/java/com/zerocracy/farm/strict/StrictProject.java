@@ -112,6 +112,22 @@ final class StrictProject implements Project {
 
     @Override
     public Item acq(final String file) throws IOException {
+        this.check(file);
+        return this.origin.acq(file);
+    }
+
+    @Override
+    public Item read(final String file) throws IOException {
+        this.check(file);
+        return this.origin.read(file);
+    }
+
+    /**
+     * Make sure the file is allowed in this project.
+     * @param file File name
+     * @throws IOException If fails
+     */
+    private void check(final String file) throws IOException {
         final boolean pmo = "PMO".equals(this.origin.pid());
         if (pmo && !StrictProject.PMO.matcher(file).matches()) {
             throw new IllegalArgumentException(
@@ -129,7 +145,6 @@ final class StrictProject implements Project {
                 )
             );
         }
-        return this.origin.acq(file);
     }
 
 }
@@ -14,47 +14,30 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-package com.zerocracy.claims.proc;
-
-import com.amazonaws.services.sqs.model.Message;
-import java.util.concurrent.atomic.AtomicInteger;
-import org.cactoos.Proc;
+package com.zerocracy.farm.sync;
 
 /**
- * Count currently processed messages.
+ * The thread can't get the file, since it holds a file that the holder
+ * of this one waits for, directly or through other threads.
+ *
+ * <p>Only one thread of the cycle gets it, the others keep waiting.
+ * Whoever processes the claim may release all files and try the claim
+ * again, see {@link com.zerocracy.farm.StkSafe}.</p>
  *
  * @since 1.0
  */
-public final class CountingProc implements Proc<Message> {
+public final class DeadlockException extends IllegalStateException {
 
     /**
-     * Decorated proc.
+     * Serialization marker.
      */
-    private final Proc<Message> proc;
-
-    /**
-     * Counter.
-     */
-    private final AtomicInteger count;
+    private static final long serialVersionUID = 6329815734625470731L;
 
     /**
      * Ctor.
-     *
-     * @param proc Proc being decorated
-     * @param count Counter of executing procedures
+     * @param cause Cause of it
      */
-    public CountingProc(final Proc<Message> proc, final AtomicInteger count) {
-        this.proc = proc;
-        this.count = count;
-    }
-
-    @Override
-    public void exec(final Message input) throws Exception {
-        try {
-            this.count.incrementAndGet();
-            this.proc.exec(input);
-        } finally {
-            this.count.decrementAndGet();
-        }
+    public DeadlockException(final String cause) {
+        super(cause);
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Who waits for what, to detect deadlocks.
+ *
+ * <p>A thread that holds one file may ask for another one, for example
+ * when rules of the first file read the second one. If the second file
+ * is held by a thread that waits, directly or through other threads,
+ * for a file held by the first thread, none of them will ever
+ * continue. This class finds such cycles.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+final class Deadlocks {
+
+    /**
+     * Locks threads are waiting for.
+     */
+    private final ConcurrentMap<Thread, SyncLock> waiting;
+
+    /**
+     * Ctor.
+     */
+    Deadlocks() {
+        this.waiting = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * The current thread starts waiting for the lock.
+     * @param lock The lock
+     */
+    public void waits(final SyncLock lock) {
+        this.waiting.put(Thread.currentThread(), lock);
+    }
+
+    /**
+     * The current thread doesn't wait anymore.
+     */
+    public void done() {
+        this.waiting.remove(Thread.currentThread());
+    }
+
+    /**
+     * Will the current thread never get this lock?
+     *
+     * <p>The lock is never got if one of the other threads holding it
+     * waits, directly or through other threads, for a lock held by
+     * the current thread. The current thread itself among the holders
+     * of the lock it waits for is not a cycle: it only waits for the
+     * others to let it in, see {@link SyncLock}.</p>
+     *
+     * <p>If it will not, the thread stops waiting right away, so
+     * the other threads of the cycle don't see it anymore and only
+     * one of them gives up.</p>
+     *
+     * @param lock The lock it waits for
+     * @return TRUE if the lock is held, maybe indirectly, by
+     *  the current thread itself
+     */
+    public synchronized boolean cycle(final SyncLock lock) {
+        final Thread me = Thread.currentThread();
+        final Set<Thread> seen = new HashSet<>(0);
+        final Deque<Thread> todo = new LinkedList<>(lock.holders());
+        seen.add(me);
+        boolean found = false;
+        while (!found && !todo.isEmpty()) {
+            final Thread thread = todo.pop();
+            if (seen.add(thread)) {
+                final SyncLock other = this.waiting.get(thread);
+                if (other != null) {
+                    final Collection<Thread> holders = other.holders();
+                    found = holders.contains(me);
+                    todo.addAll(holders);
+                }
+            }
+        }
+        if (found) {
+            this.waiting.remove(me);
+        }
+        return found;
+    }
+}
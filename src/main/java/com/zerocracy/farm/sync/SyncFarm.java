@@ -19,14 +19,12 @@ package com.zerocracy.farm.sync;
 import com.jcabi.aspects.Tv;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
-import com.zerocracy.farm.SmartLock;
 import com.zerocracy.farm.guts.Guts;
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
-import org.cactoos.iterable.Joined;
 import org.cactoos.iterable.Mapped;
 import org.cactoos.text.TextOf;
 import org.xembly.Directive;
@@ -47,9 +45,14 @@ public final class SyncFarm implements Farm {
     private final Farm origin;
 
     /**
-     * Pool of locks.
+     * Pool of locks of files, per project.
      */
-    private final Map<Project, SmartLock> pool;
+    private final Map<Project, SyncLocks> pool;
+
+    /**
+     * Who waits for what.
+     */
+    private final Deadlocks deadlocks;
 
     /**
      * Terminator.
@@ -73,6 +76,7 @@ public final class SyncFarm implements Farm {
     public SyncFarm(final Farm farm, final long sec) {
         this.origin = farm;
         this.pool = new ConcurrentHashMap<>(0);
+        this.deadlocks = new Deadlocks();
         this.terminator = new Terminator(farm, sec);
     }
 
@@ -93,8 +97,9 @@ public final class SyncFarm implements Farm {
                     pkt -> new SyncProject(
                         pkt,
                         this.pool.computeIfAbsent(
-                            pkt, p -> new SmartLock()
+                            pkt, p -> new SyncLocks()
                         ),
+                        this.deadlocks,
                         this.terminator
                     ),
                     this.origin.find(query)
@@ -105,23 +110,7 @@ public final class SyncFarm implements Farm {
                     .attr("id", this.getClass().getSimpleName())
                     .append(this.terminator.value())
                     .add("locks")
-                    .append(
-                        new Joined<Directive>(
-                            new Mapped<>(
-                                ent -> new Directives()
-                                    .add("lock")
-                                    .attr("pid", ent.getKey().pid())
-                                    .attr("label", ent.getValue().toString())
-                                    .set(
-                                        new TextOf(
-                                            ent.getValue().stacktrace()
-                                        )
-                                    )
-                                    .up(),
-                                this.pool.entrySet()
-                            )
-                        )
-                    )
+                    .append(this.locks())
                     .up()
             ).apply(query);
         }
@@ -135,4 +124,25 @@ public final class SyncFarm implements Farm {
             this.origin.close();
         }
     }
+
+    /**
+     * Locks of all files being held now, for the guts.
+     * @return Directives
+     * @throws IOException If fails
+     */
+    private Iterable<Directive> locks() throws IOException {
+        final Directives dirs = new Directives();
+        for (final Map.Entry<Project, SyncLocks> pkt : this.pool.entrySet()) {
+            for (final Map.Entry<String, SyncLock> ent
+                : pkt.getValue().held()) {
+                dirs.add("lock")
+                    .attr("pid", pkt.getKey().pid())
+                    .attr("file", ent.getKey())
+                    .attr("label", ent.getValue().toString())
+                    .set(new TextOf(ent.getValue().stacktrace()))
+                    .up();
+            }
+        }
+        return dirs;
+    }
 }
@@ -44,14 +44,21 @@ final class SyncItem implements Item {
      */
     private final Lock lock;
 
+    /**
+     * What to do after the lock is released.
+     */
+    private final Runnable release;
+
     /**
      * Ctor.
      * @param item Original item
      * @param lck Lock
+     * @param done What to do after the lock is released
      */
-    SyncItem(final Item item, final Lock lck) {
+    SyncItem(final Item item, final Lock lck, final Runnable done) {
         this.origin = item;
         this.lock = lck;
+        this.release = done;
     }
 
     @Override
@@ -79,6 +86,7 @@ final class SyncItem implements Item {
             this.origin.close();
         } finally {
             this.lock.unlock();
+            this.release.run();
         }
     }
 
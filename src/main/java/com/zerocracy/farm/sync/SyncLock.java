@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.log.Logger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Read/write lock of one file, which knows who holds it.
+ *
+ * <p>Many threads may hold the {@link #read()} lock at the same time,
+ * while the {@link #write()} lock is exclusive. Both are reentrant.
+ * A thread that holds the write lock may also take the read one, and
+ * a thread that is the only reader may also take the write one, for
+ * example when it reads a file and then modifies it, without releasing
+ * the read lock. New readers wait while somebody waits for the write
+ * lock, to let writers in.</p>
+ *
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class SyncLock {
+
+    /**
+     * ID.
+     */
+    private final String uid;
+
+    /**
+     * Threads holding the read lock and number of their holds.
+     */
+    private final Map<Thread, Integer> readers;
+
+    /**
+     * Threads holding the write lock and number of their holds,
+     * never more than one.
+     */
+    private final Map<Thread, Integer> writers;
+
+    /**
+     * How many threads wait for the write lock.
+     */
+    private int queue;
+
+    /**
+     * When it was taken, while nobody held it.
+     */
+    private final AtomicLong start;
+
+    /**
+     * Shared lock.
+     */
+    private final Lock shared;
+
+    /**
+     * Exclusive lock.
+     */
+    private final Lock exclusive;
+
+    /**
+     * Ctor.
+     */
+    SyncLock() {
+        this.uid = UUID.randomUUID().toString().substring(24);
+        this.readers = new HashMap<>(1);
+        this.writers = new HashMap<>(1);
+        this.start = new AtomicLong();
+        this.shared = new SyncLock.Part(false);
+        this.exclusive = new SyncLock.Part(true);
+    }
+
+    /**
+     * Shared lock, for reading.
+     * @return Lock
+     */
+    public Lock read() {
+        return this.shared;
+    }
+
+    /**
+     * Exclusive lock, for writing.
+     * @return Lock
+     */
+    public Lock write() {
+        return this.exclusive;
+    }
+
+    /**
+     * Threads holding it now.
+     * @return Threads
+     */
+    public Collection<Thread> holders() {
+        synchronized (this.readers) {
+            final Collection<Thread> threads = new LinkedHashSet<>(
+                this.writers.keySet()
+            );
+            threads.addAll(this.readers.keySet());
+            return new ArrayList<>(threads);
+        }
+    }
+
+    /**
+     * Full stack trace of one of the holders.
+     * @return The stacktrace
+     */
+    public StackTraceElement[] stacktrace() {
+        final Iterator<Thread> threads = this.holders().iterator();
+        final StackTraceElement[] array;
+        if (threads.hasNext()) {
+            array = threads.next().getStackTrace();
+        } else {
+            array = new StackTraceElement[0];
+        }
+        return array;
+    }
+
+    /**
+     * Drop all holds of the thread, which is dead and can't release
+     * them by itself.
+     * @param thread The thread
+     * @return TRUE if it held the lock
+     */
+    public boolean forget(final Thread thread) {
+        synchronized (this.readers) {
+            final boolean read = this.readers.remove(thread) != null;
+            final boolean write = this.writers.remove(thread) != null;
+            this.readers.notifyAll();
+            return read || write;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final Collection<Thread> threads = this.holders();
+        final String text;
+        if (threads.isEmpty()) {
+            text = "free";
+        } else {
+            final Collection<String> names = new ArrayList<>(threads.size());
+            for (final Thread thread : threads) {
+                names.add(thread.getName());
+            }
+            synchronized (this.readers) {
+                text = Logger.format(
+                    "%s/%[ms]s/%d/%b/%d by %s",
+                    this.uid,
+                    System.currentTimeMillis() - this.start.get(),
+                    this.readers.size(),
+                    !this.writers.isEmpty(),
+                    this.queue,
+                    String.join(", ", names)
+                );
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Can the current thread take the lock now?
+     * @param write TRUE for the write lock
+     * @return TRUE if it can
+     */
+    private boolean free(final boolean write) {
+        final Thread me = Thread.currentThread();
+        final boolean free;
+        if (!this.writers.isEmpty() && !this.writers.containsKey(me)) {
+            free = false;
+        } else if (write) {
+            free = this.readers.isEmpty()
+                || this.readers.size() == 1 && this.readers.containsKey(me);
+        } else {
+            free = this.queue == 0 || this.readers.containsKey(me)
+                || this.writers.containsKey(me);
+        }
+        return free;
+    }
+
+    /**
+     * Take the lock, if it's possible before the deadline.
+     * @param write TRUE for the write lock
+     * @param deadline When to give up, in milliseconds, or zero to
+     *  try only once, or {@link Long#MAX_VALUE} to wait forever
+     * @return TRUE if taken
+     * @throws InterruptedException If interrupted
+     */
+    private boolean take(final boolean write, final long deadline)
+        throws InterruptedException {
+        synchronized (this.readers) {
+            boolean done = this.free(write);
+            if (!done && deadline > 0L) {
+                if (write) {
+                    ++this.queue;
+                }
+                try {
+                    while (!done) {
+                        final long left = deadline
+                            - System.currentTimeMillis();
+                        if (left <= 0L) {
+                            break;
+                        }
+                        this.readers.wait(left);
+                        done = this.free(write);
+                    }
+                } finally {
+                    if (write) {
+                        --this.queue;
+                        this.readers.notifyAll();
+                    }
+                }
+            }
+            if (done) {
+                if (this.empty()) {
+                    this.start.set(System.currentTimeMillis());
+                }
+                this.holds(write).merge(
+                    Thread.currentThread(), 1, Integer::sum
+                );
+            }
+            return done;
+        }
+    }
+
+    /**
+     * Release the lock.
+     * @param write TRUE for the write lock
+     */
+    private void release(final boolean write) {
+        synchronized (this.readers) {
+            final Map<Thread, Integer> holds = this.holds(write);
+            final Thread me = Thread.currentThread();
+            if (!holds.containsKey(me)) {
+                throw new IllegalMonitorStateException(
+                    String.format(
+                        "%s doesn't hold the %s lock %s",
+                        me.getName(), SyncLock.name(write), this.uid
+                    )
+                );
+            }
+            holds.computeIfPresent(
+                me,
+                (thread, count) -> {
+                    Integer left = count - 1;
+                    if (left == 0) {
+                        left = null;
+                    }
+                    return left;
+                }
+            );
+            this.readers.notifyAll();
+        }
+    }
+
+    /**
+     * Nobody holds it?
+     * @return TRUE if nobody
+     */
+    private boolean empty() {
+        return this.readers.isEmpty() && this.writers.isEmpty();
+    }
+
+    /**
+     * Holders of the read or the write lock.
+     * @param write TRUE for the write lock
+     * @return Threads and numbers of their holds
+     */
+    private Map<Thread, Integer> holds(final boolean write) {
+        final Map<Thread, Integer> holds;
+        if (write) {
+            holds = this.writers;
+        } else {
+            holds = this.readers;
+        }
+        return holds;
+    }
+
+    /**
+     * Name of the lock.
+     * @param write TRUE for the write lock
+     * @return Name
+     */
+    private static String name(final boolean write) {
+        final String name;
+        if (write) {
+            name = "write";
+        } else {
+            name = "read";
+        }
+        return name;
+    }
+
+    /**
+     * Read or write part of the lock.
+     */
+    private final class Part implements Lock {
+        /**
+         * Is it the write lock?
+         */
+        private final boolean write;
+        /**
+         * Ctor.
+         * @param wrt TRUE for the write lock
+         */
+        Part(final boolean wrt) {
+            this.write = wrt;
+        }
+        @Override
+        public void lock() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    SyncLock.this.take(this.write, Long.MAX_VALUE);
+                    break;
+                } catch (final InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            SyncLock.this.take(this.write, Long.MAX_VALUE);
+        }
+        @Override
+        public boolean tryLock() {
+            try {
+                return SyncLock.this.take(this.write, 0L);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit)
+            throws InterruptedException {
+            return SyncLock.this.take(
+                this.write, System.currentTimeMillis() + unit.toMillis(time)
+            );
+        }
+        @Override
+        public void unlock() {
+            SyncLock.this.release(this.write);
+        }
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException(
+                String.format(
+                    "newCondition() is not supported by %s lock",
+                    SyncLock.name(this.write)
+                )
+            );
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import java.util.AbstractMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Locks of files in one project.
+ *
+ * <p>Each file gets its own lock, by its name, when somebody asks for
+ * it, and the lock is thrown away when everybody who asked for it
+ * frees it. Files in sub-directories, like {@code awards/yegor256.xml}
+ * in PMO, are sharded by user and there may be many thousands of them,
+ * but only the locks of files in use stay in memory.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+final class SyncLocks {
+
+    /**
+     * Locks of files in use, by file names.
+     */
+    private final Map<String, SyncLocks.Counted> files;
+
+    /**
+     * Ctor.
+     */
+    SyncLocks() {
+        this.files = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Lock of the file, which must be freed by {@link #free(String)}.
+     * @param file File name
+     * @return The lock
+     */
+    public SyncLock lock(final String file) {
+        return this.files.compute(
+            file,
+            (name, before) -> {
+                SyncLocks.Counted counted = before;
+                if (counted == null) {
+                    counted = new SyncLocks.Counted();
+                }
+                ++counted.refs;
+                return counted;
+            }
+        ).lock;
+    }
+
+    /**
+     * The lock of the file is not needed anymore by one of those who
+     * asked for it by {@link #lock(String)}.
+     * @param file File name
+     */
+    public void free(final String file) {
+        this.files.computeIfPresent(
+            file,
+            (name, counted) -> {
+                SyncLocks.Counted left = counted;
+                --counted.refs;
+                if (counted.refs == 0) {
+                    left = null;
+                }
+                return left;
+            }
+        );
+    }
+
+    /**
+     * Locks held now, by file names.
+     * @return Locks
+     */
+    public List<Map.Entry<String, SyncLock>> held() {
+        final List<Map.Entry<String, SyncLock>> list = new LinkedList<>();
+        for (final Map.Entry<String, SyncLocks.Counted> ent
+            : this.files.entrySet()) {
+            if (!ent.getValue().lock.holders().isEmpty()) {
+                list.add(
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        ent.getKey(), ent.getValue().lock
+                    )
+                );
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Lock and the number of those who asked for it.
+     */
+    private static final class Counted {
+        /**
+         * The lock.
+         */
+        private final SyncLock lock;
+        /**
+         * How many asked for it and didn't free it yet.
+         */
+        private int refs;
+        /**
+         * Ctor.
+         */
+        Counted() {
+            this.lock = new SyncLock();
+        }
+    }
+}
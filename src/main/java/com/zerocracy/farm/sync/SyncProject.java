@@ -39,9 +39,14 @@ final class SyncProject implements Project {
     private final Project origin;
 
     /**
-     * Lock.
+     * Locks of files.
      */
-    private final Lock lock;
+    private final SyncLocks locks;
+
+    /**
+     * Who waits for what.
+     */
+    private final Deadlocks deadlocks;
 
     /**
      * Terminator.
@@ -51,12 +56,16 @@ final class SyncProject implements Project {
     /**
      * Ctor.
      * @param pkt Project
-     * @param lck Lock
+     * @param lcks Locks of files
+     * @param dlcks Who waits for what
      * @param tmr Terminator
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    SyncProject(final Project pkt, final Lock lck, final Terminator tmr) {
+    SyncProject(final Project pkt, final SyncLocks lcks,
+        final Deadlocks dlcks, final Terminator tmr) {
         this.origin = pkt;
-        this.lock = lck;
+        this.locks = lcks;
+        this.deadlocks = dlcks;
         this.terminator = tmr;
     }
 
@@ -67,19 +76,79 @@ final class SyncProject implements Project {
 
     @Override
     public Item acq(final String file) throws IOException {
+        final SyncLock lock = this.locks.lock(file);
+        this.lock(file, lock, lock.write());
+        this.terminator.submit(this, file, lock);
+        return new SyncItem(
+            this.origin.acq(file), lock.write(), () -> this.release(file)
+        );
+    }
+
+    @Override
+    public Item read(final String file) throws IOException {
+        final SyncLock lock = this.locks.lock(file);
+        this.lock(file, lock, lock.read());
+        this.terminator.submit(this, file, lock);
+        return new SyncItem(
+            this.origin.read(file), lock.read(), () -> this.release(file)
+        );
+    }
+
+    /**
+     * The file is released by the thread.
+     * @param file The file
+     */
+    private void release(final String file) {
+        this.terminator.release(this, file);
+        this.locks.free(file);
+    }
+
+    /**
+     * Take the lock of the file, or fail if it's not possible.
+     *
+     * <p>If it fails, the lock is freed, see
+     * {@link SyncLocks#free(String)}. If it fails because of a deadlock,
+     * {@link DeadlockException} is thrown, so that the claim is tried
+     * again, after all its files are released.</p>
+     * @param file The file
+     * @param lock Lock of the file
+     * @param part Read or write part of it
+     * @throws IOException If fails
+     */
+    private void lock(final String file, final SyncLock lock,
+        final Lock part) throws IOException {
         final long start = System.currentTimeMillis();
+        // @checkstyle MagicNumber (1 line)
+        final long deadline = start + TimeUnit.MINUTES.toMillis(2L);
+        this.deadlocks.waits(lock);
+        boolean done = false;
         try {
-            // @checkstyle MagicNumber (1 line)
-            if (!this.lock.tryLock(2L, TimeUnit.MINUTES)) {
-                throw new IllegalStateException(
-                    Logger.format(
-                        "Failed to acquire \"%s\" in \"%s\" in %[ms]s: %s",
-                        file, this.origin.pid(),
-                        System.currentTimeMillis() - start,
-                        this.lock
-                    )
-                );
+            while (!part.tryLock()) {
+                if (this.deadlocks.cycle(lock)) {
+                    throw new DeadlockException(
+                        Logger.format(
+                            "Deadlock on \"%s\" in \"%s\" after %[ms]s: %s",
+                            file, this.origin.pid(),
+                            System.currentTimeMillis() - start,
+                            lock
+                        )
+                    );
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException(
+                        Logger.format(
+                            "Failed to acquire \"%s\" in \"%s\" in %[ms]s: %s",
+                            file, this.origin.pid(),
+                            System.currentTimeMillis() - start,
+                            lock
+                        )
+                    );
+                }
+                if (part.tryLock(1L, TimeUnit.SECONDS)) {
+                    break;
+                }
             }
+            done = true;
         } catch (final InterruptedException ex) {
             Thread.currentThread().interrupt();
             throw new IllegalStateException(
@@ -91,8 +160,11 @@ final class SyncProject implements Project {
                 ),
                 ex
             );
+        } finally {
+            this.deadlocks.done();
+            if (!done) {
+                this.locks.free(file);
+            }
         }
-        this.terminator.submit(this, file, this.lock);
-        return new SyncItem(this.origin.acq(file), this.lock);
     }
 }
@@ -24,15 +24,18 @@ import com.zerocracy.Project;
 import com.zerocracy.SafeSentry;
 import com.zerocracy.ShutUp;
 import java.io.Closeable;
+import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.cactoos.Scalar;
-import org.cactoos.func.RunnableOf;
 import org.cactoos.iterable.Joined;
 import org.cactoos.iterable.Mapped;
 import org.xembly.Directive;
@@ -41,25 +44,46 @@ import org.xembly.Directives;
 /**
  * Terminator.
  *
+ * <p>Every hold of a file gets a deadline in a {@link TimerWheel},
+ * which is driven by one scheduler thread. When the file is released,
+ * the deadline is cancelled. When the deadline comes first, the
+ * holding thread is interrupted and the deadline is set again, until
+ * the thread releases the file.</p>
+ *
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 final class Terminator implements Closeable, Scalar<Iterable<Directive>> {
 
+    /**
+     * Milliseconds in a tick of the wheel.
+     */
+    private static final long TICK = 100L;
+
     /**
      * Threshold of locking, in milliseconds.
      */
     private final long threshold;
 
     /**
-     * Terminator of long running threads.
+     * The thread that drives the wheel.
+     */
+    private final ScheduledExecutorService service;
+
+    /**
+     * The scheduler thread was started.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Deadlines of holds.
      */
-    private final ExecutorService service;
+    private final TimerWheel<Terminator.Hold> wheel;
 
     /**
-     * Map of statuses per project.
+     * Holds, by project, file and thread.
      */
-    private final Map<Project, String> killers;
+    private final Map<List<Object>, Terminator.Hold> killers;
 
     /**
      * Farm.
@@ -74,11 +98,13 @@ final class Terminator implements Closeable, Scalar<Iterable<Directive>> {
     Terminator(final Farm farm, final long msec) {
         this.farm = farm;
         this.threshold = msec;
-        this.service = Executors.newCachedThreadPool(
+        this.service = Executors.newSingleThreadScheduledExecutor(
             new VerboseThreads(
                 String.format("Terminator-%d-", msec)
             )
         );
+        this.started = new AtomicBoolean();
+        this.wheel = new TimerWheel<>(Terminator.TICK);
         this.killers = new ConcurrentHashMap<>(0);
     }
 
@@ -92,95 +118,223 @@ final class Terminator implements Closeable, Scalar<Iterable<Directive>> {
         return new Directives().add("terminator").append(
             new Joined<Directive>(
                 new Mapped<>(
-                    pkt -> new Directives().add("killer")
-                        .attr("pid", pkt.getKey().pid())
-                        .set(pkt.getValue()).up(),
-                    this.killers.entrySet()
+                    hold -> new Directives().add("killer")
+                        .attr("pid", hold.project.pid())
+                        .set(hold.file).up(),
+                    this.killers.values()
                 )
             )
         ).up();
     }
+
     /**
      * Submit new one.
+     *
+     * <p>The current thread is the one that holds the file
+     * and has to release it in time.</p>
+     *
      * @param project The project
      * @param file The file
-     * @param lock The lock
+     * @param lock The lock of the file, which the thread holds
      */
     public void submit(final Project project, final String file,
-        final Lock lock) {
-        synchronized (this.killers) {
-            if (!this.killers.containsKey(project)) {
-                this.killers.put(project, file);
-                this.service.submit(
-                    new VerboseRunnable(
-                        this.killer(
-                            project, file, lock,
-                            new WeakReference<>(Thread.currentThread())
-                        ),
-                        true, true
-                    )
-                );
-            }
+        final SyncLock lock) {
+        if (this.started.compareAndSet(false, true)) {
+            this.service.scheduleWithFixedDelay(
+                new VerboseRunnable(this::tick, true, true),
+                Terminator.TICK, Terminator.TICK, TimeUnit.MILLISECONDS
+            );
         }
+        this.killers.compute(
+            Terminator.key(project, file),
+            (key, before) -> {
+                Terminator.Hold hold = before;
+                if (hold == null) {
+                    hold = new Terminator.Hold(project, file, lock);
+                    hold.timeout = this.wheel.schedule(hold, this.threshold);
+                }
+                ++hold.count;
+                return hold;
+            }
+        );
     }
 
     /**
-     * Killer runnable.
+     * The current thread released the file.
      * @param project The project
      * @param file The file
-     * @param lock The lock
-     * @param ref A weak reference for the Thread that acquired the lock
-     * @return The runnable
-     * @checkstyle ParameterNumber (4 lines)
      */
-    private Runnable killer(final Project project, final String file,
-        final Lock lock, final WeakReference<Thread> ref) {
-        final Exception location = new IllegalStateException("Here!");
-        return new RunnableOf<Object>(
-            input -> {
-                if (lock.tryLock(this.threshold, TimeUnit.MILLISECONDS)) {
-                    lock.unlock();
-                    this.killers.remove(project);
+    public void release(final Project project, final String file) {
+        this.killers.computeIfPresent(
+            Terminator.key(project, file),
+            (key, hold) -> {
+                Terminator.Hold left = hold;
+                --hold.count;
+                if (hold.count == 0) {
+                    this.wheel.cancel(hold.timeout);
+                    left = null;
+                }
+                return left;
+            }
+        );
+    }
+
+    /**
+     * Move the wheel and deal with the holds that are overdue.
+     */
+    private void tick() {
+        for (final Terminator.Hold hold
+            : this.wheel.advance(System.currentTimeMillis())) {
+            this.overdue(hold);
+        }
+    }
+
+    /**
+     * The hold is overdue.
+     *
+     * <p>The thread is interrupted only if the hold is still in the map
+     * and the thread still holds the lock, both checked while the entry
+     * of the hold is locked, so that a thread which released the file
+     * in the meantime is never interrupted. If the thread is dead, its
+     * holds of the lock are dropped, since nobody else can release
+     * them.</p>
+     *
+     * @param hold The hold
+     */
+    private void overdue(final Terminator.Hold hold) {
+        final AtomicReference<Thread> victim = new AtomicReference<>();
+        final AtomicBoolean dead = new AtomicBoolean();
+        this.killers.computeIfPresent(
+            hold.key,
+            (key, same) -> {
+                Terminator.Hold left = same;
+                final Thread thread = same.thread.get();
+                if (same != hold) {
+                    left = same;
+                } else if (thread == null
+                    || !same.lock.holders().contains(thread)) {
+                    left = null;
+                } else if (thread.isAlive()) {
+                    thread.interrupt();
+                    victim.set(thread);
+                    same.timeout = this.wheel.schedule(same, this.threshold);
                 } else {
-                    final Thread thread = ref.get();
-                    if (thread == null) {
-                        Logger.warn(
-                            this,
-                            // @checkstyle LineLength (1 line)
-                            "Thread disposed without proper lock unlock. Unlocking lock for \"%s\" in %s, %s: %[exception]s",
-                            file, project.pid(), lock, location
-                        );
-                        lock.unlock();
-                        this.killers.remove(project);
-                    } else {
-                        Logger.warn(
-                            this,
-                            // @checkstyle LineLength (1 line)
-                            "Thread %d/%s interrupted because of too long hold of \"%s\" in %s (over %d msec), %s: %[exception]s",
-                            thread.getId(), thread.getName(),
-                            file, project.pid(), this.threshold, lock, location
-                        );
-                        new SafeSentry(this.farm).capture(
-                            new Exception(
-                                String.format(
-                                    // @checkstyle LineLength (1 line)
-                                    "Thread %d/%s interrupted because of too long hold of \"%s\" in %s (over %d msec), %s",
-                                    thread.getId(), thread.getName(),
-                                    file, project.pid(), this.threshold, lock
-                                ),
-                                location
-                            )
-                        );
-                        thread.interrupt();
-                        this.service.submit(
-                            new VerboseRunnable(
-                                this.killer(project, file, lock, ref),
-                                true, true
-                            )
-                        );
-                    }
+                    dead.set(same.lock.forget(thread));
+                    left = null;
                 }
+                return left;
             }
         );
+        final Project project = hold.project;
+        final String file = hold.file;
+        if (dead.get()) {
+            Logger.warn(
+                this,
+                // @checkstyle LineLength (1 line)
+                "Thread died without proper lock unlock. Unlocking lock for \"%s\" in %s, %s: %[exception]s",
+                file, Terminator.pid(project), hold.lock, hold.location
+            );
+        }
+        final Thread thread = victim.get();
+        if (thread != null) {
+            Logger.warn(
+                this,
+                // @checkstyle LineLength (1 line)
+                "Thread %d/%s interrupted because of too long hold of \"%s\" in %s (over %d msec), %s: %[exception]s",
+                thread.getId(), thread.getName(),
+                file, Terminator.pid(project), this.threshold, hold.lock,
+                hold.location
+            );
+            new SafeSentry(this.farm).capture(
+                new Exception(
+                    String.format(
+                        // @checkstyle LineLength (1 line)
+                        "Thread %d/%s interrupted because of too long hold of \"%s\" in %s (over %d msec), %s",
+                        thread.getId(), thread.getName(),
+                        file, Terminator.pid(project), this.threshold,
+                        hold.lock
+                    ),
+                    hold.location
+                )
+            );
+        }
+    }
+
+    /**
+     * Key of a hold: the project, the file and the current thread.
+     * @param project The project
+     * @param file The file
+     * @return Key
+     */
+    private static List<Object> key(final Project project,
+        final String file) {
+        return Arrays.asList(project, file, Thread.currentThread().getId());
+    }
+
+    /**
+     * Project ID, for logging.
+     * @param project The project
+     * @return PID or the error
+     */
+    private static String pid(final Project project) {
+        String pid;
+        try {
+            pid = project.pid();
+        } catch (final IOException ex) {
+            pid = ex.getMessage();
+        }
+        return pid;
+    }
+
+    /**
+     * Hold of a file by a thread.
+     */
+    private static final class Hold {
+        /**
+         * Key.
+         */
+        private final List<Object> key;
+        /**
+         * The project.
+         */
+        private final Project project;
+        /**
+         * The file.
+         */
+        private final String file;
+        /**
+         * The lock.
+         */
+        private final SyncLock lock;
+        /**
+         * The thread that holds the file.
+         */
+        private final WeakReference<Thread> thread;
+        /**
+         * Where the file was taken.
+         */
+        private final Exception location;
+        /**
+         * How many times the thread took the file.
+         */
+        private int count;
+        /**
+         * Deadline in the wheel.
+         */
+        private TimerWheel.Timeout<Terminator.Hold> timeout;
+        /**
+         * Ctor.
+         * @param pkt The project
+         * @param name The file
+         * @param lck The lock
+         */
+        Hold(final Project pkt, final String name, final SyncLock lck) {
+            this.key = Terminator.key(pkt, name);
+            this.project = pkt;
+            this.file = name;
+            this.lock = lck;
+            this.thread = new WeakReference<>(Thread.currentThread());
+            this.location = new IllegalStateException("Here!");
+        }
     }
 }
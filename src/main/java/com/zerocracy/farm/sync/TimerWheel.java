@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hierarchical timer wheel.
+ *
+ * <p>Time goes in ticks. The first level has a slot for each of
+ * the next 64 ticks, the second one a slot for each of the next 64
+ * spans of 64 ticks, and so on. A timeout is put into the slot of the
+ * lowest level that covers its deadline and goes down a level when
+ * its slot of a higher level comes. Scheduling and cancelling take
+ * constant time, no matter how many timeouts are there.</p>
+ *
+ * <p>The wheel doesn't have its own clock, somebody has to call
+ * {@link #advance(long)}. The class is thread-safe.</p>
+ *
+ * @param <T> Type of payload
+ * @since 1.0
+ */
+final class TimerWheel<T> {
+
+    /**
+     * Bits of a level.
+     */
+    private static final int BITS = 6;
+
+    /**
+     * Slots in a level.
+     */
+    private static final int SLOTS = 1 << TimerWheel.BITS;
+
+    /**
+     * Levels.
+     */
+    private static final int LEVELS = 4;
+
+    /**
+     * Milliseconds in a tick.
+     */
+    private final long resolution;
+
+    /**
+     * Slots, by levels.
+     */
+    private final List<List<Set<TimerWheel.Timeout<T>>>> levels;
+
+    /**
+     * Time of the tick zero, in milliseconds.
+     */
+    private final long zero;
+
+    /**
+     * Current tick.
+     */
+    private long tick;
+
+    /**
+     * Ctor.
+     * @param msec Milliseconds in a tick
+     */
+    TimerWheel(final long msec) {
+        this.resolution = msec;
+        this.levels = new ArrayList<>(TimerWheel.LEVELS);
+        for (int lvl = 0; lvl < TimerWheel.LEVELS; ++lvl) {
+            final List<Set<TimerWheel.Timeout<T>>> slots =
+                new ArrayList<>(TimerWheel.SLOTS);
+            for (int idx = 0; idx < TimerWheel.SLOTS; ++idx) {
+                slots.add(new HashSet<>(0));
+            }
+            this.levels.add(slots);
+        }
+        this.zero = System.currentTimeMillis();
+    }
+
+    /**
+     * Schedule a timeout.
+     * @param payload What is due
+     * @param delay Delay, in milliseconds
+     * @return Timeout, to cancel it
+     */
+    public synchronized TimerWheel.Timeout<T> schedule(final T payload,
+        final long delay) {
+        final long now = (System.currentTimeMillis() - this.zero)
+            / this.resolution;
+        final TimerWheel.Timeout<T> timeout = new TimerWheel.Timeout<>(
+            payload,
+            Math.max(now, this.tick)
+                + Math.max(1L, (delay + this.resolution - 1L) / this.resolution)
+        );
+        this.place(timeout);
+        return timeout;
+    }
+
+    /**
+     * Cancel a timeout, if it's not due yet.
+     * @param timeout The timeout
+     */
+    public synchronized void cancel(final TimerWheel.Timeout<T> timeout) {
+        if (timeout.slot != null) {
+            timeout.slot.remove(timeout);
+            timeout.slot = null;
+        }
+    }
+
+    /**
+     * Number of timeouts waiting.
+     * @return Size
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (final List<Set<TimerWheel.Timeout<T>>> slots : this.levels) {
+            for (final Set<TimerWheel.Timeout<T>> slot : slots) {
+                size += slot.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Move the time forward.
+     * @param now Current time, in milliseconds
+     * @return Payloads of timeouts that are due
+     */
+    public synchronized Collection<T> advance(final long now) {
+        final long target = (now - this.zero) / this.resolution;
+        final Collection<T> due = new LinkedList<>();
+        while (this.tick < target) {
+            ++this.tick;
+            for (int lvl = 1; lvl < TimerWheel.LEVELS; ++lvl) {
+                final long span = 1L << (TimerWheel.BITS * lvl);
+                if (this.tick % span != 0L) {
+                    break;
+                }
+                final Set<TimerWheel.Timeout<T>> slot = this.slot(
+                    lvl, this.tick
+                );
+                final Collection<TimerWheel.Timeout<T>> moved =
+                    new ArrayList<>(slot);
+                slot.clear();
+                for (final TimerWheel.Timeout<T> timeout : moved) {
+                    this.place(timeout);
+                }
+            }
+            final Set<TimerWheel.Timeout<T>> slot = this.slot(0, this.tick);
+            final Collection<TimerWheel.Timeout<T>> expired =
+                new ArrayList<>(slot);
+            slot.clear();
+            for (final TimerWheel.Timeout<T> timeout : expired) {
+                if (timeout.deadline <= this.tick) {
+                    timeout.slot = null;
+                    due.add(timeout.payload);
+                } else {
+                    this.place(timeout);
+                }
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Put the timeout to the slot that covers its deadline.
+     * @param timeout The timeout
+     */
+    private void place(final TimerWheel.Timeout<T> timeout) {
+        final long delta = Math.max(0L, timeout.deadline - this.tick);
+        int lvl = 0;
+        while (lvl < TimerWheel.LEVELS - 1
+            && delta >= 1L << (TimerWheel.BITS * (lvl + 1))) {
+            ++lvl;
+        }
+        final Set<TimerWheel.Timeout<T>> slot = this.slot(
+            lvl, Math.max(timeout.deadline, this.tick)
+        );
+        slot.add(timeout);
+        timeout.slot = slot;
+    }
+
+    /**
+     * Slot of the level, which covers the tick.
+     * @param lvl Level
+     * @param when The tick
+     * @return Slot
+     */
+    private Set<TimerWheel.Timeout<T>> slot(final int lvl, final long when) {
+        return this.levels.get(lvl).get(
+            (int) (when >>> (TimerWheel.BITS * lvl)) & (TimerWheel.SLOTS - 1)
+        );
+    }
+
+    /**
+     * Timeout.
+     * @param <T> Type of payload
+     */
+    static final class Timeout<T> {
+        /**
+         * Payload.
+         */
+        private final T payload;
+        /**
+         * Deadline, in ticks.
+         */
+        private final long deadline;
+        /**
+         * Slot it is in, NULL if it's not in the wheel.
+         */
+        private Set<TimerWheel.Timeout<T>> slot;
+        /**
+         * Ctor.
+         * @param load Payload
+         * @param when Deadline, in ticks
+         */
+        Timeout(final T load, final long when) {
+            this.payload = load;
+            this.deadline = when;
+        }
+    }
+}
@@ -22,6 +22,8 @@ import com.zerocracy.Project;
 import com.zerocracy.Xocument;
 import com.zerocracy.cash.Cash;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import org.cactoos.Scalar;
 import org.cactoos.scalar.UncheckedScalar;
 import org.cactoos.time.DateAsText;
@@ -102,6 +104,12 @@ public final class Ledger {
 
     /**
      * Add transactions.
+     *
+     * <p>All transactions and their balance updates are applied, validated
+     * and written in one batch. Balances changed by earlier transactions
+     * of the same call are kept in memory, since the document is not
+     * modified until the batch is committed.</p>
+     *
      * @param tns Transactions
      * @return First transaction ID
      * @throws IOException If fails
@@ -116,6 +124,8 @@ public final class Ledger {
                     xoc.xpath("max(//transaction/@id)").get(0)
                 );
             }
+            final Xocument.Batch batch = xoc.batch();
+            final Map<String, Cash> balances = new HashMap<>(0);
             for (int idx = 0; idx < tns.length; ++idx) {
                 final Directives dirs = new Directives()
                     .xpath("/ledger")
@@ -126,9 +136,10 @@ public final class Ledger {
                 if (idx > 0) {
                     dirs.attr("parent", before + 1L);
                 }
-                xoc.modify(dirs);
-                tns[idx].update(xoc);
+                batch.modify(dirs);
+                tns[idx].update(xoc, batch, balances);
             }
+            batch.commit();
             return before + 1L;
         }
     }
@@ -244,37 +255,47 @@ public final class Ledger {
         /**
          * Update balance.
          * @param xoc The document
+         * @param batch The batch to add directives to
+         * @param balances Balances already changed in this batch
          * @throws IOException If fails
          */
-        public void update(final Xocument xoc) throws IOException {
-            this.update(xoc, "dt", this.debit, this.debitx);
-            this.update(xoc, "ct", this.credit, this.creditx);
+        public void update(final Xocument xoc, final Xocument.Batch batch,
+            final Map<String, Cash> balances) throws IOException {
+            this.update(xoc, batch, balances, "dt", this.debit, this.debitx);
+            this.update(xoc, batch, balances, "ct", this.credit, this.creditx);
         }
 
         /**
          * Update balance.
          * @param xoc The document
+         * @param batch The batch to add directives to
+         * @param balances Balances already changed in this batch
          * @param field Field either CT or DT
          * @param name Account name
          * @param namex Account xname
          * @throws IOException If fails
-         * @checkstyle ParameterNumberCheck (5 lines)
+         * @checkstyle ParameterNumberCheck (6 lines)
          */
-        public void update(final Xocument xoc, final String field,
+        private void update(final Xocument xoc, final Xocument.Batch batch,
+            final Map<String, Cash> balances, final String field,
             final String name, final String namex) throws IOException {
             final String xpath = String.format(
                 "/ledger/balance/account[name='%s' and namex='%s']/%s",
                 name, namex, field
             );
             final Cash before;
-            if (xoc.nodes(xpath).isEmpty()) {
+            if (balances.containsKey(xpath)) {
+                before = balances.get(xpath);
+            } else if (xoc.nodes(xpath).isEmpty()) {
                 before = Cash.ZERO;
             } else {
                 before = new Cash.S(
                     xoc.xpath(String.format("%s/text()", xpath)).get(0)
                 );
             }
-            xoc.modify(
+            final Cash after = before.add(this.amount);
+            balances.put(xpath, after);
+            batch.modify(
                 new Directives()
                     .xpath("/ledger")
                     .addIf("balance")
@@ -290,7 +311,7 @@ public final class Ledger {
                     .add("namex").set(namex).up()
                     .add("ct").set(Cash.ZERO).up()
                     .add("dt").set(Cash.ZERO).up()
-                    .xpath(xpath).set(before.add(this.amount))
+                    .xpath(xpath).set(after)
             );
         }
 
@@ -61,4 +61,9 @@ public final class Pmo implements Project {
     public Item acq(final String file) throws IOException {
         return new IoCheckedScalar<>(this.pkt).value().acq(file);
     }
+
+    @Override
+    public Item read(final String file) throws IOException {
+        return new IoCheckedScalar<>(this.pkt).value().read(file);
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.zerocracy.farm.fake.FkItem;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link CowItem}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class CowItemTest {
+
+    @Test
+    public void doesntCopyUntilAsked() throws Exception {
+        try (final CowItem item = new CowItem(new FkItem("<a/>"))) {
+            MatcherAssert.assertThat(item.copied(), Matchers.is(false));
+            MatcherAssert.assertThat(item.changes(), Matchers.isEmptyString());
+        }
+    }
+
+    @Test
+    public void writesOriginalOnlyOnCommit() throws Exception {
+        final Path file = Files.createTempFile("cow", ".xml");
+        Files.write(file, "<x/>".getBytes());
+        try (final CowItem item = new CowItem(new FkItem(file))) {
+            Files.write(item.path(), "<y>changed</y>".getBytes());
+            MatcherAssert.assertThat(
+                new TextOf(file).asString(),
+                Matchers.equalTo("<x/>")
+            );
+            MatcherAssert.assertThat(
+                item.changes(),
+                Matchers.containsString("Length")
+            );
+            item.commit();
+        }
+        MatcherAssert.assertThat(
+            new TextOf(file).asString(),
+            Matchers.equalTo("<y>changed</y>")
+        );
+    }
+
+    @Test
+    public void dropsWritesFromOtherThreadsWithoutCommit() throws Exception {
+        final Path file = Files.createTempFile("cow", ".xml");
+        Files.write(file, "<p/>".getBytes());
+        try (final CowItem item = new CowItem(new FkItem(file))) {
+            CompletableFuture.runAsync(
+                () -> {
+                    try {
+                        Files.write(item.path(), "<q>lost</q>".getBytes());
+                    } catch (final IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            ).get();
+            MatcherAssert.assertThat(item.copied(), Matchers.is(true));
+            MatcherAssert.assertThat(
+                item.changes(), Matchers.not(Matchers.isEmptyString())
+            );
+        }
+        MatcherAssert.assertThat(
+            new TextOf(file).asString(),
+            Matchers.equalTo("<p/>")
+        );
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import java.io.FileNotFoundException;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Datum}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class DatumTest {
+
+    @Test
+    public void readsFileOfCurrentRelease() throws Exception {
+        MatcherAssert.assertThat(
+            new TextOf(
+                new Datum(
+                    String.format(
+                        "%s/latest/xsd/pm/staff/roles.xsd", Datum.HOME
+                    )
+                )
+            ).asString(),
+            Matchers.equalTo(
+                new TextOf(
+                    new Datum(
+                        String.format(
+                            "/%s/xsd/pm/staff/roles.xsd", Xocument.VERSION
+                        )
+                    )
+                ).asString()
+            )
+        );
+    }
+
+    @Test
+    public void bundlesCurrentRelease() throws Exception {
+        MatcherAssert.assertThat(
+            System.getProperty("datum.version", Xocument.VERSION),
+            Matchers.equalTo(Xocument.VERSION)
+        );
+        MatcherAssert.assertThat(
+            Datum.preload(),
+            Matchers.greaterThan(0)
+        );
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void staysOfflineByDefault() throws Exception {
+        new TextOf(new Datum("/latest/xsd/absent/file.xsd")).asString();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.cactoos.io.LengthOf;
+import org.cactoos.io.TeeInput;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Test case for {@link DomCache}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class DomCacheTest {
+
+    @Test
+    public void parsesDocumentOnlyOnce() throws Exception {
+        final Path temp = Files.createTempFile("dom", ".xml");
+        new LengthOf(new TeeInput("<a>1</a>", temp)).intValue();
+        final DomCache cache = new DomCache(Tv.TEN, Tv.MILLION);
+        for (int idx = 0; idx < Tv.FIVE; ++idx) {
+            MatcherAssert.assertThat(
+                cache.get(temp, DomCacheTest::parse).xpath("/a/text()"),
+                Matchers.contains("1")
+            );
+        }
+        MatcherAssert.assertThat(cache.misses(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(cache.hits(), Matchers.equalTo(4L));
+    }
+
+    @Test
+    public void parsesModifiedDocumentAgain() throws Exception {
+        final Path temp = Files.createTempFile("dom", ".xml");
+        new LengthOf(new TeeInput("<b>1</b>", temp)).intValue();
+        final FileTime time = Files.getLastModifiedTime(temp);
+        final DomCache cache = new DomCache(Tv.TEN, Tv.MILLION);
+        cache.get(temp, DomCacheTest::parse);
+        new LengthOf(new TeeInput("<b>2</b>", temp)).intValue();
+        Files.setLastModifiedTime(temp, time);
+        MatcherAssert.assertThat(
+            cache.get(temp, DomCacheTest::parse).xpath("/b/text()"),
+            Matchers.contains("2")
+        );
+        MatcherAssert.assertThat(cache.misses(), Matchers.equalTo(2L));
+    }
+
+    @Test
+    public void givesCopyToEachCaller() throws Exception {
+        final Path temp = Files.createTempFile("dom", ".xml");
+        new LengthOf(new TeeInput("<e/>", temp)).intValue();
+        final DomCache cache = new DomCache(Tv.TEN, Tv.MILLION);
+        new Xembler(new Directives().xpath("/e").add("f")).applyQuietly(
+            cache.get(temp, DomCacheTest::parse).node()
+        );
+        new Xembler(new Directives().xpath("/e").add("g")).applyQuietly(
+            cache.peek(temp).node()
+        );
+        MatcherAssert.assertThat(
+            cache.get(temp, DomCacheTest::parse).xpath("/e/*"),
+            Matchers.empty()
+        );
+        MatcherAssert.assertThat(cache.misses(), Matchers.equalTo(1L));
+    }
+
+    @Test
+    public void evictsEldestDocuments() throws Exception {
+        final DomCache cache = new DomCache(2, Tv.MILLION);
+        final Path first = Files.createTempFile("dom", ".xml");
+        new LengthOf(new TeeInput("<c/>", first)).intValue();
+        cache.get(first, DomCacheTest::parse);
+        for (int idx = 0; idx < 2; ++idx) {
+            final Path temp = Files.createTempFile("dom", ".xml");
+            new LengthOf(
+                new TeeInput(String.format("<d>%d</d>", idx), temp)
+            ).intValue();
+            cache.get(temp, DomCacheTest::parse);
+        }
+        cache.get(first, DomCacheTest::parse);
+        MatcherAssert.assertThat(cache.misses(), Matchers.equalTo(4L));
+        MatcherAssert.assertThat(
+            new XMLDocument(
+                new Xembler(
+                    new Directives().add("guts").append(cache.guts())
+                ).xmlQuietly()
+            ),
+            XhtmlMatchers.hasXPaths(
+                "/guts/dom[@size='2']",
+                "/guts/dom[@hits='0' and @misses='4']"
+            )
+        );
+    }
+
+    /**
+     * Parse the content.
+     * @param bytes The content
+     * @return XML
+     */
+    private static XML parse(final byte[] bytes) {
+        return new XMLDocument(new String(bytes, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.aspects.Tv;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Fingerprints}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class FingerprintsTest {
+
+    @Test
+    public void trustsValidatedContent() {
+        final Fingerprints prints = new Fingerprints(Tv.TEN);
+        prints.valid("<people/>".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            prints.trusted("<people/>".getBytes(StandardCharsets.UTF_8)),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            prints.trusted(
+                "<people><p/></people>".getBytes(StandardCharsets.UTF_8)
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    public void forgetsEldestContent() {
+        final Fingerprints prints = new Fingerprints(2);
+        for (int idx = 0; idx < Tv.THREE; ++idx) {
+            prints.valid(
+                String.format("<wbs>%d</wbs>", idx)
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        MatcherAssert.assertThat(
+            prints.trusted("<wbs>0</wbs>".getBytes(StandardCharsets.UTF_8)),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            prints.trusted("<wbs>2</wbs>".getBytes(StandardCharsets.UTF_8)),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    public void distrustsEverythingInStrictMode() {
+        final Fingerprints prints = new Fingerprints(Tv.TEN);
+        final byte[] content = "<roles/>".getBytes(StandardCharsets.UTF_8);
+        prints.valid(content);
+        System.setProperty(Fingerprints.STRICT, "true");
+        try {
+            MatcherAssert.assertThat(
+                prints.trusted(content),
+                Matchers.is(false)
+            );
+        } finally {
+            System.clearProperty(Fingerprints.STRICT);
+        }
+    }
+
+}
@@ -73,6 +73,57 @@ public final class XocumentTest {
         );
     }
 
+    @Test
+    public void modifiesOnlyWhenDirectivesChangeDocument() throws Exception {
+        final Path temp = Files.createTempFile("modify", ".xml");
+        final Xocument xoc = new Xocument(temp).bootstrap("pm/staff/roles");
+        xoc.modify(
+            new Directives().xpath("/roles")
+                .add("person").attr("id", "yegor256")
+                .add("role").set("ARC")
+        );
+        final String before = new TextOf(temp).asString();
+        xoc.modify(new Directives().xpath("/roles/person[@id='yegor256']"));
+        MatcherAssert.assertThat(
+            new TextOf(temp).asString(),
+            Matchers.equalTo(before)
+        );
+        MatcherAssert.assertThat(
+            xoc.xpath("/roles/person[@id='yegor256']/role/text()"),
+            Matchers.contains("ARC")
+        );
+        MatcherAssert.assertThat(
+            before,
+            XhtmlMatchers.hasXPath(
+                String.format("/roles[@version='%s']", Xocument.VERSION)
+            )
+        );
+    }
+
+    @Test
+    public void modifiesInBatch() throws Exception {
+        final Path temp = Files.createTempFile("batch", ".xml");
+        final Xocument.Batch batch = new Xocument(temp)
+            .bootstrap("pm/staff/roles")
+            .batch();
+        for (int idx = 0; idx < Tv.FIVE; ++idx) {
+            batch.modify(
+                new Directives().xpath("/roles")
+                    .add("person").attr("id", String.format("user%d", idx))
+                    .add("role").set("DEV")
+            );
+        }
+        MatcherAssert.assertThat(
+            new Xocument(temp).nodes("/roles/person"),
+            Matchers.empty()
+        );
+        batch.commit();
+        MatcherAssert.assertThat(
+            new Xocument(temp).nodes("/roles/person"),
+            Matchers.hasSize(Tv.FIVE)
+        );
+    }
+
     // @todo #1037:30min Xocument is not thread safe. Because of this, multiple
     //  threads modifying the same file can result in race conditions. Let's
     //  fix the concurrency issue, then enable this unit test.
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.xml.XML;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link ClaimIn}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class ClaimInTest {
+
+    @Test
+    public void readsComponents() throws Exception {
+        final ClaimIn claim = new ClaimIn(
+            new ClaimXml(
+                new ClaimOut()
+                    .type("claim-in-test")
+                    .token("test;token")
+                    .author("yegor256")
+                    .param("login", "Jeff")
+                    .param("job", "gh:test/test#1")
+            ).asXml()
+        );
+        MatcherAssert.assertThat(
+            claim.type(),
+            Matchers.equalTo("claim-in-test")
+        );
+        MatcherAssert.assertThat(claim.token(), Matchers.equalTo("test;token"));
+        MatcherAssert.assertThat(claim.author(), Matchers.equalTo("yegor256"));
+        MatcherAssert.assertThat(
+            claim.param("login"),
+            Matchers.equalTo("jeff")
+        );
+        MatcherAssert.assertThat(claim.hasParam("cash"), Matchers.is(false));
+        MatcherAssert.assertThat(
+            claim.params(),
+            Matchers.hasEntry("job", "gh:test/test#1")
+        );
+    }
+
+    @Test
+    public void doesntParseTwice() throws Exception {
+        final XML xml = new ClaimIn(
+            new ClaimXml(new ClaimOut().type("parsed-once")).asXml()
+        ).xml();
+        MatcherAssert.assertThat(
+            new ClaimIn(xml).xml(),
+            Matchers.sameInstance(xml)
+        );
+        MatcherAssert.assertThat(
+            new ClaimIn(xml).hasToken(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsOnAbsentParam() throws Exception {
+        new ClaimIn(
+            new ClaimXml(new ClaimOut().type("no-params")).asXml()
+        ).param("job");
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.Message;
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.zerocracy.farm.fake.FkProject;
+import com.zerocracy.shutdown.ShutdownFarm;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.scalar.And;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Test case for {@link ClaimsRoutine}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class ClaimsRoutineTest {
+
+    @Test
+    public void receivesAllMessagesInManyReceivers() throws Exception {
+        final AmazonSQS sqs = new FkSqs();
+        final String queue = "fake-queue";
+        final ClaimsSqs claims = new ClaimsSqs(sqs, queue, new FkProject());
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            new ClaimOut()
+                .type("routine-test")
+                .param("nonce", idx)
+                .postTo(claims);
+        }
+        final List<Message> messages = new CopyOnWriteArrayList<>();
+        try (final ClaimsRoutine routine = new ClaimsRoutine(
+            () -> sqs, () -> queue,
+            msgs -> {
+                messages.addAll(msgs);
+                new And(
+                    (Message msg) -> sqs.deleteMessage(
+                        queue, msg.getReceiptHandle()
+                    ),
+                    msgs
+                ).value();
+            },
+            () -> Tv.FIVE,
+            Tv.THREE
+        )) {
+            routine.start(new ShutdownFarm.Hook());
+            final long start = System.currentTimeMillis();
+            while (messages.size() < Tv.TWENTY
+                && System.currentTimeMillis() - start
+                < TimeUnit.SECONDS.toMillis((long) Tv.TEN)) {
+                TimeUnit.MILLISECONDS.sleep((long) Tv.HUNDRED);
+            }
+        }
+        MatcherAssert.assertThat(messages, Matchers.hasSize(Tv.TWENTY));
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(
+                new Xembler(
+                    new Directives().add("guts")
+                        .append(ClaimsRoutine.METRICS.guts())
+                ).xmlQuietly()
+            ),
+            XhtmlMatchers.hasXPath("/guts/sqs[@receives > 0]")
+        );
+    }
+
+    @Test
+    public void doesntReceiveWithoutCapacity() throws Exception {
+        final AmazonSQS sqs = new FkSqs();
+        final String queue = "fake-queue-2";
+        new ClaimOut().type("no-capacity").postTo(
+            new ClaimsSqs(sqs, queue, new FkProject())
+        );
+        final List<Message> messages = new CopyOnWriteArrayList<>();
+        try (final ClaimsRoutine routine = new ClaimsRoutine(
+            () -> sqs, () -> queue, messages::addAll, () -> 0, 1
+        )) {
+            routine.run();
+        }
+        MatcherAssert.assertThat(messages, Matchers.empty());
+    }
+}
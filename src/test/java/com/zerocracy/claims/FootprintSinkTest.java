@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.aspects.Tv;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.zerocracy.entry.ExtMongo;
+import com.zerocracy.farm.props.PropsFarm;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bson.Document;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link FootprintSink}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class FootprintSinkTest {
+
+    @Test
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    public void writesAllChangesInOrder() throws Exception {
+        final MongoCollection<Document> col = new ExtMongo(
+            new PropsFarm(), UUID.randomUUID().toString()
+        ).value().getDatabase(Footprint.DBNAME).getCollection(Footprint.CLAIMS);
+        final FootprintSink sink = new FootprintSink(
+            col, Tv.TEN, Tv.THREE, (long) Tv.HUNDRED
+        );
+        for (long cid = 0L; cid < (long) Tv.FIFTY; ++cid) {
+            sink.exec(new InsertOneModel<>(new Document("cid", cid)));
+            sink.exec(
+                new UpdateOneModel<>(
+                    Filters.eq("cid", cid), Updates.set("closed", true)
+                )
+            );
+        }
+        sink.flush();
+        MatcherAssert.assertThat(
+            col.find(Filters.eq("closed", true)),
+            Matchers.iterableWithSize(Tv.FIFTY)
+        );
+        sink.exec(new InsertOneModel<>(new Document("cid", -1L)));
+        sink.close();
+        MatcherAssert.assertThat(
+            col.find(Filters.eq("cid", -1L)),
+            Matchers.iterableWithSize(1)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    public void flushesWhileOthersKeepWriting() throws Exception {
+        final MongoCollection<Document> col = new ExtMongo(
+            new PropsFarm(), UUID.randomUUID().toString()
+        ).value().getDatabase(Footprint.DBNAME).getCollection(Footprint.CLAIMS);
+        final FootprintSink sink = new FootprintSink(
+            col, Tv.TEN, Tv.THREE, (long) Tv.HUNDRED
+        );
+        final AtomicBoolean done = new AtomicBoolean();
+        final CountDownLatch started = new CountDownLatch(1);
+        final ExecutorService service = Executors.newFixedThreadPool(2);
+        try {
+            service.submit(
+                () -> {
+                    long cid = 0L;
+                    while (!done.get()) {
+                        sink.exec(
+                            new InsertOneModel<>(new Document("cid", cid))
+                        );
+                        started.countDown();
+                        ++cid;
+                    }
+                    return cid;
+                }
+            );
+            started.await(1L, TimeUnit.MINUTES);
+            sink.exec(new InsertOneModel<>(new Document("cid", -1L)));
+            service.submit(
+                () -> {
+                    sink.flush();
+                    return null;
+                }
+            ).get(1L, TimeUnit.MINUTES);
+            MatcherAssert.assertThat(
+                col.find(Filters.eq("cid", -1L)),
+                Matchers.iterableWithSize(1)
+            );
+        } finally {
+            done.set(true);
+            service.shutdown();
+            sink.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void keepsWritingAfterFailedBulk() throws Exception {
+        final MongoCollection<Document> col =
+            Mockito.mock(MongoCollection.class);
+        final AtomicInteger writes = new AtomicInteger();
+        Mockito.when(
+            col.bulkWrite(
+                Mockito.anyList(), Mockito.any(BulkWriteOptions.class)
+            )
+        ).thenThrow(new IllegalStateException("Not a Mongo error"))
+            .thenAnswer(
+                inv -> {
+                    writes.addAndGet(((List<?>) inv.getArguments()[0]).size());
+                    return null;
+                }
+            );
+        final FootprintSink sink = new FootprintSink(
+            col, 2, 1, (long) Tv.TEN
+        );
+        for (long cid = 0L; cid < (long) Tv.TEN; ++cid) {
+            sink.exec(new InsertOneModel<>(new Document("cid", cid)));
+        }
+        sink.flush();
+        sink.close();
+        MatcherAssert.assertThat(writes.get(), Matchers.equalTo(Tv.NINE));
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.jcabi.aspects.Tv;
+import com.zerocracy.farm.fake.FkProject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link SqsBatch}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class SqsBatchTest {
+
+    @Test
+    public void sendsClaimsInBatches() throws Exception {
+        final FkSqs fake = new FkSqs();
+        final SqsBatchTest.Flaky sqs = new SqsBatchTest.Flaky(fake, 0);
+        final String queue = "batch.fifo";
+        final SqsBatch batch = new SqsBatch(sqs, queue);
+        final Claims claims = new ClaimsSqs(batch, new FkProject());
+        try (final ClaimsBatch run = new ClaimsBatch()) {
+            for (int idx = 0; idx < Tv.TWENTY + Tv.FIVE; ++idx) {
+                new ClaimOut().type("batch-test").param("nonce", idx)
+                    .postTo(claims);
+                new ClaimOut().type("batch-test").param("nonce", idx)
+                    .postTo(claims);
+            }
+        }
+        MatcherAssert.assertThat(sqs.calls(), Matchers.equalTo(Tv.FIVE));
+        MatcherAssert.assertThat(
+            SqsBatchTest.depth(fake, queue),
+            Matchers.equalTo(Integer.toString(Tv.TWENTY + Tv.FIVE))
+        );
+    }
+
+    @Test
+    public void retriesFailedMessages() throws Exception {
+        final FkSqs fake = new FkSqs();
+        final SqsBatchTest.Flaky sqs = new SqsBatchTest.Flaky(fake, 2);
+        final String queue = "batch-retry.fifo";
+        final SqsBatch batch = new SqsBatch(sqs, queue);
+        final Claims claims = new ClaimsSqs(batch, new FkProject());
+        try (final ClaimsBatch run = new ClaimsBatch()) {
+            for (int idx = 0; idx < Tv.SEVEN; ++idx) {
+                new ClaimOut().type("retry-test").param("nonce", idx)
+                    .postTo(claims);
+            }
+        }
+        MatcherAssert.assertThat(sqs.calls(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(sqs.resent(), Matchers.equalTo(Tv.SEVEN));
+        MatcherAssert.assertThat(
+            SqsBatchTest.depth(fake, queue),
+            Matchers.equalTo(Integer.toString(Tv.SEVEN))
+        );
+    }
+
+    @Test(expected = IOException.class)
+    public void throwsWhenMessagesStillFail() throws Exception {
+        final SqsBatchTest.Flaky sqs = new SqsBatchTest.Flaky(
+            new FkSqs(), Tv.HUNDRED
+        );
+        final Claims claims = new ClaimsSqs(
+            new SqsBatch(sqs, "batch-fail.fifo"), new FkProject()
+        );
+        try (final ClaimsBatch run = new ClaimsBatch()) {
+            new ClaimOut().type("fail-test").postTo(claims);
+        }
+    }
+
+    @Test
+    public void sendsRightAwayOutsideOfBatch() throws Exception {
+        final FkSqs fake = new FkSqs();
+        final SqsBatchTest.Flaky sqs = new SqsBatchTest.Flaky(fake, 0);
+        final String queue = "batch-none.fifo";
+        new ClaimOut().type("now-test").postTo(
+            new ClaimsSqs(new SqsBatch(sqs, queue), new FkProject())
+        );
+        MatcherAssert.assertThat(sqs.calls(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            SqsBatchTest.depth(fake, queue), Matchers.equalTo("1")
+        );
+    }
+
+    /**
+     * Number of messages in the queue.
+     * @param sqs SQS
+     * @param queue Queue URL
+     * @return Number of them
+     */
+    private static String depth(final AmazonSQS sqs, final String queue) {
+        final String name = "ApproximateNumberOfMessages";
+        return sqs.getQueueAttributes(
+            new GetQueueAttributesRequest(queue).withAttributeNames(name)
+        ).getAttributes().get(name);
+    }
+
+    /**
+     * SQS which fails a few first messages.
+     */
+    private static final class Flaky extends AbstractAmazonSQS {
+        /**
+         * Origin.
+         */
+        private final AmazonSQS origin;
+        /**
+         * How many messages to fail.
+         */
+        private final AtomicInteger fails;
+        /**
+         * Calls of sendMessageBatch.
+         */
+        private final AtomicInteger total;
+        /**
+         * Messages in all calls but the first one.
+         */
+        private final AtomicInteger again;
+        /**
+         * Ctor.
+         * @param sqs Origin
+         * @param failures How many messages to fail
+         */
+        Flaky(final AmazonSQS sqs, final int failures) {
+            super();
+            this.origin = sqs;
+            this.fails = new AtomicInteger(failures);
+            this.total = new AtomicInteger();
+            this.again = new AtomicInteger();
+        }
+        @Override
+        public SendMessageBatchResult sendMessageBatch(
+            final SendMessageBatchRequest request) {
+            if (this.total.incrementAndGet() > 1) {
+                this.again.addAndGet(request.getEntries().size());
+            }
+            final List<SendMessageBatchRequestEntry> ok = new ArrayList<>(0);
+            final List<BatchResultErrorEntry> failed = new ArrayList<>(0);
+            for (final SendMessageBatchRequestEntry entry
+                : request.getEntries()) {
+                if (this.fails.getAndDecrement() > 0) {
+                    failed.add(
+                        new BatchResultErrorEntry()
+                            .withId(entry.getId())
+                            .withCode("InternalError")
+                            .withSenderFault(false)
+                    );
+                } else {
+                    ok.add(entry);
+                }
+            }
+            final SendMessageBatchResult res = this.origin.sendMessageBatch(
+                new SendMessageBatchRequest(request.getQueueUrl(), ok)
+            );
+            res.getFailed().addAll(failed);
+            return res;
+        }
+        /**
+         * How many times batches were sent.
+         * @return Total
+         */
+        public int calls() {
+            return this.total.get();
+        }
+        /**
+         * How many messages were sent not in the first call.
+         * @return Total
+         */
+        public int resent() {
+            return this.again.get();
+        }
+    }
+}
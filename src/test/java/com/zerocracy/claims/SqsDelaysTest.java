@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.zerocracy.farm.fake.FkProject;
+import java.time.Duration;
+import java.time.Instant;
+import org.cactoos.scalar.UncheckedScalar;
+import org.cactoos.text.UncheckedText;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link SqsDelays}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class SqsDelaysTest {
+
+    @Test
+    public void hidesDelaysInQueue() throws Exception {
+        final AmazonSQS sqs = new FkSqs();
+        final String queue = "delays-short.fifo";
+        final Message msg = SqsDelaysTest.receive(sqs, queue, Duration.ZERO);
+        SqsDelaysTest.delays(sqs, queue).delay(
+            msg, Instant.now().plus(Duration.ofMinutes(1L))
+        );
+        MatcherAssert.assertThat(
+            sqs.receiveMessage(queue).getMessages(),
+            Matchers.empty()
+        );
+        MatcherAssert.assertThat(
+            SqsDelaysTest.attr(sqs, queue, "NotVisible"),
+            Matchers.equalTo("1")
+        );
+    }
+
+    @Test
+    public void keepsLongDelaysInQueue() throws Exception {
+        final AmazonSQS sqs = new FkSqs();
+        final String queue = "delays-long.fifo";
+        final Message msg = SqsDelaysTest.receive(sqs, queue, Duration.ZERO);
+        SqsDelaysTest.delays(sqs, queue).delay(
+            msg, Instant.now().plus(Duration.ofDays(2L))
+        );
+        MatcherAssert.assertThat(
+            "long delay is not hidden in queue",
+            SqsDelaysTest.attr(sqs, queue, "NotVisible"),
+            Matchers.equalTo("1")
+        );
+    }
+
+    @Test
+    public void survivesRefusedDelay() throws Exception {
+        final AmazonSQS sqs = new FkSqs();
+        final String queue = "delays-refused.fifo";
+        final SqsDelays delays = SqsDelaysTest.delays(sqs, queue);
+        final Instant until = Instant.now().plus(Duration.ofMinutes(1L));
+        delays.delay(
+            new Message().withMessageId("lost").withReceiptHandle("unknown"),
+            until
+        );
+        delays.delay(
+            SqsDelaysTest.receive(sqs, queue, Duration.ZERO), until
+        );
+        MatcherAssert.assertThat(
+            SqsDelaysTest.attr(sqs, queue, "NotVisible"),
+            Matchers.equalTo("1")
+        );
+    }
+
+    /**
+     * Post a claim and receive it.
+     * @param sqs SQS
+     * @param queue Queue URL
+     * @param delay Delay of the claim
+     * @return Message
+     * @throws Exception If fails
+     */
+    private static Message receive(final AmazonSQS sqs, final String queue,
+        final Duration delay) throws Exception {
+        new ClaimOut().type("delays-test").until(delay).postTo(
+            new ClaimsSqs(sqs, queue, new FkProject())
+        );
+        return sqs.receiveMessage(
+            new ReceiveMessageRequest(queue).withMessageAttributeNames(
+                "project", "signature", "until"
+            )
+        ).getMessages().get(0);
+    }
+
+    /**
+     * Make delays.
+     * @param sqs SQS
+     * @param queue Queue URL
+     * @return Delays
+     */
+    private static SqsDelays delays(final AmazonSQS sqs, final String queue) {
+        return new SqsDelays(
+            new UncheckedScalar<>(() -> sqs),
+            new UncheckedText(() -> queue)
+        );
+    }
+
+    /**
+     * Queue attribute.
+     * @param sqs SQS
+     * @param queue Queue URL
+     * @param suffix Suffix of the name of ApproximateNumberOfMessages
+     * @return Value
+     */
+    private static String attr(final AmazonSQS sqs, final String queue,
+        final String suffix) {
+        final String name = String.format(
+            "ApproximateNumberOfMessages%s", suffix
+        );
+        return sqs.getQueueAttributes(
+            new GetQueueAttributesRequest(queue).withAttributeNames(name)
+        ).getAttributes().get(name);
+    }
+}
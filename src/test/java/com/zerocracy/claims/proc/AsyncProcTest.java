@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims.proc;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.jcabi.aspects.Tv;
+import com.zerocracy.shutdown.ShutdownFarm;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link AsyncProc}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class AsyncProcTest {
+
+    @Test
+    public void keepsOrderInLaneAndRunsLanesInParallel() throws Exception {
+        final CountDownLatch other = new CountDownLatch(1);
+        final List<String> done = new CopyOnWriteArrayList<>();
+        final AsyncProc proc = new AsyncProc(
+            2,
+            msg -> {
+                if ("a1".equals(msg.getBody())) {
+                    other.await((long) Tv.TEN, TimeUnit.SECONDS);
+                }
+                done.add(msg.getBody());
+                if ("b1".equals(msg.getBody())) {
+                    other.countDown();
+                }
+            },
+            new ShutdownFarm.Hook()
+        );
+        proc.exec(
+            Arrays.asList(
+                AsyncProcTest.message("A", "a1"),
+                AsyncProcTest.message("A", "a2"),
+                AsyncProcTest.message("A", "a3"),
+                AsyncProcTest.message("B", "b1")
+            )
+        );
+        AsyncProcTest.await(proc);
+        MatcherAssert.assertThat(
+            done, Matchers.contains("b1", "a1", "a2", "a3")
+        );
+    }
+
+    @Test
+    public void rejectsMessagesWhenLaneIsFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> done = new CopyOnWriteArrayList<>();
+        final AsyncProc proc = new AsyncProc(
+            2, 2,
+            msg -> {
+                release.await((long) Tv.TEN, TimeUnit.SECONDS);
+                done.add(msg.getBody());
+            },
+            new ShutdownFarm.Hook()
+        );
+        proc.exec(
+            Arrays.asList(
+                AsyncProcTest.message("C", "c1"),
+                AsyncProcTest.message("C", "c2"),
+                AsyncProcTest.message("C", "c3"),
+                AsyncProcTest.message("D", "d1")
+            )
+        );
+        MatcherAssert.assertThat(proc.size(), Matchers.equalTo(Tv.THREE));
+        MatcherAssert.assertThat(proc.idle(), Matchers.equalTo(0));
+        release.countDown();
+        AsyncProcTest.await(proc);
+        MatcherAssert.assertThat(
+            done, Matchers.containsInAnyOrder("c1", "c2", "d1")
+        );
+    }
+
+    @Test
+    public void keepsWorkersIdleWhileOneLaneIsLong() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AsyncProc proc = new AsyncProc(
+            Tv.FOUR,
+            msg -> release.await((long) Tv.TEN, TimeUnit.SECONDS),
+            new ShutdownFarm.Hook()
+        );
+        proc.exec(
+            Arrays.asList(
+                AsyncProcTest.message("E", "e1"),
+                AsyncProcTest.message("E", "e2"),
+                AsyncProcTest.message("E", "e3"),
+                AsyncProcTest.message("E", "e4"),
+                AsyncProcTest.message("E", "e5")
+            )
+        );
+        MatcherAssert.assertThat(proc.size(), Matchers.equalTo(Tv.FIVE));
+        MatcherAssert.assertThat(proc.idle(), Matchers.equalTo(Tv.THREE));
+        release.countDown();
+        AsyncProcTest.await(proc);
+        MatcherAssert.assertThat(proc.idle(), Matchers.equalTo(Tv.FOUR));
+    }
+
+    /**
+     * Wait until all lanes are empty.
+     * @param proc The proc
+     * @throws InterruptedException If interrupted
+     */
+    private static void await(final AsyncProc proc)
+        throws InterruptedException {
+        final long start = System.currentTimeMillis();
+        while (proc.size() > 0
+            && System.currentTimeMillis() - start
+            < TimeUnit.SECONDS.toMillis((long) Tv.TEN)) {
+            TimeUnit.MILLISECONDS.sleep((long) Tv.TEN);
+        }
+    }
+
+    /**
+     * Make a message.
+     * @param lane Project ID
+     * @param body Body
+     * @return Message
+     */
+    private static Message message(final String lane, final String body) {
+        return new Message().withBody(body).addMessageAttributesEntry(
+            "project",
+            new MessageAttributeValue()
+                .withDataType("String")
+                .withStringValue(lane)
+        );
+    }
+}
@@ -131,4 +131,30 @@ public final class ExtMongoTest {
             );
         }
     }
+
+    @Test
+    public void sharesClientUntilClosed() throws Exception {
+        final Farm farm = new PropsFarm(new FkFarm());
+        final ExtMongo ext = new ExtMongo(farm, UUID.randomUUID().toString());
+        final MongoClient client = ext.value();
+        MatcherAssert.assertThat(ext.value(), Matchers.sameInstance(client));
+        client.getDatabase("footprint").runCommand(
+            new BsonDocument("ping", new BsonString(""))
+        );
+        MatcherAssert.assertThat(
+            new XMLDocument(
+                new Xembler(
+                    new Directives().add("guts")
+                        .append(ExtMongo.METRICS.guts())
+                ).xmlQuietly()
+            ).xpath("/guts/mongo/@checkouts").get(0),
+            Matchers.not("0")
+        );
+        ext.close();
+        MatcherAssert.assertThat(
+            ext.value(),
+            Matchers.not(Matchers.sameInstance(client))
+        );
+        ext.close();
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.entry;
+
+import com.jcabi.aspects.Tv;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.zerocracy.claims.Footprint;
+import com.zerocracy.farm.props.PropsFarm;
+import java.util.UUID;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link MongobeeChangelog}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class MongobeeChangelogTest {
+
+    @Test
+    public void removesDuplicateClaimsBeforeIndexing() throws Exception {
+        final DB mongo = new ExtMongo(
+            new PropsFarm(), UUID.randomUUID().toString()
+        ).value().getDB(Footprint.DBNAME);
+        for (int idx = 0; idx < Tv.THREE; ++idx) {
+            mongo.getCollection(Footprint.CLAIMS).insert(
+                new BasicDBObject("project", "DUPLICATS").append("cid", 1L)
+            );
+        }
+        mongo.getCollection(Footprint.CLAIMS).insert(
+            new BasicDBObject("project", "DUPLICATS").append("cid", 2L)
+        );
+        MongobeeChangelog.duplicateClaims(mongo);
+        MongobeeChangelog.uniqueClaims(mongo);
+        MatcherAssert.assertThat(
+            mongo.getCollection(Footprint.CLAIMS).count(
+                new BasicDBObject("project", "DUPLICATS")
+            ),
+            Matchers.equalTo(2L)
+        );
+    }
+}
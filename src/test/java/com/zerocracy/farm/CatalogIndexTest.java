@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.jcabi.aspects.Tv;
+import com.zerocracy.farm.fake.FkFarm;
+import com.zerocracy.pmo.Catalog;
+import com.zerocracy.pmo.Pmo;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link CatalogIndex}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class CatalogIndexTest {
+
+    @Test
+    public void findsProjectsWithoutRebuilding() throws Exception {
+        final Pmo pmo = new Pmo(new FkFarm());
+        final Catalog catalog = new Catalog(pmo).bootstrap();
+        catalog.add("ABCZZFE01", "2018/01/ABCZZFE01/");
+        catalog.add("ABCZZFE02", "2018/01/ABCZZFE02/");
+        catalog.link("ABCZZFE02", "github", "test/index");
+        final CatalogIndex index = new CatalogIndex(pmo);
+        for (int idx = 0; idx < Tv.TEN; ++idx) {
+            MatcherAssert.assertThat(
+                index.prefixes("@id='ABCZZFE01'"),
+                Matchers.contains("2018/01/ABCZZFE01/")
+            );
+        }
+        MatcherAssert.assertThat(
+            index.prefixes("links/link[@rel='github' and @href='test/index']"),
+            Matchers.contains("2018/01/ABCZZFE02/")
+        );
+        MatcherAssert.assertThat(
+            index.prefixes(""),
+            Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(index.rebuilds(), Matchers.equalTo(1L));
+    }
+
+    @Test
+    public void seesChangesInCatalog() throws Exception {
+        final Pmo pmo = new Pmo(new FkFarm());
+        final Catalog catalog = new Catalog(pmo).bootstrap();
+        final CatalogIndex index = new CatalogIndex(pmo);
+        MatcherAssert.assertThat(
+            index.prefixes("@id='ABCZZFE03'"),
+            Matchers.emptyIterable()
+        );
+        catalog.add("ABCZZFE03", "2018/01/ABCZZFE03/");
+        MatcherAssert.assertThat(
+            index.prefixes("@id='ABCZZFE03'"),
+            Matchers.contains("2018/01/ABCZZFE03/")
+        );
+        MatcherAssert.assertThat(
+            index.prefixes("alive='true'"),
+            Matchers.contains("2018/01/ABCZZFE03/")
+        );
+    }
+
+}
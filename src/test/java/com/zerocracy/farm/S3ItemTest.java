@@ -16,23 +16,45 @@
  */
 package com.zerocracy.farm;
 
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
 import com.jcabi.s3.Bucket;
 import com.jcabi.s3.Ocket;
+import com.jcabi.s3.Region;
 import com.jcabi.s3.fake.FkOcket;
+import com.jcabi.xml.XMLDocument;
 import com.zerocracy.Item;
 import com.zerocracy.Xocument;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.xembly.Directives;
+import org.xembly.Xembler;
 
 /**
  * Test case for {@link S3Item}.
@@ -120,6 +142,114 @@ public final class S3ItemTest {
         }
     }
 
+    @Test
+    public void skipsServerWhileLocalCopyIsFresh() throws Exception {
+        final Ocket ocket = new FkOcket(
+            Files.createTempDirectory("").toFile(),
+            "bucket-7", "claims.xml"
+        );
+        new Ocket.Text(ocket).write("<claims/>");
+        final S3Cache cache = new S3Cache(TimeUnit.MINUTES.toMillis(1L));
+        final Path temp = Files.createTempDirectory("").resolve("claims.xml");
+        for (int idx = 0; idx < Tv.FIVE; ++idx) {
+            try (final Item item = new S3Item(ocket, temp, cache)) {
+                item.path();
+            }
+        }
+        MatcherAssert.assertThat(
+            new XMLDocument(new Xembler(cache.guts()).xml()),
+            XhtmlMatchers.hasXPath(
+                "/s3/item[@key='claims.xml' and @heads='2' and @gets='1']"
+            )
+        );
+    }
+
+    @Test
+    public void uploadsLargeFilesWithoutBufferingThem() throws Exception {
+        final long length = 32L << 20;
+        final OcktDrained ocket = new OcktDrained(
+            new FkOcket(
+                Files.createTempDirectory("").toFile(),
+                "bucket-8", "big.xml"
+            )
+        );
+        final Path temp = Files.createTempDirectory("").resolve("big.xml");
+        final com.sun.management.ThreadMXBean bean =
+            (com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean();
+        final long tid = Thread.currentThread().getId();
+        final Item item = new S3Item(
+            ocket, temp, new S3Cache(0L), Long.MAX_VALUE
+        );
+        try (final RandomAccessFile file =
+            new RandomAccessFile(item.path().toFile(), "rw")) {
+            file.setLength(length);
+        }
+        final long before = bean.getThreadAllocatedBytes(tid);
+        item.close();
+        final long allocated = bean.getThreadAllocatedBytes(tid) - before;
+        MatcherAssert.assertThat(ocket.drained(), Matchers.equalTo(length));
+        MatcherAssert.assertThat(allocated, Matchers.lessThan(length / 8L));
+    }
+
+    @Test
+    public void uploadsFilesInParts() throws Exception {
+        final AmazonS3 aws = S3ItemTest.aws();
+        final Item item = new S3Item(
+            S3ItemTest.ocket(aws, "parts.xml"),
+            Files.createTempDirectory("").resolve("parts.xml"),
+            new S3Cache(0L), 1L
+        );
+        try (final RandomAccessFile file =
+            new RandomAccessFile(item.path().toFile(), "rw")) {
+            file.setLength(17L << 20);
+        }
+        item.close();
+        Mockito.verify(aws, Mockito.times(Tv.THREE))
+            .uploadPart(Mockito.any(UploadPartRequest.class));
+        Mockito.verify(aws).completeMultipartUpload(
+            Mockito.any(CompleteMultipartUploadRequest.class)
+        );
+        Mockito.verify(aws, Mockito.never()).abortMultipartUpload(
+            Mockito.any(AbortMultipartUploadRequest.class)
+        );
+    }
+
+    @Test
+    public void keepsFailureWhenAbortFails() throws Exception {
+        final AmazonS3 aws = S3ItemTest.aws();
+        Mockito.doThrow(new AmazonClientException("part failed"))
+            .when(aws).uploadPart(Mockito.any(UploadPartRequest.class));
+        Mockito.doThrow(new AmazonClientException("abort failed"))
+            .when(aws).abortMultipartUpload(
+                Mockito.any(AbortMultipartUploadRequest.class)
+            );
+        final Item item = new S3Item(
+            S3ItemTest.ocket(aws, "failed.xml"),
+            Files.createTempDirectory("").resolve("failed.xml"),
+            new S3Cache(0L), 1L
+        );
+        Files.write(item.path(), "<failed/>".getBytes());
+        final Collection<Throwable> errors = new LinkedList<>();
+        try {
+            item.close();
+        } catch (final IOException ex) {
+            errors.add(ex.getCause());
+            errors.addAll(Arrays.asList(ex.getSuppressed()));
+        }
+        MatcherAssert.assertThat(
+            errors,
+            Matchers.contains(
+                Matchers.hasProperty(
+                    "message", Matchers.startsWith("part failed")
+                ),
+                Matchers.hasProperty(
+                    "message", Matchers.startsWith("abort failed")
+                )
+            )
+        );
+    }
+
     /**
      * Test with ocket which simulates async work of real S3 client.
      */
@@ -141,6 +271,64 @@ public final class S3ItemTest {
         }
     }
 
+    /**
+     * Mocked S3 client, which accepts multipart uploads.
+     * @return S3 client
+     */
+    private static AmazonS3 aws() {
+        final AmazonS3 aws = Mockito.mock(AmazonS3.class);
+        final InitiateMultipartUploadResult init =
+            new InitiateMultipartUploadResult();
+        init.setUploadId("upload-1");
+        Mockito.when(
+            aws.initiateMultipartUpload(
+                Mockito.any(InitiateMultipartUploadRequest.class)
+            )
+        ).thenReturn(init);
+        Mockito.when(aws.uploadPart(Mockito.any(UploadPartRequest.class)))
+            .thenAnswer(
+                inv -> {
+                    final UploadPartResult part = new UploadPartResult();
+                    part.setPartNumber(
+                        ((UploadPartRequest) inv.getArguments()[0])
+                            .getPartNumber()
+                    );
+                    part.setETag("part");
+                    return part;
+                }
+            );
+        final CompleteMultipartUploadResult done =
+            new CompleteMultipartUploadResult();
+        done.setETag("done");
+        Mockito.when(
+            aws.completeMultipartUpload(
+                Mockito.any(CompleteMultipartUploadRequest.class)
+            )
+        ).thenReturn(done);
+        return aws;
+    }
+
+    /**
+     * Mocked ocket of an absent object, in a bucket with this client.
+     * @param aws S3 client
+     * @param key Key of the object
+     * @return Ocket
+     * @throws IOException If fails
+     */
+    private static Ocket ocket(final AmazonS3 aws, final String key)
+        throws IOException {
+        final Region region = Mockito.mock(Region.class);
+        Mockito.when(region.aws()).thenReturn(aws);
+        final Bucket bucket = Mockito.mock(Bucket.class);
+        Mockito.when(bucket.region()).thenReturn(region);
+        Mockito.when(bucket.name()).thenReturn("bucket-mp");
+        final Ocket ocket = Mockito.mock(Ocket.class);
+        Mockito.when(ocket.bucket()).thenReturn(bucket);
+        Mockito.when(ocket.key()).thenReturn(key);
+        Mockito.when(ocket.exists()).thenReturn(false);
+        return ocket;
+    }
+
     /**
      * Ocket implementation which thread will be interrupted after first read.
      */
@@ -212,4 +400,81 @@ public final class S3ItemTest {
             return this.origin.compareTo(other);
         }
     }
+
+    /**
+     * Ocket that reads uploads with a small buffer and drops them.
+     */
+    private static final class OcktDrained implements Ocket {
+        /**
+         * Origin ocket.
+         */
+        private final Ocket origin;
+
+        /**
+         * Bytes read from the last upload.
+         */
+        private final AtomicLong bytes;
+
+        /**
+         * Ctor.
+         * @param origin Origin ocket
+         */
+        OcktDrained(final Ocket origin) {
+            this.origin = origin;
+            this.bytes = new AtomicLong();
+        }
+
+        /**
+         * Bytes read from the last upload.
+         * @return Number of bytes
+         */
+        public long drained() {
+            return this.bytes.get();
+        }
+
+        @Override
+        public Bucket bucket() {
+            return this.origin.bucket();
+        }
+
+        @Override
+        public String key() {
+            return this.origin.key();
+        }
+
+        @Override
+        public ObjectMetadata meta() throws IOException {
+            return this.origin.meta();
+        }
+
+        @Override
+        public boolean exists() throws IOException {
+            return this.origin.exists();
+        }
+
+        @Override
+        public void read(final OutputStream output) throws IOException {
+            this.origin.read(output);
+        }
+
+        @Override
+        public void write(final InputStream input, final ObjectMetadata meta)
+            throws IOException {
+            final byte[] buf = new byte[Tv.EIGHT << Tv.TEN];
+            long total = 0L;
+            while (true) {
+                final int len = input.read(buf);
+                if (len < 0) {
+                    break;
+                }
+                total += (long) len;
+            }
+            this.bytes.set(total);
+        }
+
+        @Override
+        public int compareTo(final Ocket other) {
+            return this.origin.compareTo(other);
+        }
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.s3.fake.FkBucket;
+import com.zerocracy.Farm;
+import com.zerocracy.Item;
+import com.zerocracy.Project;
+import com.zerocracy.pm.scope.Wbs;
+import java.nio.file.Files;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Latency benchmark of acquire/close round-trips through {@link SmartFarm}.
+ *
+ * <p>Measures how long it takes to acquire and close an item through
+ * the entire stack of farms, with all their hooks, without changes
+ * and with a change in the file: {@code claims.xml}, which goes through
+ * reactive and footprint farms, and {@code wbs.xml}, which goes through
+ * the ruled farm.</p>
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class SmartFarmITCase {
+
+    @Test
+    public void acquiresAndClosesQuickly() throws Exception {
+        try (final Farm farm = new SmartFarm(
+            new S3Farm(
+                new FkBucket(
+                    Files.createTempDirectory("").toFile(),
+                    "smart-farm-bench"
+                )
+            )
+        ).value()) {
+            final Project pkt = farm.find("@id='SMRTFRMIT'")
+                .iterator().next();
+            final Wbs wbs = new Wbs(pkt).bootstrap();
+            long start = System.nanoTime();
+            for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
+                pkt.acq("claims.xml").close();
+            }
+            final long claims = (System.nanoTime() - start) / Tv.HUNDRED;
+            start = System.nanoTime();
+            for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
+                try (final Item item = pkt.acq("wbs.xml")) {
+                    item.path();
+                }
+            }
+            final long copy = (System.nanoTime() - start) / Tv.HUNDRED;
+            start = System.nanoTime();
+            for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
+                wbs.add(String.format("gh:test/smart#%d", idx));
+            }
+            final long write = (System.nanoTime() - start) / Tv.HUNDRED;
+            Logger.info(
+                this,
+                "Round-trip through SmartFarm: %[nano]s claims.xml, %s",
+                claims,
+                Logger.format(
+                    "%[nano]s wbs.xml unchanged, %[nano]s wbs.xml changed",
+                    copy, write
+                )
+            );
+            MatcherAssert.assertThat(
+                wbs.iterate(),
+                Matchers.hasSize(Tv.HUNDRED)
+            );
+        }
+    }
+}
@@ -26,7 +26,9 @@ import com.zerocracy.claims.ClaimsItem;
 import com.zerocracy.entry.ClaimsOf;
 import com.zerocracy.farm.fake.FkProject;
 import com.zerocracy.farm.props.PropsFarm;
+import com.zerocracy.farm.sync.DeadlockException;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.cactoos.iterable.LengthOf;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -96,6 +98,28 @@ public final class StkSafeTest {
         );
     }
 
+    @Test
+    public void triesAgainAfterLostDeadlock() throws Exception {
+        final FkProject project = new FkProject();
+        new ClaimOut().type("hello again").postTo(
+            new ClaimsOf(new PropsFarm(), project)
+        );
+        final AtomicInteger calls = new AtomicInteger();
+        new StkSafe(
+            "deadlocks1",
+            new PropsFarm(),
+            (pkt, xml) -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new DeadlockException("Deadlock on \"a.xml\"");
+                }
+            }
+        ).process(
+            project,
+            new ClaimsItem(project).iterate().iterator().next()
+        );
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(2));
+    }
+
     /**
      * Always failing stakeholder.
      */
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.footprint;
+
+import com.jcabi.s3.fake.FkBucket;
+import com.mongodb.client.model.Filters;
+import com.zerocracy.Farm;
+import com.zerocracy.Item;
+import com.zerocracy.Project;
+import com.zerocracy.claims.ClaimOut;
+import com.zerocracy.claims.Footprint;
+import com.zerocracy.farm.S3Farm;
+import com.zerocracy.farm.pipe.Hook;
+import com.zerocracy.farm.pipe.Pipe;
+import com.zerocracy.farm.pipe.PipeItem;
+import com.zerocracy.farm.props.PropsFarm;
+import com.zerocracy.farm.sync.SyncFarm;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Test case for {@link FtHook}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class FtHookTest {
+
+    @Test
+    public void recordsClaimsAddedByLaterHooks() throws Exception {
+        try (final Farm farm = new FtFarm(
+            new PropsFarm(
+                new SyncFarm(
+                    new S3Farm(
+                        new FkBucket(
+                            Files.createTempDirectory("").toFile(),
+                            "ft-bucket"
+                        )
+                    )
+                )
+            )
+        )) {
+            final String pid = "FTHOOK001";
+            final Project project = farm.find(
+                String.format("@id='%s'", pid)
+            ).iterator().next();
+            try (final Item item = new PipeItem(
+                project.acq("claims.xml"), new FtHookTest.Auto()
+            )) {
+                Files.write(
+                    item.path(),
+                    "<claims/>".getBytes(StandardCharsets.UTF_8)
+                );
+            }
+            try (final Footprint footprint = new Footprint(farm, project)) {
+                MatcherAssert.assertThat(
+                    footprint.collection().find(
+                        Filters.and(
+                            Filters.eq("project", pid),
+                            Filters.eq("type", "Added by auto")
+                        )
+                    ),
+                    Matchers.iterableWithSize(1)
+                );
+            }
+        }
+    }
+
+    /**
+     * Hook which adds a claim, like an auto-XSL does.
+     */
+    private static final class Auto implements Hook {
+        @Override
+        public void closing(final Pipe pipe) throws IOException {
+            if (!pipe.dirty().isEmpty()) {
+                Files.write(
+                    pipe.writable(),
+                    new Xembler(
+                        new Directives().add("claims").append(
+                            new ClaimOut().type("Added by auto")
+                                .author("0crat")
+                        )
+                    ).xmlQuietly().getBytes(StandardCharsets.UTF_8)
+                );
+            }
+        }
+    }
+}
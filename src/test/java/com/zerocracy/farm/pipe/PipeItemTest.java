@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.pipe;
+
+import com.zerocracy.Item;
+import com.zerocracy.farm.fake.FkItem;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link PipeItem}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class PipeItemTest {
+
+    @Test
+    public void keepsOriginalWhenHookRejectsChanges() throws Exception {
+        final Path file = Files.createTempFile("pipe", ".xml");
+        Files.write(file, "<a/>".getBytes(StandardCharsets.UTF_8));
+        try (final Item item = new PipeItem(
+            new FkItem(file),
+            new Hook() {
+                @Override
+                public void closing(final Pipe pipe) throws IOException {
+                    throw new IOException("Rejected");
+                }
+            }
+        )) {
+            MatcherAssert.assertThat(
+                item.path(), Matchers.not(Matchers.equalTo(file))
+            );
+            Files.write(item.path(), "<b/>".getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.equalTo("Rejected")
+            );
+        }
+        MatcherAssert.assertThat(
+            new TextOf(file).asString(), Matchers.equalTo("<a/>")
+        );
+    }
+}
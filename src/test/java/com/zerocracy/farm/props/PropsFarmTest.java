@@ -21,6 +21,7 @@ import com.zerocracy.farm.fake.FkFarm;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.xembly.Directives;
 
 /**
  * Test case for {@link PropsFarm}.
@@ -46,4 +47,17 @@ public final class PropsFarmTest {
         );
     }
 
+    @Test
+    public void keepsPropsUntilReloaded() throws Exception {
+        final Directives dirs = new Directives();
+        final Props props = new Props(new PropsFarm(new FkFarm(), dirs));
+        MatcherAssert.assertThat(props.has("/props/extra"), Matchers.is(false));
+        dirs.xpath("/props").add("extra").set("here");
+        MatcherAssert.assertThat(props.has("/props/extra"), Matchers.is(false));
+        MatcherAssert.assertThat(
+            props.reload().get("/props/extra"),
+            Matchers.equalTo("here")
+        );
+    }
+
 }
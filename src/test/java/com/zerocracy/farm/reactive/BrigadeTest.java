@@ -16,11 +16,13 @@
  */
 package com.zerocracy.farm.reactive;
 
+import com.jcabi.matchers.XhtmlMatchers;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
 import com.zerocracy.Stakeholder;
+import com.zerocracy.claims.ClaimIn;
 import com.zerocracy.claims.ClaimOut;
 import com.zerocracy.claims.ClaimsItem;
 import com.zerocracy.entry.ClaimsOf;
@@ -38,9 +40,11 @@ import org.cactoos.io.TeeInput;
 import org.cactoos.iterable.IterableOf;
 import org.cactoos.iterable.Joined;
 import org.cactoos.iterable.Repeated;
+import org.cactoos.list.ListOf;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.xembly.Xembler;
 
 /**
  * Test case for {@link Brigade}.
@@ -136,4 +140,36 @@ public final class BrigadeTest {
         MatcherAssert.assertThat(hits.get(), Matchers.equalTo(1));
     }
 
+    @Test
+    public void skipsStakeholdersOfOtherTypes() throws Exception {
+        final AtomicInteger hits = new AtomicInteger();
+        final Brigade brigade = new Brigade(
+            (pkt, xml) -> {
+                hits.incrementAndGet();
+                if (!"good".equals(new ClaimIn(xml).type())) {
+                    throw new MismatchException(
+                        "not mine", new ListOf<>("good")
+                    );
+                }
+            }
+        );
+        final Project project = new FkProject();
+        for (final String type : new IterableOf<>("bad", "worse", "good")) {
+            brigade.apply(
+                project,
+                new XMLDocument(
+                    String.format("<claim><type>%s</type></claim>", type)
+                ).nodes("/claim").get(0)
+            );
+        }
+        MatcherAssert.assertThat(hits.get(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(
+            new XMLDocument(new Xembler(brigade.value()).xmlQuietly()),
+            XhtmlMatchers.hasXPaths(
+                "/dispatch[@indexed='1' and @wildcard='0']",
+                "/dispatch[@skipped='1']"
+            )
+        );
+    }
+
 }
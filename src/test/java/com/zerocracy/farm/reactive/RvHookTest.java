@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.reactive;
+
+import com.zerocracy.Item;
+import com.zerocracy.claims.ClaimOut;
+import com.zerocracy.farm.fake.FkItem;
+import com.zerocracy.farm.fake.FkProject;
+import com.zerocracy.farm.pipe.Hook;
+import com.zerocracy.farm.pipe.Pipe;
+import com.zerocracy.farm.pipe.PipeItem;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Test case for {@link RvHook}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class RvHookTest {
+
+    @Test
+    public void flushesClaimsAddedByLaterHooks() throws Exception {
+        final AtomicInteger flushes = new AtomicInteger();
+        try (final Item item = new PipeItem(
+            new PipeItem(
+                new FkItem(Files.createTempFile("rv", ".xml")),
+                new RvHook(
+                    new FkProject(), pkt -> flushes.incrementAndGet(), true
+                )
+            ),
+            new RvHookTest.Auto()
+        )) {
+            Files.write(
+                item.path(), "<claims/>".getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        MatcherAssert.assertThat(flushes.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * Hook which adds a claim, like an auto-XSL does.
+     */
+    private static final class Auto implements Hook {
+        @Override
+        public void closing(final Pipe pipe) throws IOException {
+            if (!pipe.dirty().isEmpty()) {
+                Files.write(
+                    pipe.writable(),
+                    new Xembler(
+                        new Directives().add("claims").append(
+                            new ClaimOut().type("Added by auto")
+                        )
+                    ).xmlQuietly().getBytes(StandardCharsets.UTF_8)
+                );
+            }
+        }
+    }
+}
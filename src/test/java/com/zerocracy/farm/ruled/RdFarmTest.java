@@ -16,15 +16,18 @@
  */
 package com.zerocracy.farm.ruled;
 
+import com.jcabi.matchers.XhtmlMatchers;
 import com.jcabi.s3.Bucket;
 import com.jcabi.s3.fake.FkBucket;
 import com.zerocracy.Farm;
+import com.zerocracy.Item;
 import com.zerocracy.Project;
 import com.zerocracy.RunsInThreads;
 import com.zerocracy.claims.ClaimOut;
 import com.zerocracy.claims.ClaimsItem;
 import com.zerocracy.entry.ClaimsOf;
 import com.zerocracy.farm.S3Farm;
+import com.zerocracy.farm.fake.FkFarm;
 import com.zerocracy.farm.props.PropsFarm;
 import com.zerocracy.farm.strict.StrictFarm;
 import com.zerocracy.farm.sync.SyncFarm;
@@ -32,6 +35,7 @@ import com.zerocracy.pm.scope.Wbs;
 import com.zerocracy.pmo.Pmo;
 import java.nio.file.Files;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.cactoos.text.TextOf;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -91,4 +95,25 @@ public final class RdFarmTest {
         }
     }
 
+    @Test
+    public void countsRulesInGuts() throws Exception {
+        try (final Farm farm = new RdFarm(new FkFarm())) {
+            final Project project = farm.find("@id='RDGUTSTST'")
+                .iterator().next();
+            new Wbs(project).bootstrap().add("gh:test/test#7");
+            try (
+                final Item item = farm.find("guts").iterator().next()
+                    .acq("guts.xml")
+            ) {
+                MatcherAssert.assertThat(
+                    XhtmlMatchers.xhtml(new TextOf(item.path()).asString()),
+                    XhtmlMatchers.hasXPaths(
+                        "/guts/farm[@id='RdFarm']/rules[@executed]",
+                        "/guts/farm[@id='RdFarm']/rules[@skipped]"
+                    )
+                );
+            }
+        }
+    }
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.ruled;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XMLDocument;
+import com.jcabi.xml.XSLDocument;
+import com.zerocracy.Datum;
+import com.zerocracy.Farm;
+import com.zerocracy.Project;
+import com.zerocracy.farm.fake.FkFarm;
+import com.zerocracy.pm.scope.Wbs;
+import java.net.URI;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Latency benchmark of {@link RdHook} on {@code wbs.xml}.
+ *
+ * <p>Fills WBS of a project with a hundred jobs and then measures
+ * how long it takes to validate it by the rules of {@code pm} area,
+ * compiling XSLs every time, like it was done before, and with
+ * compiled {@link RdTemplates}. Then measures the entire
+ * close of {@code wbs.xml} after a change in the WBS.</p>
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class RdItemITCase {
+
+    @Test
+    public void closesWbsQuickly() throws Exception {
+        try (final Farm farm = new RdFarm(new FkFarm())) {
+            final Project pkt = farm.find("@id='RDITEMIT1'").iterator().next();
+            final Wbs wbs = new Wbs(pkt).bootstrap();
+            for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
+                wbs.add(String.format("gh:test/bench#%d", idx));
+            }
+            final Iterable<String> xsls = new RdIndex(
+                URI.create("/latest/rules/pm")
+            ).iterate();
+            final RdSources sources = new RdSources(pkt);
+            long start = System.nanoTime();
+            for (int idx = 0; idx < Tv.TEN; ++idx) {
+                for (final String xsl : xsls) {
+                    XSLDocument.make(new Datum(xsl).stream())
+                        .with(sources)
+                        .transform(new XMLDocument("<i/>"));
+                }
+            }
+            final long before = (System.nanoTime() - start) / Tv.TEN;
+            start = System.nanoTime();
+            for (int idx = 0; idx < Tv.TEN; ++idx) {
+                for (final String xsl : xsls) {
+                    new RdTemplates(xsl).transform(
+                        new XMLDocument("<i/>"), sources
+                    );
+                }
+            }
+            final long after = (System.nanoTime() - start) / Tv.TEN;
+            start = System.nanoTime();
+            for (int idx = 0; idx < Tv.TEN; ++idx) {
+                wbs.add(String.format("gh:test/bench-more#%d", idx));
+            }
+            final long close = (System.nanoTime() - start) / Tv.TEN;
+            Logger.info(
+                this, "Rules of WBS: %[nano]s compiling, %[nano]s compiled",
+                before, after
+            );
+            Logger.info(
+                this, "Close of WBS with %d jobs: %[nano]s",
+                Tv.HUNDRED, close
+            );
+            MatcherAssert.assertThat(
+                RdTemplates.size(),
+                Matchers.greaterThan(0)
+            );
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.ruled;
+
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link RdReads}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class RdReadsTest {
+
+    @Test
+    public void findsLiteralDocuments() throws Exception {
+        MatcherAssert.assertThat(
+            RdReads.parse(
+                String.join(
+                    "",
+                    "<xsl:if test=\"document('wbs.xml')/wbs\"/>",
+                    "<xsl:value-of select=\"document( 'roles.xml' )\"/>"
+                )
+            ).get(),
+            Matchers.containsInAnyOrder("wbs.xml", "roles.xml")
+        );
+    }
+
+    @Test
+    public void readsAnythingWithDoc() throws Exception {
+        MatcherAssert.assertThat(
+            RdReads.parse(
+                String.join(
+                    "",
+                    "<xsl:value-of select=\"doc('x.xml')/x\"/>",
+                    "<xsl:if test=\"document('wbs.xml')\"/>"
+                )
+            ),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    public void readsAnythingWithoutCalls() throws Exception {
+        MatcherAssert.assertThat(
+            RdReads.parse("<xsl:template match='/'/>"),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    public void readsAnythingWithInclude() throws Exception {
+        MatcherAssert.assertThat(
+            RdReads.parse(
+                String.join(
+                    "",
+                    "<xsl:include href='x.xsl'/>",
+                    "<xsl:if test=\"document('a.xml')\"/>"
+                )
+            ),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.zerocracy.Farm;
+import com.zerocracy.farm.fake.FkFarm;
+import com.zerocracy.pmo.Awards;
+import com.zerocracy.pmo.Pmo;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Contention benchmark of {@link SyncFarm} on PMO sharded documents.
+ *
+ * <p>Updates awards of a thousand users from many threads, each of
+ * them in its own file with its own lock.</p>
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class SyncFarmITCase {
+
+    @Test
+    public void updatesAwardsOfManyUsersConcurrently() throws Exception {
+        Logger.info(
+            this, "Awards of %d users updated in %[ms]s",
+            Tv.THOUSAND, SyncFarmITCase.awards()
+        );
+    }
+
+    /**
+     * Update awards of a thousand users.
+     * @return Milliseconds spent
+     * @throws Exception If fails
+     */
+    private static long awards() throws Exception {
+        final ExecutorService service = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors() * 2
+        );
+        try (final Farm farm = new SyncFarm(
+            new FkFarm(Files.createTempDirectory("")),
+            TimeUnit.MINUTES.toMillis(1L)
+        )) {
+            final Pmo pmo = new Pmo(farm);
+            final Collection<Future<Integer>> futures = new LinkedList<>();
+            final long start = System.currentTimeMillis();
+            for (int idx = 0; idx < Tv.THOUSAND; ++idx) {
+                final String login = String.format("user%d", idx);
+                futures.add(
+                    service.submit(
+                        () -> {
+                            final Awards awards = new Awards(pmo, login)
+                                .bootstrap();
+                            awards.add(pmo, 1, "gh:test/test#1", "bench");
+                            return awards.total();
+                        }
+                    )
+                );
+            }
+            for (final Future<Integer> future : futures) {
+                MatcherAssert.assertThat(future.get(), Matchers.equalTo(1));
+            }
+            return System.currentTimeMillis() - start;
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.aspects.Tv;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link SyncLocks}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class SyncLocksTest {
+
+    @Test
+    public void locksFilesSeparately() {
+        final SyncLocks locks = new SyncLocks();
+        final Set<SyncLock> all = Collections.newSetFromMap(
+            new IdentityHashMap<>(0)
+        );
+        for (int idx = 0; idx < Tv.THOUSAND; ++idx) {
+            all.add(locks.lock(String.format("awards/user%d.xml", idx)));
+        }
+        MatcherAssert.assertThat(all.size(), Matchers.equalTo(Tv.THOUSAND));
+        MatcherAssert.assertThat(
+            locks.lock("awards/user1.xml"),
+            Matchers.sameInstance(locks.lock("awards/user1.xml"))
+        );
+    }
+
+    @Test
+    public void forgetsFreeLocks() {
+        final SyncLocks locks = new SyncLocks();
+        final String file = "awards/jeff.xml";
+        final SyncLock lock = locks.lock(file);
+        MatcherAssert.assertThat(
+            locks.lock(file), Matchers.sameInstance(lock)
+        );
+        locks.free(file);
+        MatcherAssert.assertThat(
+            locks.lock(file), Matchers.sameInstance(lock)
+        );
+        locks.free(file);
+        locks.free(file);
+        MatcherAssert.assertThat(
+            locks.lock(file), Matchers.not(Matchers.sameInstance(lock))
+        );
+    }
+
+    @Test
+    public void reportsHeldLocks() {
+        final SyncLocks locks = new SyncLocks();
+        final Lock lock = locks.lock("agenda/jeff.xml").write();
+        lock.lock();
+        try {
+            MatcherAssert.assertThat(
+                locks.held(),
+                Matchers.hasSize(1)
+            );
+        } finally {
+            lock.unlock();
+        }
+        MatcherAssert.assertThat(locks.held(), Matchers.empty());
+    }
+
+}
@@ -24,6 +24,12 @@ import com.zerocracy.farm.fake.FkFarm;
 import com.zerocracy.pmo.Pmo;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -54,4 +60,167 @@ public final class SyncProjectTest {
             );
         }
     }
+
+    @Test
+    public void sharesFilesForReading() throws Exception {
+        try (final Farm farm = new SyncFarm(new FkFarm())) {
+            final Project project = farm.find("@id='ABCZZFE04'")
+                .iterator().next();
+            try (final Item item = project.read("roles.xml")) {
+                item.path();
+                MatcherAssert.assertThat(
+                    Executors.newSingleThreadExecutor().submit(
+                        () -> {
+                            try (final Item other = project.read("roles.xml")) {
+                                return other.path();
+                            }
+                        }
+                    ).get(1L, TimeUnit.MINUTES),
+                    Matchers.notNullValue()
+                );
+            }
+        }
+    }
+
+    @Test
+    public void upgradesReadToWrite() throws Exception {
+        try (final Farm farm = new SyncFarm(new FkFarm())) {
+            final Project project = farm.find("@id='ABCZZFE06'")
+                .iterator().next();
+            final ExecutorService service = Executors.newSingleThreadExecutor();
+            MatcherAssert.assertThat(
+                service.submit(
+                    () -> {
+                        try (final Item read = project.read("wbs.xml")) {
+                            read.path();
+                            try (final Item write = project.acq("wbs.xml")) {
+                                write.path();
+                            }
+                        }
+                        return "done";
+                    }
+                ).get(1L, TimeUnit.MINUTES),
+                Matchers.equalTo("done")
+            );
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void waitsForOtherReadersBeforeWrite() throws Exception {
+        try (final Farm farm = new SyncFarm(new FkFarm())) {
+            final Project project = farm.find("@id='ABCZZFE07'")
+                .iterator().next();
+            final ExecutorService service = Executors.newSingleThreadExecutor();
+            final CountDownLatch reading = new CountDownLatch(1);
+            final Future<String> future;
+            try (final Item item = project.read("wbs.xml")) {
+                item.path();
+                future = service.submit(
+                    () -> {
+                        try (final Item read = project.read("wbs.xml")) {
+                            read.path();
+                            reading.countDown();
+                            try (final Item write = project.acq("wbs.xml")) {
+                                write.path();
+                            }
+                        }
+                        return "done";
+                    }
+                );
+                reading.await(1L, TimeUnit.MINUTES);
+                TimeUnit.SECONDS.sleep(2L);
+                MatcherAssert.assertThat(future.isDone(), Matchers.is(false));
+            }
+            MatcherAssert.assertThat(
+                future.get(1L, TimeUnit.MINUTES),
+                Matchers.equalTo("done")
+            );
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void writesShardedFileWhileOthersReadNeighbours() throws Exception {
+        try (final Farm farm = new SyncFarm(new FkFarm())) {
+            final Project project = new Pmo(farm);
+            final Collection<Item> items = new LinkedList<>();
+            for (int idx = 0; idx < Tv.THOUSAND; ++idx) {
+                final Item item = project.read(
+                    String.format("awards/user%d.xml", idx)
+                );
+                item.path();
+                items.add(item);
+            }
+            final ExecutorService service = Executors.newSingleThreadExecutor();
+            try {
+                MatcherAssert.assertThat(
+                    service.submit(
+                        () -> {
+                            try (final Item read =
+                                project.read("awards/a.xml")) {
+                                read.path();
+                                try (final Item write =
+                                    project.acq("awards/b.xml")) {
+                                    write.path();
+                                }
+                            }
+                            return "done";
+                        }
+                    ).get(1L, TimeUnit.MINUTES),
+                    Matchers.equalTo("done")
+                );
+            } finally {
+                for (final Item item : items) {
+                    item.close();
+                }
+                service.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void detectsDeadlocks() throws Exception {
+        try (final Farm farm = new SyncFarm(new FkFarm())) {
+            final Project project = farm.find("@id='ABCZZFE05'")
+                .iterator().next();
+            final CyclicBarrier barrier = new CyclicBarrier(2);
+            final ExecutorService service = Executors.newFixedThreadPool(2);
+            final Collection<Future<String>> futures = new LinkedList<>();
+            for (final String[] files : new String[][] {
+                {"wbs.xml", "roles.xml"},
+                {"roles.xml", "wbs.xml"},
+            }) {
+                futures.add(
+                    service.submit(
+                        () -> {
+                            String result = "done";
+                            try (final Item first = project.acq(files[0])) {
+                                first.path();
+                                barrier.await();
+                                final Item second = project.read(files[1]);
+                                second.path();
+                                second.close();
+                            } catch (final IllegalStateException ex) {
+                                result = ex.getMessage();
+                            }
+                            return result;
+                        }
+                    )
+                );
+            }
+            final Collection<String> results = new LinkedList<>();
+            for (final Future<String> future : futures) {
+                results.add(future.get(1L, TimeUnit.MINUTES));
+            }
+            service.shutdown();
+            MatcherAssert.assertThat(
+                results,
+                Matchers.hasItems(
+                    Matchers.startsWith("Deadlock"),
+                    Matchers.equalTo("done")
+                )
+            );
+        }
+    }
 }
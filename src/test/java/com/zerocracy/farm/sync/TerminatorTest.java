@@ -22,58 +22,111 @@ import com.zerocracy.farm.fake.FkProject;
 import com.zerocracy.farm.props.PropsFarm;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
-import org.mockito.Mockito;
 
 /**
  * Test case for {@link Terminator}.
  * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
  */
 public final class TerminatorTest {
     /**
      * Terminator can interrupt thread after lock timeout and checks lock again.
      * Tests that after calling
-     * {@link Terminator#submit(Project, String, Lock)}, if the lock cannot be
-     * acquired by the terminator thread, it will interrupt the thread and
-     * repeat the lock check.
+     * {@link Terminator#submit(Project, String, SyncLock)}, if the thread
+     * still holds the lock when the time is over, it will be interrupted.
      * @throws Exception if error occurred during test.
      */
     @Test
     public void interruptsThreadAfterLockTimeoutAndChecksLockAgain()
         throws Exception {
-        final Lock lock = Mockito.mock(Lock.class);
-        Mockito.when(lock.tryLock(Mockito.anyLong(), Mockito.any()))
-            .thenReturn(false).thenReturn(true);
+        final SyncLock lock = new SyncLock();
         final FkProject project = new FkProject();
         final PropsFarm farm = new PropsFarm();
         try (final Terminator terminator = new Terminator(farm, 1L)) {
             final AtomicBoolean interrupted = new AtomicBoolean(false);
             final Thread thread = new Thread(
                 () -> {
+                    lock.write().lock();
                     terminator.submit(project, "foo", lock);
                     try {
                         Thread.sleep(TimeUnit.SECONDS.toMillis(Tv.FIVE));
                     } catch (final InterruptedException ex) {
                         interrupted.set(true);
+                    } finally {
+                        terminator.release(project, "foo");
+                        lock.write().unlock();
                     }
                 }
             );
             thread.start();
             thread.join();
-            Mockito.verify(
-                lock,
-                Mockito.timeout(TimeUnit.SECONDS.toMillis(Tv.FIVE)).times(2)
-            ).tryLock(Mockito.anyLong(), Mockito.any());
-            Mockito.verify(
-                lock,
-                Mockito.timeout(TimeUnit.SECONDS.toMillis(Tv.FIVE)).times(1)
-            ).unlock();
             MatcherAssert.assertThat(
                 interrupted.get(), Matchers.is(true)
             );
+            MatcherAssert.assertThat(
+                lock.holders(), Matchers.emptyIterable()
+            );
+        }
+    }
+
+    @Test
+    public void doesntInterruptThreadAfterRelease() throws Exception {
+        final SyncLock lock = new SyncLock();
+        final FkProject project = new FkProject();
+        try (final Terminator terminator =
+            new Terminator(new PropsFarm(), 1L)) {
+            final AtomicBoolean interrupted = new AtomicBoolean(false);
+            final Thread thread = new Thread(
+                () -> {
+                    lock.read().lock();
+                    terminator.submit(project, "bar", lock);
+                    terminator.release(project, "bar");
+                    lock.read().unlock();
+                    try {
+                        Thread.sleep((long) Tv.FIVE * Tv.HUNDRED);
+                    } catch (final InterruptedException ex) {
+                        interrupted.set(true);
+                    }
+                }
+            );
+            thread.start();
+            thread.join();
+            MatcherAssert.assertThat(
+                interrupted.get(), Matchers.is(false)
+            );
+        }
+    }
+
+    @Test
+    public void releasesLockOfDeadThread() throws Exception {
+        final SyncLock lock = new SyncLock();
+        final FkProject project = new FkProject();
+        try (final Terminator terminator =
+            new Terminator(new PropsFarm(), 1L)) {
+            final Thread thread = new Thread(
+                () -> {
+                    lock.write().lock();
+                    terminator.submit(project, "dead.xml", lock);
+                }
+            );
+            thread.start();
+            thread.join();
+            final long deadline = System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis(Tv.FIVE);
+            while (!lock.holders().isEmpty()
+                && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep((long) Tv.TEN);
+            }
+            MatcherAssert.assertThat(
+                lock.holders(), Matchers.emptyIterable()
+            );
+            MatcherAssert.assertThat(
+                lock.write().tryLock(), Matchers.is(true)
+            );
+            lock.write().unlock();
         }
     }
 }
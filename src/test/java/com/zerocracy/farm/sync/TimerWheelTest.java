@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2016-2018 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.aspects.Tv;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link TimerWheel}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class TimerWheelTest {
+
+    @Test
+    public void firesTimeoutsInTime() {
+        final long start = System.currentTimeMillis();
+        final TimerWheel<String> wheel = new TimerWheel<>((long) Tv.TEN);
+        wheel.schedule("soon", (long) Tv.FIFTY);
+        wheel.schedule("later", TimeUnit.MINUTES.toMillis(1L));
+        wheel.cancel(wheel.schedule("never", (long) Tv.HUNDRED));
+        MatcherAssert.assertThat(
+            wheel.advance(start + (long) Tv.TWENTY),
+            Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            wheel.advance(start + TimeUnit.SECONDS.toMillis(1L)),
+            Matchers.contains("soon")
+        );
+        MatcherAssert.assertThat(
+            wheel.advance(start + TimeUnit.SECONDS.toMillis((long) Tv.FIFTY)),
+            Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(wheel.size(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            wheel.advance(start + TimeUnit.MINUTES.toMillis(2L)),
+            Matchers.contains("later")
+        );
+        MatcherAssert.assertThat(wheel.size(), Matchers.equalTo(0));
+    }
+
+}
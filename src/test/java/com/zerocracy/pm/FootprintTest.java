@@ -18,6 +18,7 @@ package com.zerocracy.pm;
 
 import com.jcabi.aspects.Tv;
 import com.jcabi.xml.XML;
+import com.mongodb.MongoClient;
 import com.mongodb.client.model.Filters;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
@@ -27,6 +28,7 @@ import com.zerocracy.claims.ClaimsItem;
 import com.zerocracy.claims.Footprint;
 import com.zerocracy.entry.ClaimsOf;
 import com.zerocracy.entry.ExtMongo;
+import com.zerocracy.entry.MongobeeChangelog;
 import com.zerocracy.farm.props.PropsFarm;
 import com.zerocracy.farm.sync.SyncFarm;
 import java.io.IOException;
@@ -143,8 +145,44 @@ public final class FootprintTest {
         }
     }
 
+    @Test
+    public void rejectsConcurrentDuplicates() throws Exception {
+        final Farm farm = new PropsFarm();
+        final Project project = farm.find("@id='FOOTPRNTC'")
+            .iterator().next();
+        new ClaimOut().type("Hello").postTo(new ClaimsOf(farm, project));
+        final XML xml = new ClaimsItem(project).iterate().iterator().next();
+        final AtomicInteger opened = new AtomicInteger();
+        try (
+            final Footprint footprint = FootprintTest.footprint(farm, project)
+        ) {
+            MatcherAssert.assertThat(
+                inc -> {
+                    try {
+                        footprint.open(xml, "concurrent");
+                        inc.incrementAndGet();
+                    } catch (final IllegalArgumentException ex) {
+                        MatcherAssert.assertThat(
+                            ex.getLocalizedMessage(),
+                            Matchers.containsString("already exists")
+                        );
+                    }
+                    return true;
+                },
+                new RunsInThreads<>(opened, Tv.TWENTY)
+            );
+            MatcherAssert.assertThat(opened.get(), Matchers.equalTo(1));
+            MatcherAssert.assertThat(
+                footprint.collection().find(
+                    Filters.eq("project", project.pid())
+                ),
+                Matchers.iterableWithSize(1)
+            );
+        }
+    }
+
     /**
-     * Create footprint with custom Mongo DB.
+     * Create footprint with custom Mongo DB, which has the unique index.
      * @param farm Farm to use
      * @param project Project to use
      * @return Created footprint
@@ -152,9 +190,9 @@ public final class FootprintTest {
      */
     private static Footprint footprint(final Farm farm, final Project project)
         throws IOException {
-        return new Footprint(
-            new ExtMongo(farm, UUID.randomUUID().toString()).value(),
-            project.pid()
-        );
+        final MongoClient client =
+            new ExtMongo(farm, UUID.randomUUID().toString()).value();
+        MongobeeChangelog.uniqueClaims(client.getDB(Footprint.DBNAME));
+        return new Footprint(client, project.pid());
     }
 }
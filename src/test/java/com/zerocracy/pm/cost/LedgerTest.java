@@ -82,6 +82,29 @@ public final class LedgerTest {
         );
     }
 
+    @Test
+    public void addsTransactionsToSameAccountAtOnce() throws Exception {
+        final Ledger ledger = new Ledger(new FkProject()).bootstrap();
+        ledger.add(
+            new Ledger.Transaction(
+                new Cash.S("$20"),
+                "assets", "cash",
+                "income", "sponsor",
+                "The first part of funding"
+            ),
+            new Ledger.Transaction(
+                new Cash.S("$30"),
+                "assets", "cash",
+                "income", "sponsor",
+                "The second part of funding"
+            )
+        );
+        MatcherAssert.assertThat(
+            ledger.cash(),
+            Matchers.equalTo(new Cash.S("$50"))
+        );
+    }
+
     @Test
     public void modifiesDeficit() throws Exception {
         final Ledger ledger = new Ledger(new FkProject()).bootstrap();